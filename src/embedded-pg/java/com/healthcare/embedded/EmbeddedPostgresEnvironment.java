@@ -0,0 +1,65 @@
+package com.healthcare.embedded;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.Profiles;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Starts a throwaway PostgreSQL server from bundled binaries when the {@code embedded-pg} profile is
+ * active and points {@code spring.datasource.*} at it, so the prod profile's dialect, pool and
+ * statement-cache settings can be exercised by integration tests and benchmarks on a machine with no
+ * database server. Only compiled into builds made with {@code -Pembedded-pg}.
+ */
+public class EmbeddedPostgresEnvironment implements EnvironmentPostProcessor, Ordered {
+
+    private static final Logger logger = Logger.getLogger(EmbeddedPostgresEnvironment.class.getName());
+
+    private static EmbeddedPostgres server;
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.acceptsProfiles(Profiles.of("embedded-pg"))) {
+            return;
+        }
+        String url = start().getJdbcUrl("postgres", "postgres");
+        environment.getPropertySources().addFirst(new MapPropertySource("embeddedPostgres", Map.of(
+                "spring.datasource.url", url,
+                "spring.datasource.username", "postgres",
+                "spring.datasource.password", "")));
+        logger.info("Embedded PostgreSQL started at " + url);
+    }
+
+    // One server per JVM, shared by every application context a test run creates
+    private static synchronized EmbeddedPostgres start() {
+        if (server == null) {
+            try {
+                server = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot start embedded PostgreSQL", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException e) {
+                    logger.warning("Embedded PostgreSQL did not shut down cleanly: " + e.getMessage());
+                }
+            }, "embedded-pg-shutdown"));
+        }
+        return server;
+    }
+
+    // After the config data processor, so profiles set in properties files are visible
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,79 @@
+package com.healthcare.embedded;
+
+import com.healthcare.dto.CursorPage;
+import com.healthcare.dto.PrescriptionSummary;
+import com.healthcare.model.Person;
+import com.healthcare.model.Prescription;
+import com.healthcare.repository.PersonRepository;
+import com.healthcare.repository.PrescriptionRepository;
+import com.healthcare.service.PrescriptionService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the prod profile against the embedded PostgreSQL server: the PostgreSQL migrations apply, the
+ * schema validates against the entities, and queries that depend on the dialect behave as on H2.
+ * Only compiled and run with {@code mvn -Pembedded-pg test}.
+ */
+@SpringBootTest
+@ActiveProfiles({"prod", "embedded-pg"})
+class PostgresProfileTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private PrescriptionService prescriptionService;
+
+    @Test
+    void migrationsApplyToPostgres() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.getMetaData().getDatabaseProductName()).isEqualTo("PostgreSQL");
+        }
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().current()).isNotNull();
+    }
+
+    @Test
+    @Transactional
+    void keysetHistoryPagesThroughUndatedRows() {
+        Person patient = personRepository.save(Person.builder().fullName("Pg Patient")
+                .email("pg-patient@embedded.test").password("unused").build());
+        LocalDate today = LocalDate.now();
+        for (LocalDate date : new LocalDate[] {today, null, today.minusDays(2), null, today}) {
+            prescriptionRepository.save(Prescription.builder().patient(patient).medication("zinc").dateIssued(date).build());
+        }
+
+        List<LocalDate> dates = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<PrescriptionSummary> page = prescriptionService.getPrescriptionHistoryByPatientId(
+                    patient.getId(), cursor, 2, false);
+            page.items().forEach(item -> dates.add(item.dateIssued()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(dates).containsExactly(null, null, today, today, today.minusDays(2));
+    }
+}
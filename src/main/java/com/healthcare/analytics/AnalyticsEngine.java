@@ -0,0 +1,364 @@
+package com.healthcare.analytics;
+
+import com.healthcare.event.EntityChangeListener;
+import com.healthcare.event.EntityUpdate;
+import com.healthcare.model.Appointment;
+import com.healthcare.model.Cell;
+import com.healthcare.model.District;
+import com.healthcare.model.Person;
+import com.healthcare.model.Prescription;
+import com.healthcare.model.Sector;
+import com.healthcare.model.Village;
+import com.healthcare.repository.AppointmentRepository;
+import com.healthcare.repository.PrescriptionRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Incremental day/week rollups for appointments (by hospital, service, status and patient district)
+ * and prescriptions (by medication and status). Committed creates, updates and deletes adjust the
+ * affected buckets; {@link #rebuild()} recomputes everything from the tables for backfill.
+ * <p>
+ * A rebuild reads both tables in one repeatable-read snapshot while changes keep landing on the live
+ * rollups. Those changes are also buffered, and before the swap each one is replayed into the new
+ * rollups unless the snapshot already contains it, which is decided by the row's optimistic-lock version.
+ * <p>
+ * The district dimension comes from the patient's village, which can change without the appointment
+ * changing. The rollups therefore remember the district each appointment was counted under and
+ * retract from that one.
+ */
+@Service
+public class AnalyticsEngine implements EntityChangeListener {
+
+    public static final String APPOINTMENTS = "appointments";
+    public static final String PRESCRIPTIONS = "prescriptions";
+
+    private static final Logger logger = Logger.getLogger(AnalyticsEngine.class.getName());
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final AppointmentRepository appointmentRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate snapshotTransaction;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "analytics-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Rollups rollups = new Rollups();
+    private volatile Instant lastRebuiltAt;
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    // Live changes hold the read lock; the rebuild's replay-and-swap holds the write lock
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    // Non-null while a rebuild is reading its snapshot
+    private volatile Queue<Change> pending;
+
+    public AnalyticsEngine(AppointmentRepository appointmentRepository, PrescriptionRepository prescriptionRepository,
+                           EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        this.entityManager = entityManager;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public NavigableMap<LocalDate, Map<String, Long>> query(String metric, Granularity granularity, String dimension,
+                                                             LocalDate from, LocalDate to) {
+        return rollups.range(metric, granularity, dimension, from, to);
+    }
+
+    public Instant getLastRebuiltAt() {
+        return lastRebuiltAt;
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+
+    @Override
+    public void onInsert(Object entity) {
+        RowKey key = keyOf(entity);
+        if (key != null) {
+            apply(new Change(Change.Kind.INSERT, key, versionOf(entity), target -> contribute(target, entity, 1)));
+        }
+    }
+
+    @Override
+    public void onUpdate(Object entity, EntityUpdate update) {
+        RowKey key = keyOf(entity);
+        if (key == null) {
+            return;
+        }
+        apply(new Change(Change.Kind.UPDATE, key, versionOf(entity), target -> {
+            if (entity instanceof Appointment appointment) {
+                Map<String, String> oldDimensions = appointmentDimensions(
+                        (String) update.previous("hospitalId"), (String) update.previous("serviceId"),
+                        (String) update.previous("status"),
+                        countedDistrict(target, appointment.getId(), (Person) update.previous("patient")));
+                target.add(APPOINTMENTS, (LocalDate) update.previous("date"), oldDimensions, -1);
+                contribute(target, appointment, 1);
+            } else if (entity instanceof Prescription prescription) {
+                Map<String, String> oldDimensions = prescriptionDimensions(
+                        (String) update.previous("medication"), (String) update.previous("status"));
+                target.add(PRESCRIPTIONS, (LocalDate) update.previous("dateIssued"), oldDimensions, -1);
+                contribute(target, prescription, 1);
+            }
+        }));
+    }
+
+    @Override
+    public void onDelete(Object entity) {
+        RowKey key = keyOf(entity);
+        if (key != null) {
+            apply(new Change(Change.Kind.DELETE, key, versionOf(entity), target -> contribute(target, entity, -1)));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        rebuildAsync();
+    }
+
+    /**
+     * Starts a rebuild on the engine's single rebuild thread. Returns false if one is already running.
+     */
+    public boolean rebuildAsync() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            rebuildExecutor.execute(this::runRebuild);
+            return true;
+        } catch (RejectedExecutionException e) {
+            rebuilding.set(false);
+            return false;
+        }
+    }
+
+    /**
+     * Recomputes every rollup from the appointments and prescriptions tables in id order, then swaps
+     * the result in. Returns false if a rebuild is already running.
+     */
+    public boolean rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        return runRebuild();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private boolean runRebuild() {
+        long start = System.currentTimeMillis();
+        pending = new ConcurrentLinkedQueue<>();
+        try {
+            int replayed = snapshotTransaction.execute(status -> {
+                Rollups fresh = new Rollups();
+                scan(appointmentRepository, fresh);
+                scan(prescriptionRepository, fresh);
+                return replayAndSwap(fresh);
+            });
+            lastRebuiltAt = Instant.now();
+            logger.info("Analytics rollups rebuilt in " + (System.currentTimeMillis() - start) + " ms, "
+                    + replayed + " concurrent changes replayed");
+            return true;
+        } catch (Exception e) {
+            logger.severe("Analytics rebuild failed: " + e.getMessage());
+            return false;
+        } finally {
+            pending = null;
+            rebuilding.set(false);
+        }
+    }
+
+    private <T> void scan(JpaRepository<T, Long> repository, Rollups target) {
+        Page<T> page = repository.findAll(PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id")));
+        while (true) {
+            page.forEach(row -> contribute(target, row, 1));
+            // One transaction spans the whole scan, so keep its persistence context to a single page
+            entityManager.clear();
+            if (!page.hasNext()) {
+                break;
+            }
+            page = repository.findAll(page.nextPageable());
+        }
+    }
+
+    private void apply(Change change) {
+        swapLock.readLock().lock();
+        try {
+            change.delta().accept(rollups);
+            Queue<Change> buffer = pending;
+            if (buffer != null) {
+                buffer.add(change);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs inside the snapshot transaction. A buffered change whose row version the snapshot already
+     * has is part of the scan and is skipped; any later change is applied to {@code fresh}. Live
+     * changes wait on the write lock for one indexed version lookup, then land on the new rollups.
+     */
+    private int replayAndSwap(Rollups fresh) {
+        swapLock.writeLock().lock();
+        try {
+            List<Change> changes = new ArrayList<>(pending);
+            Map<RowKey, Long> versions = snapshotVersions(changes);
+            int replayed = 0;
+            for (Change change : changes) {
+                Long current = versions.get(change.key());
+                boolean missing = switch (change.kind()) {
+                    case INSERT -> current == null;
+                    case UPDATE -> current != null && change.version() > current;
+                    case DELETE -> current != null;
+                };
+                if (!missing) {
+                    continue;
+                }
+                change.delta().accept(fresh);
+                replayed++;
+                if (change.kind() == Change.Kind.DELETE) {
+                    versions.remove(change.key());
+                } else {
+                    versions.put(change.key(), change.version());
+                }
+            }
+            rollups = fresh;
+            pending = null;
+            return replayed;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private Map<RowKey, Long> snapshotVersions(List<Change> changes) {
+        Map<RowKey, Long> versions = new HashMap<>();
+        loadVersions(APPOINTMENTS, changes, appointmentRepository::findVersionsByIdIn, versions);
+        loadVersions(PRESCRIPTIONS, changes, prescriptionRepository::findVersionsByIdIn, versions);
+        return versions;
+    }
+
+    private static void loadVersions(String metric, List<Change> changes,
+                                     Function<List<Long>, List<RowVersion>> finder, Map<RowKey, Long> into) {
+        List<Long> ids = changes.stream()
+                .map(Change::key)
+                .filter(key -> key.metric().equals(metric))
+                .map(RowKey::id)
+                .distinct()
+                .toList();
+        for (int from = 0; from < ids.size(); from += REBUILD_PAGE_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + REBUILD_PAGE_SIZE, ids.size()));
+            for (RowVersion row : finder.apply(chunk)) {
+                into.put(new RowKey(metric, row.id()), row.version() != null ? row.version() : -1L);
+            }
+        }
+    }
+
+    private static RowKey keyOf(Object entity) {
+        if (entity instanceof Appointment a) {
+            return new RowKey(APPOINTMENTS, a.getId());
+        } else if (entity instanceof Prescription p) {
+            return new RowKey(PRESCRIPTIONS, p.getId());
+        }
+        return null;
+    }
+
+    private static long versionOf(Object entity) {
+        Long version = entity instanceof Appointment a ? a.getVersion()
+                : entity instanceof Prescription p ? p.getVersion() : null;
+        return version != null ? version : -1L;
+    }
+
+    private void contribute(Rollups target, Object entity, long delta) {
+        if (entity instanceof Appointment a) {
+            String district;
+            if (delta > 0) {
+                district = districtOf(a.getPatient());
+                target.countedDistrict(a.getId(), district);
+            } else {
+                district = countedDistrict(target, a.getId(), a.getPatient());
+            }
+            target.add(APPOINTMENTS, a.getDate(),
+                    appointmentDimensions(a.getHospitalId(), a.getServiceId(), a.getStatus(), district), delta);
+        } else if (entity instanceof Prescription p) {
+            target.add(PRESCRIPTIONS, p.getDateIssued(), prescriptionDimensions(p.getMedication(), p.getStatus()), delta);
+        }
+    }
+
+    private static Map<String, String> appointmentDimensions(String hospitalId, String serviceId, String status, String district) {
+        Map<String, String> dimensions = new LinkedHashMap<>();
+        dimensions.put("all", "total");
+        dimensions.put("hospital", hospitalId);
+        dimensions.put("service", serviceId);
+        dimensions.put("status", status);
+        dimensions.put("district", district);
+        return dimensions;
+    }
+
+    private static Map<String, String> prescriptionDimensions(String medication, String status) {
+        Map<String, String> dimensions = new LinkedHashMap<>();
+        dimensions.put("all", "total");
+        dimensions.put("medication", medication != null ? medication.trim().toLowerCase() : null);
+        dimensions.put("status", status);
+        return dimensions;
+    }
+
+    // Retracts under the district the appointment was counted in, not the patient's current one
+    private static String countedDistrict(Rollups target, Long appointmentId, Person patient) {
+        String counted = target.retractedDistrict(appointmentId);
+        return counted != null ? counted : districtOf(patient);
+    }
+
+    private static String districtOf(Person patient) {
+        Village village = patient != null ? patient.getVillage() : null;
+        Cell cell = village != null ? village.getCell() : null;
+        Sector sector = cell != null ? cell.getSector() : null;
+        District district = sector != null ? sector.getDistrict() : null;
+        return district != null ? district.getName() : null;
+    }
+
+    private record RowKey(String metric, Long id) {
+    }
+
+    private record Change(Kind kind, RowKey key, long version, Consumer<Rollups> delta) {
+
+        enum Kind { INSERT, UPDATE, DELETE }
+    }
+}
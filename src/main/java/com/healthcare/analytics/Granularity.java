@@ -0,0 +1,22 @@
+package com.healthcare.analytics;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+public enum Granularity {
+    DAY, WEEK;
+
+    /** Start of the bucket containing the date; weeks start on Monday (ISO-8601). */
+    public LocalDate bucketOf(LocalDate date) {
+        return this == WEEK ? date.with(DayOfWeek.MONDAY) : date;
+    }
+
+    public static Granularity fromKey(String key) {
+        for (Granularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(key)) {
+                return granularity;
+            }
+        }
+        return null;
+    }
+}
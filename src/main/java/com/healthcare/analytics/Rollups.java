@@ -0,0 +1,75 @@
+package com.healthcare.analytics;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts per (metric, granularity, dimension) series, bucketed by date and then by dimension value.
+ * Buckets are kept in a sorted map so a date range is a sub-map view, independent of table size.
+ */
+class Rollups {
+
+    static final String UNKNOWN = "unknown";
+
+    record SeriesKey(String metric, Granularity granularity, String dimension) {
+    }
+
+    private final Map<SeriesKey, ConcurrentSkipListMap<LocalDate, Map<String, LongAdder>>> series = new ConcurrentHashMap<>();
+    // District each counted appointment was added under; the patient may move before the appointment changes
+    private final Map<Long, String> appointmentDistricts = new ConcurrentHashMap<>();
+
+    void add(String metric, LocalDate date, Map<String, String> dimensions, long delta) {
+        if (date == null) {
+            return;
+        }
+        for (Granularity granularity : Granularity.values()) {
+            LocalDate bucket = granularity.bucketOf(date);
+            for (Map.Entry<String, String> dimension : dimensions.entrySet()) {
+                String value = dimension.getValue() != null ? dimension.getValue() : UNKNOWN;
+                series.computeIfAbsent(new SeriesKey(metric, granularity, dimension.getKey()), k -> new ConcurrentSkipListMap<>())
+                        .computeIfAbsent(bucket, b -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(value, v -> new LongAdder())
+                        .add(delta);
+            }
+        }
+    }
+
+    void countedDistrict(Long appointmentId, String district) {
+        if (appointmentId != null) {
+            appointmentDistricts.put(appointmentId, district != null ? district : UNKNOWN);
+        }
+    }
+
+    /** The district the appointment was counted under, forgotten once it is retracted; null if unknown. */
+    String retractedDistrict(Long appointmentId) {
+        return appointmentId != null ? appointmentDistricts.remove(appointmentId) : null;
+    }
+
+    NavigableMap<LocalDate, Map<String, Long>> range(String metric, Granularity granularity, String dimension,
+                                                      LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, Map<String, Long>> result = new TreeMap<>();
+        ConcurrentSkipListMap<LocalDate, Map<String, LongAdder>> buckets = series.get(new SeriesKey(metric, granularity, dimension));
+        if (buckets == null) {
+            return result;
+        }
+        for (Map.Entry<LocalDate, Map<String, LongAdder>> bucket
+                : buckets.subMap(granularity.bucketOf(from), true, to, true).entrySet()) {
+            Map<String, Long> values = new TreeMap<>();
+            bucket.getValue().forEach((value, count) -> {
+                long sum = count.sum();
+                if (sum != 0) {
+                    values.put(value, sum);
+                }
+            });
+            if (!values.isEmpty()) {
+                result.put(bucket.getKey(), values);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,5 @@
+package com.healthcare.analytics;
+
+/** The optimistic-lock version of one row, as seen by the rebuild's snapshot. */
+public record RowVersion(Long id, Long version) {
+}
@@ -0,0 +1,19 @@
+package com.healthcare.config;
+
+import com.healthcare.ratelimit.InMemoryRateLimitStore;
+import com.healthcare.ratelimit.RateLimitStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitConfig {
+
+    // A shared store for multi-node deployments is another RateLimitStore bean selected by its own ratelimit.store value
+    @Bean
+    @ConditionalOnProperty(name = "ratelimit.store", havingValue = "memory", matchIfMissing = true)
+    public RateLimitStore inMemoryRateLimitStore(@Value("${ratelimit.stripes:65536}") int stripes) {
+        return new InMemoryRateLimitStore(stripes);
+    }
+}
@@ -0,0 +1,87 @@
+package com.healthcare.config;
+
+import com.healthcare.routing.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Replaces the single auto-configured pool with a primary pool plus one pool per URL in
+ * {@code datasource.replica.urls}, behind a routing data source. Replica pools copy the primary's
+ * Hikari settings (spring.datasource.hikari.*) with their own URL and, optionally, credentials.
+ * Absent replica URLs, none of this is created and Spring Boot's own data source is used.
+ */
+@Configuration
+@ConditionalOnExpression("'${datasource.replica.urls:}' != ''")
+public class ReplicaRoutingConfig {
+
+    private static final Logger logger = Logger.getLogger(ReplicaRoutingConfig.class.getName());
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primary,
+            @Value("${datasource.replica.urls}") List<String> urls,
+            @Value("${datasource.replica.username:}") String username,
+            @Value("${datasource.replica.password:}") String password,
+            MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primary.copyStateTo(config);
+            config.setJdbcUrl(urls.get(i).trim());
+            config.setPoolName((primary.getPoolName() != null ? primary.getPoolName() : "primary") + "-replica-" + i);
+            config.setReadOnly(true);
+            // Spring Boot only binds pool metrics for DataSource beans; replicas report as hikaricp.*{pool}
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            if (!username.isEmpty()) {
+                config.setUsername(username);
+                config.setPassword(password);
+            }
+            replicas.add(new HikariDataSource(config));
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas, meterRegistry);
+        routing.afterPropertiesSet();
+        logger.info("Read-only transactions on GET requests routed across " + replicas.size() + " replica(s)");
+        return routing;
+    }
+
+    /**
+     * Spring's default keeps a JDBC connection for the whole open-in-view session, so the first
+     * transaction of a request would pin every later one to the same target; release per transaction.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
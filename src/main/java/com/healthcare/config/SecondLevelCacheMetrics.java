@@ -0,0 +1,45 @@
+package com.healthcare.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.logging.Logger;
+
+/**
+ * Publishes {@code hibernate.cache.hit.ratio{region}} for every second-level and query cache region.
+ * Raw hit/miss/put counters come from the hibernate-micrometer binding Spring Boot registers
+ * ({@code hibernate.second.level.cache.requests}, {@code hibernate.cache.query.requests}).
+ */
+@Configuration
+public class SecondLevelCacheMetrics {
+
+    private static final Logger logger = Logger.getLogger(SecondLevelCacheMetrics.class.getName());
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            logger.warning("hibernate.generate_statistics is off; second-level cache hit ratios will read 0");
+        }
+        String[] regions = statistics.getSecondLevelCacheRegionNames();
+        for (String region : regions) {
+            Gauge.builder("hibernate.cache.hit.ratio", statistics, s -> hitRatio(s.getCacheRegionStatistics(region)))
+                    .tag("region", region)
+                    .description("Share of second-level/query cache lookups answered from the cache")
+                    .register(meterRegistry);
+        }
+        logger.info("Second-level cache regions: " + String.join(", ", regions));
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        if (region == null) {
+            return 0.0;
+        }
+        long lookups = region.getHitCount() + region.getMissCount();
+        return lookups == 0 ? 0.0 : (double) region.getHitCount() / lookups;
+    }
+}
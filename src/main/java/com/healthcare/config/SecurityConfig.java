@@ -1,9 +1,14 @@
 package com.healthcare.config;
 
 import com.healthcare.filter.JwtRequestFilter;
+import com.healthcare.password.BcryptCalibration;
+import com.healthcare.password.PooledPasswordEncoder;
 import com.healthcare.service.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -11,7 +16,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -27,23 +31,40 @@ public class SecurityConfig {
 
     private final UserDetailsServiceImpl userDetailsService;
     private final JwtRequestFilter jwtRequestFilter;
+    // Set (e.g. in prod) when actuator runs on its own port that only the scrape network can reach
+    private final boolean separateManagementPort;
 
-    public SecurityConfig(UserDetailsServiceImpl userDetailsService, JwtRequestFilter jwtRequestFilter) {
+    public SecurityConfig(UserDetailsServiceImpl userDetailsService, JwtRequestFilter jwtRequestFilter,
+                          @Value("${management.server.port:}") String managementPort,
+                          @Value("${server.port:8080}") String serverPort) {
         this.userDetailsService = userDetailsService;
         this.jwtRequestFilter = jwtRequestFilter;
+        this.separateManagementPort = !managementPort.isBlank() && !managementPort.equals(serverPort);
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider)
+            throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
-                .authorizeHttpRequests(authorize -> authorize
-                        .requestMatchers("/api/auth/**").permitAll()
-                        .anyRequest().authenticated()
-                )
+                .authorizeHttpRequests(authorize -> {
+                    authorize
+                            .requestMatchers("/api/auth/**").permitAll()
+                            .requestMatchers("/actuator/health/**").permitAll()
+                            // Bulk exports of clinical data, bulk patient imports and full analytics
+                            // rebuilds are for administrators only
+                            .requestMatchers("/api/exports/**", "/api/persons/import/**").hasAuthority("ADMIN")
+                            .requestMatchers(HttpMethod.POST, "/api/analytics/rebuild").hasAuthority("ADMIN");
+                    // Metrics are open to scrapers only on a separate management port; on the
+                    // application port they need an authenticated caller like any other endpoint
+                    if (separateManagementPort) {
+                        authorize.requestMatchers("/actuator/prometheus").permitAll();
+                    }
+                    authorize.anyRequest().authenticated();
+                })
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .authenticationProvider(authenticationProvider())
+                .authenticationProvider(authenticationProvider)
                 .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
@@ -55,22 +76,37 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "ETag", "Idempotent-Replayed", "X-Trace-Id"));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
     }
 
+    /**
+     * BCrypt on a bounded pool. Strength 0 calibrates at startup to the highest strength that hashes
+     * within the target time; pin it explicitly when nodes differ in CPU.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PooledPasswordEncoder passwordEncoder(@Value("${password.hash.strength:0}") int strength,
+                                                 @Value("${password.hash.target-ms:100}") long targetMs,
+                                                 @Value("${password.hash.min-strength:10}") int minStrength,
+                                                 @Value("${password.hash.max-strength:14}") int maxStrength,
+                                                 @Value("${password.hash.workers:0}") int workers,
+                                                 @Value("${password.hash.queue-capacity:64}") int queueCapacity,
+                                                 @Value("${password.hash.wait-timeout-ms:5000}") long waitTimeoutMs,
+                                                 MeterRegistry meterRegistry) {
+        int effectiveStrength = strength > 0 ? strength : BcryptCalibration.strengthFor(targetMs, minStrength, maxStrength);
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        return new PooledPasswordEncoder(effectiveStrength, threads, queueCapacity, waitTimeoutMs, meterRegistry);
     }
 
+    // Hashes made with a lower strength are rewritten with the current one after a successful login
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsService);
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
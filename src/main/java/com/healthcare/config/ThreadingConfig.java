@@ -0,0 +1,34 @@
+package com.healthcare.config;
+
+import com.healthcare.util.ThreadFactories;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.logging.Logger;
+
+/**
+ * Reports the request/async execution mode at startup. Spring Boot only switches Tomcat, the
+ * scheduler and the application task executor to virtual threads on Java 21+, so asking for them on
+ * an older runtime silently keeps platform threads; this makes that visible.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger logger = Logger.getLogger(ThreadingConfig.class.getName());
+
+    public ThreadingConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                           @Value("${server.concurrency.max-in-flight:0}") int maxInFlight) {
+        if (!virtualThreads) {
+            logger.info("Request handling on platform threads (spring.threads.virtual.enabled=false)");
+        } else if (!ThreadFactories.virtualThreadsSupported()) {
+            logger.warning("spring.threads.virtual.enabled=true but Java " + Runtime.version().feature()
+                    + " has no virtual threads; build and run with -Pjava21 on a Java 21 runtime");
+        } else {
+            logger.info("Request handling, scheduling and email workers on virtual threads");
+            if (maxInFlight <= 0) {
+                logger.warning("Virtual threads without server.concurrency.max-in-flight: "
+                        + "request concurrency is bounded only by the connection pool timeout");
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.healthcare.controller;
+
+import com.healthcare.analytics.AnalyticsEngine;
+import com.healthcare.analytics.Granularity;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private static final Set<String> APPOINTMENT_DIMENSIONS = Set.of("all", "hospital", "service", "status", "district");
+    private static final Set<String> PRESCRIPTION_DIMENSIONS = Set.of("all", "medication", "status");
+
+    private final AnalyticsEngine analyticsEngine;
+
+    public AnalyticsController(AnalyticsEngine analyticsEngine) {
+        this.analyticsEngine = analyticsEngine;
+    }
+
+    @GetMapping("/appointments")
+    public ResponseEntity<?> appointments(@RequestParam(defaultValue = "day") String granularity,
+                                          @RequestParam(defaultValue = "all") String dimension,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return query(AnalyticsEngine.APPOINTMENTS, APPOINTMENT_DIMENSIONS, granularity, dimension, from, to);
+    }
+
+    @GetMapping("/prescriptions")
+    public ResponseEntity<?> prescriptions(@RequestParam(defaultValue = "day") String granularity,
+                                           @RequestParam(defaultValue = "all") String dimension,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return query(AnalyticsEngine.PRESCRIPTIONS, PRESCRIPTION_DIMENSIONS, granularity, dimension, from, to);
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuild() {
+        if (!analyticsEngine.rebuildAsync()) {
+            return ResponseEntity.status(409).body("A rebuild is already running.");
+        }
+        return ResponseEntity.accepted().body("Analytics rebuild started.");
+    }
+
+    private ResponseEntity<?> query(String metric, Set<String> dimensions, String granularityKey, String dimension,
+                                    LocalDate from, LocalDate to) {
+        Granularity granularity = Granularity.fromKey(granularityKey);
+        if (granularity == null) {
+            return ResponseEntity.status(400).body("granularity must be day or week");
+        }
+        if (!dimensions.contains(dimension)) {
+            return ResponseEntity.status(400).body("dimension must be one of " + dimensions);
+        }
+        if (to.isBefore(from)) {
+            return ResponseEntity.status(400).body("'to' must not be before 'from'");
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("metric", metric);
+        result.put("granularity", granularity.name().toLowerCase());
+        result.put("dimension", dimension);
+        result.put("buckets", analyticsEngine.query(metric, granularity, dimension, from, to));
+        result.put("rebuiltAt", analyticsEngine.getLastRebuiltAt());
+        return ResponseEntity.ok(result);
+    }
+}
@@ -1,9 +1,17 @@
 package com.healthcare.controller;
 
+import com.healthcare.dto.AppointmentSummary;
 import com.healthcare.model.Appointment;
+import com.healthcare.scheduling.SlotConflictException;
 import com.healthcare.service.AppointmentService;
+import com.healthcare.service.IdempotencyService;
+import com.healthcare.service.StaleVersionException;
+import com.healthcare.util.ETags;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -11,39 +19,100 @@ import org.springframework.web.bind.annotation.*;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final IdempotencyService idempotencyService;
 
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService, IdempotencyService idempotencyService) {
         this.appointmentService = appointmentService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping
-    public Page<Appointment> getAllAppointments(Pageable pageable) {
+    public Page<AppointmentSummary> getAllAppointments(Pageable pageable) {
         return appointmentService.getAllAppointments(pageable);
     }
 
     @GetMapping("/patient/{patientId}")
-    public Page<Appointment> getAppointmentsByPatientId(@PathVariable Long patientId, Pageable pageable) {
+    public Page<AppointmentSummary> getAppointmentsByPatientId(@PathVariable Long patientId, Pageable pageable) {
         return appointmentService.getAppointmentsByPatientId(patientId, pageable);
     }
 
     @GetMapping("/doctor/{doctorId}")
-    public Page<Appointment> getAppointmentsByDoctorId(@PathVariable Long doctorId, Pageable pageable) {
+    public Page<AppointmentSummary> getAppointmentsByDoctorId(@PathVariable Long doctorId, Pageable pageable) {
         return appointmentService.getAppointmentsByDoctorId(doctorId, pageable);
     }
 
+    /** Keyset-paginated history; follow {@code nextCursor} for older rows. Totals are opt-in. */
+    @GetMapping("/patient/{patientId}/history")
+    public ResponseEntity<?> getAppointmentHistoryByPatientId(@PathVariable Long patientId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "20") int limit,
+                                                              @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(appointmentService.getAppointmentHistoryByPatientId(patientId, cursor, limit, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/doctor/{doctorId}/history")
+    public ResponseEntity<?> getAppointmentHistoryByDoctorId(@PathVariable Long doctorId,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "20") int limit,
+                                                             @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(appointmentService.getAppointmentHistoryByDoctorId(doctorId, cursor, limit, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
-    public Appointment getAppointmentById(@PathVariable Long id) {
-        return appointmentService.getAppointmentById(id);
+    public ResponseEntity<?> getAppointmentById(@PathVariable Long id) {
+        Appointment appointment = appointmentService.getAppointmentById(id);
+        if (appointment == null) {
+            return ResponseEntity.status(404).body("Appointment not found");
+        }
+        return ResponseEntity.ok().eTag(ETags.of(appointment.getVersion())).body(appointment);
     }
 
+    /** Retries carrying the same Idempotency-Key return the appointment created by the first attempt. */
     @PostMapping
-    public Appointment createAppointment(@RequestBody Appointment appointment) {
-        return appointmentService.createAppointment(appointment);
+    public ResponseEntity<?> createAppointment(@RequestBody Appointment appointment,
+                                               @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        try {
+            IdempotencyService.Outcome<Appointment> outcome = idempotencyService.execute(idempotencyKey, "appointments", appointment,
+                    () -> appointmentService.createAppointment(appointment), Appointment::getId, appointmentService::getAppointmentById);
+            return ResponseEntity.ok()
+                    .header("Idempotent-Replayed", String.valueOf(outcome.replayed()))
+                    .body(outcome.value());
+        } catch (IdempotencyService.KeyConflictException e) {
+            return ResponseEntity.status(e.getStatus()).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        } catch (SlotConflictException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
     }
 
+    /** Send the ETag from a previous read as If-Match to reject the update if someone else changed the appointment. */
     @PutMapping("/{id}")
-    public Appointment updateAppointment(@PathVariable Long id, @RequestBody Appointment appointment) {
-        return appointmentService.updateAppointment(id, appointment);
+    public ResponseEntity<?> updateAppointment(@PathVariable Long id, @RequestBody Appointment appointment,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            Appointment updated = appointmentService.updateAppointment(id, appointment, ETags.parseIfMatch(ifMatch));
+            if (updated == null) {
+                return ResponseEntity.status(404).body("Appointment not found");
+            }
+            return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        } catch (StaleVersionException e) {
+            return ResponseEntity.status(412).eTag(ETags.of(e.getCurrentVersion())).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body("Appointment " + id + " was modified concurrently, reload and retry");
+        } catch (SlotConflictException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
     }
 
     @DeleteMapping("/{id}")
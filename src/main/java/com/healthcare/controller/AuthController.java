@@ -6,10 +6,14 @@ import com.healthcare.dto.PasswordResetDto;
 import com.healthcare.dto.Verify2faRequest;
 import com.healthcare.model.PasswordResetToken;
 import com.healthcare.model.Person;
+import com.healthcare.otp.OtpPurpose;
+import com.healthcare.password.PasswordHashingBusyException;
+import com.healthcare.ratelimit.AuthRateLimiter;
 import com.healthcare.service.EmailService;
 import com.healthcare.service.PersonService;
 import com.healthcare.util.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,11 +22,15 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
-    
+
+    private static final Logger logger = Logger.getLogger(AuthController.class.getName());
+
     @GetMapping("/health")
     public ResponseEntity<?> health() {
         return ResponseEntity.ok("Backend is running!");
@@ -33,14 +41,38 @@ public class AuthController {
     private final PersonService personService;
     private final EmailService emailService;
     private final JwtUtil jwtUtil;
+    private final AuthRateLimiter rateLimiter;
 
     public AuthController(AuthenticationManager authenticationManager, UserDetailsService userDetailsService,
-                          PersonService personService, EmailService emailService, JwtUtil jwtUtil) {
+                          PersonService personService, EmailService emailService, JwtUtil jwtUtil,
+                          AuthRateLimiter rateLimiter) {
         this.authenticationManager = authenticationManager;
         this.userDetailsService = userDetailsService;
         this.personService = personService;
         this.emailService = emailService;
         this.jwtUtil = jwtUtil;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /** 429 with Retry-After when the caller is over its limit, otherwise null. Checked before any DB or BCrypt work. */
+    private ResponseEntity<?> throttle(AuthRateLimiter.Action action, HttpServletRequest request, String email) {
+        AuthRateLimiter.Rejection rejection = rateLimiter.check(action, request.getRemoteAddr(), email);
+        if (rejection == null) {
+            return null;
+        }
+        return ResponseEntity.status(429)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(rejection.retryAfterSeconds()))
+                .body(rejection.message());
+    }
+
+    private String issueToken(String email) {
+        final UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+        if (!jwtUtil.isPrincipalInToken()) {
+            return jwtUtil.generateToken(userDetails);
+        }
+        Person person = personService.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return jwtUtil.generateToken(userDetails, person.getId(), person.getSecurityVersion());
     }
 
     @PostMapping("/register")
@@ -49,14 +81,22 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword())
-        );
+    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        ResponseEntity<?> throttled = throttle(AuthRateLimiter.Action.LOGIN, request, loginRequest.getEmail());
+        if (throttled != null) {
+            return throttled;
+        }
+        try {
+            authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword())
+            );
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "1").body("Server busy, please retry.");
+        }
 
         Optional<Person> personOptional = personService.findByEmail(loginRequest.getEmail());
         if (personOptional.isPresent() && personOptional.get().isMfaEnabled()) {
-            String otp = personService.generateOtp(loginRequest.getEmail());
+            String otp = personService.generateOtp(loginRequest.getEmail(), OtpPurpose.TWO_FACTOR);
             try {
                 emailService.sendOtpEmail(loginRequest.getEmail(), otp, "2FA");
                 return ResponseEntity.ok(new LoginResponse(true, "2FA code sent to your email."));
@@ -65,19 +105,23 @@ public class AuthController {
             }
         }
 
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getEmail());
-        final String jwt = jwtUtil.generateToken(userDetails);
+        final String jwt = issueToken(loginRequest.getEmail());
 
         return ResponseEntity.ok(new LoginResponse(jwt));
     }
     
     @PostMapping("/verify-2fa")
-    public ResponseEntity<?> verify2fa(@RequestBody Verify2faRequest verify2faRequest) {
-        if (personService.validateOtp(verify2faRequest.getEmail(), verify2faRequest.getOtp())) {
-            final UserDetails userDetails = userDetailsService.loadUserByUsername(verify2faRequest.getEmail());
-            final String jwt = jwtUtil.generateToken(userDetails);
+    public ResponseEntity<?> verify2fa(@RequestBody Verify2faRequest verify2faRequest, HttpServletRequest request) {
+        ResponseEntity<?> throttled = throttle(AuthRateLimiter.Action.OTP_VERIFY, request, verify2faRequest.getEmail());
+        if (throttled != null) {
+            return throttled;
+        }
+        if (personService.validateOtp(verify2faRequest.getEmail(), verify2faRequest.getOtp(), OtpPurpose.TWO_FACTOR)) {
+            rateLimiter.recordOtpSuccess(verify2faRequest.getEmail());
+            final String jwt = issueToken(verify2faRequest.getEmail());
             return ResponseEntity.ok(new LoginResponse(jwt));
         }
+        rateLimiter.recordOtpFailure(verify2faRequest.getEmail());
         return ResponseEntity.status(400).body("Invalid 2FA code.");
     }
 
@@ -95,6 +139,10 @@ public class AuthController {
 
     @PostMapping("/forgot-password")
     public ResponseEntity<?> forgotPassword(@RequestBody String email, HttpServletRequest request) {
+        ResponseEntity<?> throttled = throttle(AuthRateLimiter.Action.OTP_SEND, request, email);
+        if (throttled != null) {
+            return throttled;
+        }
         Optional<Person> userOptional = personService.findByEmail(email);
 
         if (userOptional.isEmpty()) {
@@ -106,13 +154,18 @@ public class AuthController {
 
         String appUrl = request.getScheme() + "://" + request.getServerName() + ":" + request.getServerPort() + request.getContextPath();
         emailService.sendSimpleMessage(person.getEmail(), "Password Reset Request",
-                "To reset your password, click the link below:\n" + appUrl + "/reset-password?token=" + token);
+                "To reset your password, click the link below:\n" + appUrl + "/reset-password?token=" + token, true);
 
         return ResponseEntity.ok("Password reset link sent to your email.");
     }
 
     @PostMapping("/reset-password")
-    public ResponseEntity<?> resetPassword(@RequestBody PasswordResetDto passwordResetDto) {
+    public ResponseEntity<?> resetPassword(@RequestBody PasswordResetDto passwordResetDto, HttpServletRequest httpRequest) {
+        // Token guessing is throttled per IP; there is no email to key on
+        ResponseEntity<?> throttled = throttle(AuthRateLimiter.Action.OTP_VERIFY, httpRequest, null);
+        if (throttled != null) {
+            return throttled;
+        }
         String result = personService.validatePasswordResetToken(passwordResetDto.getToken());
 
         if (result != null) {
@@ -134,13 +187,17 @@ public class AuthController {
 
     // New endpoints for frontend compatibility
     @PostMapping("/login-otp/request")
-    public ResponseEntity<?> requestLoginOtp(@RequestBody java.util.Map<String, String> request) {
+    public ResponseEntity<?> requestLoginOtp(@RequestBody java.util.Map<String, String> request, HttpServletRequest httpRequest) {
         try {
             String email = request != null ? request.get("email") : null;
             
             if (email == null || email.trim().isEmpty()) {
                 return ResponseEntity.status(400).body("Email is required.");
             }
+            ResponseEntity<?> throttled = throttle(AuthRateLimiter.Action.OTP_SEND, httpRequest, email);
+            if (throttled != null) {
+                return throttled;
+            }
             
             // Normalize email
             String normalizedEmail = email.trim().toLowerCase();
@@ -151,26 +208,25 @@ public class AuthController {
                 return ResponseEntity.status(404).body("User not found");
             }
 
-            String otp = personService.generateOtp(normalizedEmail);
+            String otp = personService.generateOtp(normalizedEmail, OtpPurpose.LOGIN);
             if (otp == null) {
                 return ResponseEntity.status(500).body("Failed to generate OTP");
             }
 
-            // Send email (won't throw exception, just logs if it fails)
+            // Queue email for async delivery (returns immediately, never throws)
             emailService.sendOtpEmail(normalizedEmail, otp, "Login");
             
             // Always return success since OTP was generated
             // Email failure is logged but doesn't block the flow
             return ResponseEntity.ok("OTP sent to your email.");
         } catch (Exception e) {
-            System.err.println("Error in requestLoginOtp: " + e.getMessage());
-            e.printStackTrace();
+            logger.log(Level.SEVERE, "Login OTP request failed", e);
             return ResponseEntity.status(500).body("Internal server error: " + e.getMessage());
         }
     }
 
     @PostMapping("/login-otp/confirm")
-    public ResponseEntity<?> confirmLoginOtp(@RequestBody Verify2faRequest verify2faRequest) {
+    public ResponseEntity<?> confirmLoginOtp(@RequestBody Verify2faRequest verify2faRequest, HttpServletRequest request) {
         String email = verify2faRequest.getEmail();
         String otp = verify2faRequest.getOtp();
         
@@ -185,24 +241,33 @@ public class AuthController {
         // Normalize email
         String normalizedEmail = email.trim().toLowerCase();
         String normalizedOtp = otp.trim();
+
+        ResponseEntity<?> throttled = throttle(AuthRateLimiter.Action.OTP_VERIFY, request, normalizedEmail);
+        if (throttled != null) {
+            return throttled;
+        }
         
-        if (personService.validateOtp(normalizedEmail, normalizedOtp)) {
-            final UserDetails userDetails = userDetailsService.loadUserByUsername(normalizedEmail);
-            final String jwt = jwtUtil.generateToken(userDetails);
-            // Clear OTP after successful verification
-            personService.clearOtp(normalizedEmail);
+        if (personService.validateOtp(normalizedEmail, normalizedOtp, OtpPurpose.LOGIN)) {
+            rateLimiter.recordOtpSuccess(normalizedEmail);
+            // The code was consumed by the successful check
+            final String jwt = issueToken(normalizedEmail);
             return ResponseEntity.ok(new LoginResponse(jwt));
         }
+        rateLimiter.recordOtpFailure(normalizedEmail);
         return ResponseEntity.status(400).body("Invalid OTP code. Please check and try again.");
     }
 
     @PostMapping("/password-reset/request")
-    public ResponseEntity<?> requestPasswordResetOtp(@RequestBody java.util.Map<String, String> request) {
+    public ResponseEntity<?> requestPasswordResetOtp(@RequestBody java.util.Map<String, String> request, HttpServletRequest httpRequest) {
         String email = request.get("email");
         
         if (email == null || email.isEmpty()) {
             return ResponseEntity.status(400).body("Email is required.");
         }
+        ResponseEntity<?> throttled = throttle(AuthRateLimiter.Action.OTP_SEND, httpRequest, email);
+        if (throttled != null) {
+            return throttled;
+        }
         
         Optional<Person> personOptional = personService.findByEmail(email);
         
@@ -215,7 +280,7 @@ public class AuthController {
             return ResponseEntity.status(500).body("Failed to generate OTP");
         }
 
-        // Send email (won't throw exception, just logs if it fails)
+        // Queue email for async delivery (returns immediately, never throws)
         emailService.sendOtpEmail(email, otp, "Password Reset");
         
         // Always return success since OTP was generated
@@ -223,7 +288,7 @@ public class AuthController {
     }
 
     @PostMapping("/password-reset/confirm")
-    public ResponseEntity<?> confirmPasswordResetOtp(@RequestBody java.util.Map<String, String> request) {
+    public ResponseEntity<?> confirmPasswordResetOtp(@RequestBody java.util.Map<String, String> request, HttpServletRequest httpRequest) {
         String email = request.get("email");
         String otp = request.get("otp");
         String newPassword = request.get("newPassword");
@@ -231,11 +296,14 @@ public class AuthController {
         if (email == null || otp == null) {
             return ResponseEntity.status(400).body("Email and OTP are required.");
         }
+        ResponseEntity<?> throttled = throttle(AuthRateLimiter.Action.OTP_VERIFY, httpRequest, email);
+        if (throttled != null) {
+            return throttled;
+        }
         
         if (personService.validatePasswordResetOtp(email, otp)) {
-            // Clear OTP after successful verification
-            personService.clearOtp(email);
-            
+            rateLimiter.recordOtpSuccess(email);
+            // The code was consumed by the successful check
             // If new password is provided, update it
             if (newPassword != null && !newPassword.isEmpty()) {
                 Optional<Person> personOptional = personService.findByEmail(email);
@@ -247,6 +315,7 @@ public class AuthController {
             
             return ResponseEntity.ok("OTP verified successfully.");
         }
+        rateLimiter.recordOtpFailure(email);
         return ResponseEntity.status(400).body("Invalid OTP code.");
     }
 }
@@ -0,0 +1,59 @@
+package com.healthcare.controller;
+
+import com.healthcare.scheduling.SchedulingEngine;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/availability")
+public class AvailabilityController {
+
+    private static final int MAX_SLOTS = 200;
+
+    private final SchedulingEngine schedulingEngine;
+
+    public AvailabilityController(SchedulingEngine schedulingEngine) {
+        this.schedulingEngine = schedulingEngine;
+    }
+
+    /** Next free slots of a doctor, starting at {@code from} (default now). */
+    @GetMapping("/doctors/{doctorId}/free-slots")
+    public ResponseEntity<?> doctorFreeSlots(@PathVariable Long doctorId,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @RequestParam(defaultValue = "10") int count) {
+        if (count < 1 || count > MAX_SLOTS) {
+            return ResponseEntity.status(400).body("count must be between 1 and " + MAX_SLOTS);
+        }
+        return ResponseEntity.ok(schedulingEngine.nextFreeSlots(doctorId, from != null ? from : LocalDateTime.now(), count));
+    }
+
+    @GetMapping("/doctors/{doctorId}/slot")
+    public Map<String, Object> isSlotFree(@PathVariable Long doctorId,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime time) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("doctorId", doctorId);
+        result.put("date", date);
+        result.put("slotStart", schedulingEngine.getGrid().startOf(schedulingEngine.getGrid().slotOf(time)));
+        result.put("free", schedulingEngine.isFree(doctorId, date, time));
+        return result;
+    }
+
+    /** Next slots in which at least one doctor of the hospital is free, each with one such doctor. */
+    @GetMapping("/hospitals/{hospitalId}/free-slots")
+    public ResponseEntity<?> hospitalFreeSlots(@PathVariable String hospitalId,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam(defaultValue = "10") int count) {
+        if (count < 1 || count > MAX_SLOTS) {
+            return ResponseEntity.status(400).body("count must be between 1 and " + MAX_SLOTS);
+        }
+        return ResponseEntity.ok(schedulingEngine.nextFreeHospitalSlots(hospitalId, from != null ? from : LocalDateTime.now(), count));
+    }
+}
@@ -0,0 +1,88 @@
+package com.healthcare.controller;
+
+import com.healthcare.export.ExportFilter;
+import com.healthcare.export.ExportFormat;
+import com.healthcare.export.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full exports for reporting, streamed straight to the response as CSV (default) or NDJSON, optionally
+ * gzip-compressed ({@code gzip=true}, downloaded as a {@code .gz} file). Filters: {@code from}/{@code to}
+ * (inclusive, on the record date or prescription issue date), {@code hospitalId} (the doctor's
+ * hospital), {@code doctorId} and {@code districtId} (the patient's district).
+ */
+@RestController
+@RequestMapping("/api/exports")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/medical-records")
+    public void exportMedicalRecords(@RequestParam(required = false) String format,
+                                     @RequestParam(defaultValue = "false") boolean gzip,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                     @RequestParam(required = false) String hospitalId,
+                                     @RequestParam(required = false) Long doctorId,
+                                     @RequestParam(required = false) Long districtId,
+                                     HttpServletResponse response) throws IOException {
+        export(ExportService.Dataset.MEDICAL_RECORDS, format, gzip,
+                new ExportFilter(from, to, hospitalId, doctorId, districtId), response);
+    }
+
+    @GetMapping("/prescriptions")
+    public void exportPrescriptions(@RequestParam(required = false) String format,
+                                    @RequestParam(defaultValue = "false") boolean gzip,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                    @RequestParam(required = false) String hospitalId,
+                                    @RequestParam(required = false) Long doctorId,
+                                    @RequestParam(required = false) Long districtId,
+                                    HttpServletResponse response) throws IOException {
+        export(ExportService.Dataset.PRESCRIPTIONS, format, gzip,
+                new ExportFilter(from, to, hospitalId, doctorId, districtId), response);
+    }
+
+    // Written on the request thread: no async timeout on long exports, and the request's replica routing applies
+    private void export(ExportService.Dataset dataset, String format, boolean gzip, ExportFilter filter,
+                        HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.resolve(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(400, "format must be csv or ndjson");
+            return;
+        }
+        if (filter.from() != null && filter.to() != null && filter.from().isAfter(filter.to())) {
+            response.sendError(400, "from must not be after to");
+            return;
+        }
+
+        String filename = dataset.getKey() + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+            exportService.export(dataset, filter, exportFormat, compressed);
+            compressed.finish();
+        } else {
+            exportService.export(dataset, filter, exportFormat, out);
+        }
+        out.flush();
+    }
+}
@@ -1,13 +1,23 @@
 package com.healthcare.controller;
 
-import com.healthcare.model.*;
+import com.healthcare.location.CachedJson;
+import com.healthcare.location.LocationLevel;
 import com.healthcare.service.LocationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
+import java.util.Arrays;
 
+/**
+ * Location lists for cascading dropdowns. Bodies are pre-serialized; clients revalidate with
+ * If-None-Match and get 304 while the hierarchy is unchanged.
+ */
 @RestController
 @RequestMapping("/api/locations")
 public class LocationController {
@@ -18,28 +28,57 @@ public class LocationController {
         this.locationService = locationService;
     }
 
-    @GetMapping("/provinces")
-    public List<Province> getAllProvinces() {
-        return locationService.getAllProvinces();
+    @GetMapping("/tree")
+    public ResponseEntity<?> getTree(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serve(locationService.getTree().tree(), ifNoneMatch, acceptEncoding);
     }
 
-    @GetMapping("/districts")
-    public List<District> getAllDistricts() {
-        return locationService.getAllDistricts();
+    /** All provinces, districts, sectors, cells or villages. */
+    @GetMapping("/{level:provinces|districts|sectors|cells|villages}")
+    public ResponseEntity<?> getLevel(@PathVariable String level,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serve(locationService.getTree().level(LocationLevel.fromKey(level)), ifNoneMatch, acceptEncoding);
     }
 
-    @GetMapping("/sectors")
-    public List<Sector> getAllSectors() {
-        return locationService.getAllSectors();
+    /** Direct children of one node, e.g. {@code /provinces/1/districts} or {@code /cells/42/villages}. */
+    @GetMapping("/{level}/{id}/{children}")
+    public ResponseEntity<?> getChildren(@PathVariable String level, @PathVariable Long id, @PathVariable String children,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        LocationLevel parentLevel = LocationLevel.fromKey(level);
+        if (parentLevel == null || parentLevel.child() == null || !parentLevel.child().getKey().equals(children)) {
+            return ResponseEntity.status(404).body("Unknown location path: " + level + "/{id}/" + children);
+        }
+        CachedJson doc = locationService.getTree().childrenOf(parentLevel, id);
+        if (doc == null) {
+            return ResponseEntity.status(404).body("Location not found: " + level + " " + id);
+        }
+        return serve(doc, ifNoneMatch, acceptEncoding);
     }
 
-    @GetMapping("/cells")
-    public List<Cell> getAllCells() {
-        return locationService.getAllCells();
+    private ResponseEntity<?> serve(CachedJson doc, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = doc.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? doc.gzipEtag() : doc.etag();
+        boolean notModified = ifNoneMatch != null && matches(ifNoneMatch, doc);
+        ResponseEntity.BodyBuilder response = (notModified ? ResponseEntity.status(304) : ResponseEntity.ok())
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (notModified) {
+            return response.build();
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.contentType(MediaType.APPLICATION_JSON).body(gzip ? doc.gzip() : doc.json());
     }
 
-    @GetMapping("/villages")
-    public List<Village> getAllVillages() {
-        return locationService.getAllVillages();
+    private static boolean matches(String ifNoneMatch, CachedJson doc) {
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(doc.etag()) || tag.equals(doc.gzipEtag()));
     }
 }
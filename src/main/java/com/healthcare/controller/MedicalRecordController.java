@@ -1,9 +1,16 @@
 package com.healthcare.controller;
 
+import com.healthcare.dto.MedicalRecordSummary;
 import com.healthcare.model.MedicalRecord;
+import com.healthcare.service.IdempotencyService;
 import com.healthcare.service.MedicalRecordService;
+import com.healthcare.service.StaleVersionException;
+import com.healthcare.util.ETags;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -11,39 +18,96 @@ import org.springframework.web.bind.annotation.*;
 public class MedicalRecordController {
 
     private final MedicalRecordService medicalRecordService;
+    private final IdempotencyService idempotencyService;
 
-    public MedicalRecordController(MedicalRecordService medicalRecordService) {
+    public MedicalRecordController(MedicalRecordService medicalRecordService, IdempotencyService idempotencyService) {
         this.medicalRecordService = medicalRecordService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping
-    public Page<MedicalRecord> getAllMedicalRecords(Pageable pageable) {
+    public Page<MedicalRecordSummary> getAllMedicalRecords(Pageable pageable) {
         return medicalRecordService.getAllMedicalRecords(pageable);
     }
 
     @GetMapping("/patient/{patientId}")
-    public Page<MedicalRecord> getMedicalRecordsByPatientId(@PathVariable Long patientId, Pageable pageable) {
+    public Page<MedicalRecordSummary> getMedicalRecordsByPatientId(@PathVariable Long patientId, Pageable pageable) {
         return medicalRecordService.getMedicalRecordsByPatientId(patientId, pageable);
     }
 
     @GetMapping("/doctor/{doctorId}")
-    public Page<MedicalRecord> getMedicalRecordsByDoctorId(@PathVariable Long doctorId, Pageable pageable) {
+    public Page<MedicalRecordSummary> getMedicalRecordsByDoctorId(@PathVariable Long doctorId, Pageable pageable) {
         return medicalRecordService.getMedicalRecordsByDoctorId(doctorId, pageable);
     }
 
+    /** Keyset-paginated history; follow {@code nextCursor} for older rows. Totals are opt-in. */
+    @GetMapping("/patient/{patientId}/history")
+    public ResponseEntity<?> getMedicalRecordHistoryByPatientId(@PathVariable Long patientId,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "20") int limit,
+                                                                @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(medicalRecordService.getMedicalRecordHistoryByPatientId(patientId, cursor, limit, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/doctor/{doctorId}/history")
+    public ResponseEntity<?> getMedicalRecordHistoryByDoctorId(@PathVariable Long doctorId,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "20") int limit,
+                                                               @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(medicalRecordService.getMedicalRecordHistoryByDoctorId(doctorId, cursor, limit, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
-    public MedicalRecord getMedicalRecordById(@PathVariable Long id) {
-        return medicalRecordService.getMedicalRecordById(id);
+    public ResponseEntity<?> getMedicalRecordById(@PathVariable Long id) {
+        MedicalRecord medicalRecord = medicalRecordService.getMedicalRecordById(id);
+        if (medicalRecord == null) {
+            return ResponseEntity.status(404).body("Medical record not found");
+        }
+        return ResponseEntity.ok().eTag(ETags.of(medicalRecord.getVersion())).body(medicalRecord);
     }
 
+    /** Retries carrying the same Idempotency-Key return the medicalRecord created by the first attempt. */
     @PostMapping
-    public MedicalRecord createMedicalRecord(@RequestBody MedicalRecord medicalRecord) {
-        return medicalRecordService.createMedicalRecord(medicalRecord);
+    public ResponseEntity<?> createMedicalRecord(@RequestBody MedicalRecord medicalRecord,
+                                                 @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        try {
+            IdempotencyService.Outcome<MedicalRecord> outcome = idempotencyService.execute(idempotencyKey, "medical-records", medicalRecord,
+                    () -> medicalRecordService.createMedicalRecord(medicalRecord), MedicalRecord::getId, medicalRecordService::getMedicalRecordById);
+            return ResponseEntity.ok()
+                    .header("Idempotent-Replayed", String.valueOf(outcome.replayed()))
+                    .body(outcome.value());
+        } catch (IdempotencyService.KeyConflictException e) {
+            return ResponseEntity.status(e.getStatus()).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        }
     }
 
+    /** Send the ETag from a previous read as If-Match to reject the update if someone else changed the medicalRecord. */
     @PutMapping("/{id}")
-    public MedicalRecord updateMedicalRecord(@PathVariable Long id, @RequestBody MedicalRecord medicalRecord) {
-        return medicalRecordService.updateMedicalRecord(id, medicalRecord);
+    public ResponseEntity<?> updateMedicalRecord(@PathVariable Long id, @RequestBody MedicalRecord medicalRecord,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            MedicalRecord updated = medicalRecordService.updateMedicalRecord(id, medicalRecord, ETags.parseIfMatch(ifMatch));
+            if (updated == null) {
+                return ResponseEntity.status(404).body("Medical record not found");
+            }
+            return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        } catch (StaleVersionException e) {
+            return ResponseEntity.status(412).eTag(ETags.of(e.getCurrentVersion())).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body("Medical record " + id + " was modified concurrently, reload and retry");
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,72 @@
+package com.healthcare.controller;
+
+import com.healthcare.importer.ImportFormat;
+import com.healthcare.importer.ImportJob;
+import com.healthcare.importer.PatientImportService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Bulk patient registration. POST a CSV (header row) or NDJSON body with fullName, email and optional
+ * password, phone, age, gender, insurance and villageId; poll the returned job for progress and
+ * download rejected rows from {@code /{jobId}/errors}. Administrators only; uploads are capped at
+ * {@code import.max-upload-bytes}.
+ */
+@RestController
+@RequestMapping("/api/persons/import")
+public class PatientImportController {
+
+    private final PatientImportService importService;
+
+    public PatientImportController(PatientImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> startImport(@RequestParam(required = false) String format,
+                                         @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                         @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+                                         InputStream body) throws IOException {
+        // Declared sizes are refused up front; chunked uploads are cut off while spooling
+        if (contentLength != null && contentLength > importService.getMaxUploadBytes()) {
+            return ResponseEntity.status(413).body("Import uploads are limited to " + importService.getMaxUploadBytes() + " bytes");
+        }
+        ImportFormat importFormat;
+        try {
+            importFormat = ImportFormat.resolve(format, contentType);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body("format must be csv or ndjson");
+        }
+        ImportJob job = importService.submit(body, importFormat);
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/api/persons/import/" + job.getId())
+                .body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId) {
+        ImportJob job = importService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(404).body("Import job not found");
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    @GetMapping("/{jobId}/errors")
+    public ResponseEntity<?> getErrors(@PathVariable String jobId) {
+        ImportJob job = importService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(404).body("Import job not found");
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-" + jobId + "-errors.csv\"")
+                .body(new FileSystemResource(job.getErrorFile()));
+    }
+}
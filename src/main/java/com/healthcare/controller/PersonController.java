@@ -1,5 +1,6 @@
 package com.healthcare.controller;
 
+import com.healthcare.dto.PersonSummary;
 import com.healthcare.model.Person;
 import com.healthcare.service.PersonService;
 import org.springframework.data.domain.Page;
@@ -17,12 +18,12 @@ public class PersonController {
     }
 
     @GetMapping
-    public Page<Person> getAllPersons(Pageable pageable) {
+    public Page<PersonSummary> getAllPersons(Pageable pageable) {
         return personService.list(pageable);
     }
 
     @GetMapping("/role/{roleName}")
-    public Page<Person> getAllPersonsByRole(@PathVariable String roleName, Pageable pageable) {
+    public Page<PersonSummary> getAllPersonsByRole(@PathVariable String roleName, Pageable pageable) {
         return personService.list(roleName, pageable);
     }
 
@@ -1,9 +1,16 @@
 package com.healthcare.controller;
 
+import com.healthcare.dto.PrescriptionSummary;
 import com.healthcare.model.Prescription;
+import com.healthcare.service.IdempotencyService;
 import com.healthcare.service.PrescriptionService;
+import com.healthcare.service.StaleVersionException;
+import com.healthcare.util.ETags;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -11,39 +18,96 @@ import org.springframework.web.bind.annotation.*;
 public class PrescriptionController {
 
     private final PrescriptionService prescriptionService;
+    private final IdempotencyService idempotencyService;
 
-    public PrescriptionController(PrescriptionService prescriptionService) {
+    public PrescriptionController(PrescriptionService prescriptionService, IdempotencyService idempotencyService) {
         this.prescriptionService = prescriptionService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping
-    public Page<Prescription> getAllPrescriptions(Pageable pageable) {
+    public Page<PrescriptionSummary> getAllPrescriptions(Pageable pageable) {
         return prescriptionService.getAllPrescriptions(pageable);
     }
 
     @GetMapping("/patient/{patientId}")
-    public Page<Prescription> getPrescriptionsByPatientId(@PathVariable Long patientId, Pageable pageable) {
+    public Page<PrescriptionSummary> getPrescriptionsByPatientId(@PathVariable Long patientId, Pageable pageable) {
         return prescriptionService.getPrescriptionsByPatientId(patientId, pageable);
     }
 
     @GetMapping("/doctor/{doctorId}")
-    public Page<Prescription> getPrescriptionsByDoctorId(@PathVariable Long doctorId, Pageable pageable) {
+    public Page<PrescriptionSummary> getPrescriptionsByDoctorId(@PathVariable Long doctorId, Pageable pageable) {
         return prescriptionService.getPrescriptionsByDoctorId(doctorId, pageable);
     }
 
+    /** Keyset-paginated history; follow {@code nextCursor} for older rows. Totals are opt-in. */
+    @GetMapping("/patient/{patientId}/history")
+    public ResponseEntity<?> getPrescriptionHistoryByPatientId(@PathVariable Long patientId,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "20") int limit,
+                                                               @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(prescriptionService.getPrescriptionHistoryByPatientId(patientId, cursor, limit, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/doctor/{doctorId}/history")
+    public ResponseEntity<?> getPrescriptionHistoryByDoctorId(@PathVariable Long doctorId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "20") int limit,
+                                                              @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(prescriptionService.getPrescriptionHistoryByDoctorId(doctorId, cursor, limit, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
-    public Prescription getPrescriptionById(@PathVariable Long id) {
-        return prescriptionService.getPrescriptionById(id);
+    public ResponseEntity<?> getPrescriptionById(@PathVariable Long id) {
+        Prescription prescription = prescriptionService.getPrescriptionById(id);
+        if (prescription == null) {
+            return ResponseEntity.status(404).body("Prescription not found");
+        }
+        return ResponseEntity.ok().eTag(ETags.of(prescription.getVersion())).body(prescription);
     }
 
+    /** Retries carrying the same Idempotency-Key return the prescription created by the first attempt. */
     @PostMapping
-    public Prescription createPrescription(@RequestBody Prescription prescription) {
-        return prescriptionService.createPrescription(prescription);
+    public ResponseEntity<?> createPrescription(@RequestBody Prescription prescription,
+                                                @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        try {
+            IdempotencyService.Outcome<Prescription> outcome = idempotencyService.execute(idempotencyKey, "prescriptions", prescription,
+                    () -> prescriptionService.createPrescription(prescription), Prescription::getId, prescriptionService::getPrescriptionById);
+            return ResponseEntity.ok()
+                    .header("Idempotent-Replayed", String.valueOf(outcome.replayed()))
+                    .body(outcome.value());
+        } catch (IdempotencyService.KeyConflictException e) {
+            return ResponseEntity.status(e.getStatus()).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        }
     }
 
+    /** Send the ETag from a previous read as If-Match to reject the update if someone else changed the prescription. */
     @PutMapping("/{id}")
-    public Prescription updatePrescription(@PathVariable Long id, @RequestBody Prescription prescription) {
-        return prescriptionService.updatePrescription(id, prescription);
+    public ResponseEntity<?> updatePrescription(@PathVariable Long id, @RequestBody Prescription prescription,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            Prescription updated = prescriptionService.updatePrescription(id, prescription, ETags.parseIfMatch(ifMatch));
+            if (updated == null) {
+                return ResponseEntity.status(404).body("Prescription not found");
+            }
+            return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        } catch (StaleVersionException e) {
+            return ResponseEntity.status(412).eTag(ETags.of(e.getCurrentVersion())).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body("Prescription " + id + " was modified concurrently, reload and retry");
+        }
     }
 
     @DeleteMapping("/{id}")
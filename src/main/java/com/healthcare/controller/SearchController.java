@@ -1,25 +1,125 @@
 package com.healthcare.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.healthcare.search.SearchIndexService;
 import com.healthcare.service.SearchService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/search")
 public class SearchController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final SearchService searchService;
+    private final ObjectWriter lineWriter;
+    private final long streamTimeoutMs;
 
-    public SearchController(SearchService searchService) {
+    public SearchController(SearchService searchService, ObjectMapper objectMapper,
+                            @Value("${search.stream-timeout-ms:10000}") long streamTimeoutMs) {
         this.searchService = searchService;
+        this.lineWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.streamTimeoutMs = streamTimeoutMs;
     }
 
     @GetMapping
-    public Map<String, Object> search(@RequestParam String term) {
-        return searchService.search(term);
+    public Map<String, Object> search(@RequestParam String term, @PageableDefault(size = 20) Pageable pageable) {
+        return searchService.search(term, pageable);
+    }
+
+    /**
+     * Streams one NDJSON line per entity type as soon as that type's query finishes. Each line holds
+     * at most {@code limit} items plus a cursor for {@code GET /api/search/{type}}. Types still running
+     * when {@code search.stream-timeout-ms} runs out get an error line instead, and the response ends.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<?> stream(@RequestParam String term,
+                                    @RequestParam(required = false) List<String> types,
+                                    @RequestParam(defaultValue = "10") int limit) {
+        List<SearchIndexService.Type> requested = new ArrayList<>();
+        if (types == null || types.isEmpty()) {
+            requested.addAll(Arrays.asList(SearchIndexService.Type.values()));
+        } else {
+            for (String key : types) {
+                SearchIndexService.Type type = SearchIndexService.Type.fromKey(key);
+                if (type == null) {
+                    return ResponseEntity.status(400).body("Unknown search type: " + key);
+                }
+                requested.add(type);
+            }
+        }
+
+        List<CompletableFuture<SearchService.SearchSection>> sections = searchService.searchAsync(term, requested, limit);
+        BlockingQueue<SearchService.SearchSection> completed = new LinkedBlockingQueue<>();
+        sections.forEach(future -> future.thenAccept(completed::add));
+
+        StreamingResponseBody body = out -> {
+            List<String> outstanding = new ArrayList<>();
+            requested.forEach(type -> outstanding.add(type.getKey()));
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(streamTimeoutMs);
+            try {
+                while (!outstanding.isEmpty()) {
+                    SearchService.SearchSection section = completed.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (section == null) {
+                        break;
+                    }
+                    outstanding.remove(section.type());
+                    writeLine(out, section);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                sections.forEach(future -> future.cancel(true));
+            }
+            for (String type : outstanding) {
+                writeLine(out, new SearchService.SearchSection(type, List.of(), null, 0, false, "Search timed out"));
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, SearchService.SearchSection section) throws IOException {
+        lineWriter.writeValue(out, section);
+        out.write('\n');
+        out.flush();
+    }
+
+    @GetMapping("/{type}")
+    public ResponseEntity<?> searchType(@PathVariable String type, @RequestParam String term,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "20") int limit) {
+        SearchIndexService.Type indexType = SearchIndexService.Type.fromKey(type);
+        if (indexType == null) {
+            return ResponseEntity.status(404).body("Unknown search type: " + type);
+        }
+        try {
+            return ResponseEntity.ok(searchService.searchSection(indexType, term, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        }
     }
 }
@@ -0,0 +1,23 @@
+package com.healthcare.dto;
+
+import com.healthcare.model.Appointment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/** List-view row for an appointment, with patient and doctor reduced to id and name. */
+public record AppointmentSummary(Long id, LocalDate date, LocalTime time, String status,
+                                 String hospitalId, String hospitalName, String serviceId, String serviceName,
+                                 String insurance, Long patientId, String patientName, Long doctorId, String doctorName,
+                                 Long version) {
+
+    public static AppointmentSummary from(Appointment a) {
+        return new AppointmentSummary(a.getId(), a.getDate(), a.getTime(), a.getStatus(),
+                a.getHospitalId(), a.getHospitalName(), a.getServiceId(), a.getServiceName(), a.getInsurance(),
+                a.getPatient() != null ? a.getPatient().getId() : null,
+                a.getPatient() != null ? a.getPatient().getFullName() : null,
+                a.getDoctor() != null ? a.getDoctor().getId() : null,
+                a.getDoctor() != null ? a.getDoctor().getFullName() : null,
+                a.getVersion());
+    }
+}
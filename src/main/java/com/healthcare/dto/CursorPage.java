@@ -0,0 +1,10 @@
+package com.healthcare.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list. Pass {@code nextCursor} back to get the following page; it is null
+ * on the last page. {@code total} is only filled in when the caller asked for it.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor, Long total) {
+}
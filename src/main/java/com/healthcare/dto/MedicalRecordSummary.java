@@ -0,0 +1,20 @@
+package com.healthcare.dto;
+
+import com.healthcare.model.MedicalRecord;
+
+import java.time.LocalDate;
+
+/** List-view row for a medical record; notes are only returned by the detail endpoint. */
+public record MedicalRecordSummary(Long id, LocalDate date, String diagnosis, Boolean reviewed,
+                                   Long patientId, String patientName, Long doctorId, String doctorName,
+                                   Long version) {
+
+    public static MedicalRecordSummary from(MedicalRecord m) {
+        return new MedicalRecordSummary(m.getId(), m.getDate(), m.getDiagnosis(), m.isReviewed(),
+                m.getPatient() != null ? m.getPatient().getId() : null,
+                m.getPatient() != null ? m.getPatient().getFullName() : null,
+                m.getDoctor() != null ? m.getDoctor().getId() : null,
+                m.getDoctor() != null ? m.getDoctor().getFullName() : null,
+                m.getVersion());
+    }
+}
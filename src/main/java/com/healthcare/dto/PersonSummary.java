@@ -0,0 +1,15 @@
+package com.healthcare.dto;
+
+import com.healthcare.model.Person;
+
+/** List-view row for a person: no credentials, roles or location chain beyond the village. */
+public record PersonSummary(Long id, String fullName, String email, String phone, Integer age, String gender,
+                            String insurance, String specialty, String hospitalId, Long villageId, String villageName) {
+
+    public static PersonSummary from(Person p) {
+        return new PersonSummary(p.getId(), p.getFullName(), p.getEmail(), p.getPhone(), p.getAge(), p.getGender(),
+                p.getInsurance(), p.getSpecialty(), p.getHospitalId(),
+                p.getVillage() != null ? p.getVillage().getId() : null,
+                p.getVillage() != null ? p.getVillage().getName() : null);
+    }
+}
@@ -0,0 +1,22 @@
+package com.healthcare.dto;
+
+import com.healthcare.model.Prescription;
+
+import java.time.LocalDate;
+
+/** List-view row for a prescription; instructions are only returned by the detail endpoint. */
+public record PrescriptionSummary(Long id, String medication, String dosage, String frequency, Integer durationDays,
+                                  LocalDate dateIssued, String status,
+                                  Long patientId, String patientName, Long doctorId, String doctorName,
+                                  Long version) {
+
+    public static PrescriptionSummary from(Prescription p) {
+        return new PrescriptionSummary(p.getId(), p.getMedication(), p.getDosage(), p.getFrequency(),
+                p.getDurationDays(), p.getDateIssued(), p.getStatus(),
+                p.getPatient() != null ? p.getPatient().getId() : null,
+                p.getPatient() != null ? p.getPatient().getFullName() : null,
+                p.getDoctor() != null ? p.getDoctor().getId() : null,
+                p.getDoctor() != null ? p.getDoctor().getFullName() : null,
+                p.getVersion());
+    }
+}
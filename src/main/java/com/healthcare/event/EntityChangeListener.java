@@ -0,0 +1,18 @@
+package com.healthcare.event;
+
+/**
+ * Receives committed entity changes from {@link EntityEventDispatcher}. Implement it on any Spring
+ * bean that maintains derived in-memory state (indexes, counters, rollups). Callbacks run on the
+ * committing thread after the transaction has completed, so they must be quick and must not throw.
+ */
+public interface EntityChangeListener {
+
+    default void onInsert(Object entity) {
+    }
+
+    default void onUpdate(Object entity, EntityUpdate update) {
+    }
+
+    default void onDelete(Object entity) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.healthcare.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Fans committed entity inserts, updates and deletes out to every {@link EntityChangeListener} bean.
+ * Registered as Hibernate post-commit listeners so rolled-back writes never reach derived state.
+ */
+@Component
+public class EntityEventDispatcher implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Logger logger = Logger.getLogger(EntityEventDispatcher.class.getName());
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final List<EntityChangeListener> listeners;
+
+    public EntityEventDispatcher(EntityManagerFactory entityManagerFactory, List<EntityChangeListener> listeners) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.listeners = listeners;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        for (EntityChangeListener listener : listeners) {
+            try {
+                listener.onInsert(event.getEntity());
+            } catch (RuntimeException e) {
+                logger.warning("Entity insert listener " + listener.getClass().getSimpleName() + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityUpdate update = new EntityUpdate(event.getPersister().getPropertyNames(), event.getOldState());
+        for (EntityChangeListener listener : listeners) {
+            try {
+                listener.onUpdate(event.getEntity(), update);
+            } catch (RuntimeException e) {
+                logger.warning("Entity update listener " + listener.getClass().getSimpleName() + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        for (EntityChangeListener listener : listeners) {
+            try {
+                listener.onDelete(event.getEntity());
+            } catch (RuntimeException e) {
+                logger.warning("Entity delete listener " + listener.getClass().getSimpleName() + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+}
@@ -0,0 +1,19 @@
+package com.healthcare.event;
+
+/**
+ * Pre-update values of an entity's mapped properties, as seen by Hibernate when it flushed the update.
+ */
+public record EntityUpdate(String[] propertyNames, Object[] oldState) {
+
+    public Object previous(String property) {
+        if (oldState == null) {
+            return null;
+        }
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (propertyNames[i].equals(property)) {
+                return oldState[i];
+            }
+        }
+        return null;
+    }
+}
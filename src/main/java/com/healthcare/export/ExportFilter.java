@@ -0,0 +1,7 @@
+package com.healthcare.export;
+
+import java.time.LocalDate;
+
+/** Export criteria; null fields are not filtered on. Dates are inclusive. */
+public record ExportFilter(LocalDate from, LocalDate to, String hospitalId, Long doctorId, Long districtId) {
+}
@@ -0,0 +1,31 @@
+package com.healthcare.export;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+    CSV("text/csv", "csv"), NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /** Defaults to CSV when no format is given. */
+    public static ExportFormat resolve(String format) {
+        if (format == null || format.isBlank()) {
+            return CSV;
+        }
+        return valueOf(format.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,121 @@
+package com.healthcare.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes export rows as CSV (header row, RFC 4180 quoting, formula-looking text cells prefixed with
+ * a single quote) or NDJSON (one JSON object per line).
+ * Rows are encoded straight into a fixed-size buffer over the response stream, so memory use does not
+ * grow with the number of rows. {@link #close()} flushes but leaves the underlying stream open.
+ */
+public abstract class ExportRowWriter implements Closeable {
+
+    protected final List<String> columns;
+
+    protected ExportRowWriter(List<String> columns) {
+        this.columns = columns;
+    }
+
+    /** Writes one row; values are in {@code columns} order. */
+    public abstract void write(Object[] row) throws IOException;
+
+    public static ExportRowWriter of(ExportFormat format, OutputStream out, List<String> columns,
+                                     ObjectMapper objectMapper) throws IOException {
+        return format == ExportFormat.NDJSON ? new Ndjson(out, columns, objectMapper) : new Csv(out, columns);
+    }
+
+    private static final class Ndjson extends ExportRowWriter {
+
+        private final JsonGenerator generator;
+
+        Ndjson(OutputStream out, List<String> columns, ObjectMapper objectMapper) throws IOException {
+            super(columns);
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        }
+
+        @Override
+        public void write(Object[] row) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.size(); i++) {
+                generator.writeFieldName(columns.get(i));
+                writeValue(row[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+
+        // Scalars only (ids, text, dates, flags); going through the ObjectMapper would flush per value
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Long l) {
+                generator.writeNumber(l);
+            } else if (value instanceof Integer n) {
+                generator.writeNumber(n);
+            } else if (value instanceof Boolean b) {
+                generator.writeBoolean(b);
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+    }
+
+    private static final class Csv extends ExportRowWriter {
+
+        private final BufferedWriter writer;
+
+        Csv(OutputStream out, List<String> columns) throws IOException {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            writer.write(String.join(",", columns));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(Object[] row) throws IOException {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csv(row[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private static String csv(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value.toString();
+            // Spreadsheets evaluate text cells that start like a formula; a leading quote keeps them text
+            if (!(value instanceof Number) && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+                return "\"" + text.replace("\"", "\"\"") + "\"";
+            }
+            return text;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.healthcare.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Streams medical records and prescriptions to an output stream through a forward-only database
+ * cursor. Rows are selected as scalar tuples (never entities), so nothing accumulates in the
+ * persistence context and heap use stays flat regardless of export size. The cursor runs inside a
+ * read-only transaction, which PostgreSQL needs to honour the fetch size instead of materialising the
+ * whole result; on a replica-eligible request that transaction is served by a replica.
+ */
+@Service
+public class ExportService {
+
+    public enum Dataset {
+        MEDICAL_RECORDS("medical-records", "MedicalRecord", "m", "date",
+                List.of("id", "date", "diagnosis", "notes", "reviewed"),
+                List.of("m.id", "m.date", "m.diagnosis", "m.notes", "m.reviewed")),
+        PRESCRIPTIONS("prescriptions", "Prescription", "p", "dateIssued",
+                List.of("id", "dateIssued", "medication", "dosage", "frequency", "durationDays", "instructions", "status"),
+                List.of("p.id", "p.dateIssued", "p.medication", "p.dosage", "p.frequency", "p.durationDays",
+                        "p.instructions", "p.status"));
+
+        private final String key;
+        private final String entity;
+        private final String alias;
+        private final String dateField;
+        private final List<String> columns;
+        private final List<String> select;
+
+        Dataset(String key, String entity, String alias, String dateField, List<String> columns, List<String> select) {
+            this.key = key;
+            this.entity = entity;
+            this.alias = alias;
+            this.dateField = dateField;
+            this.columns = concat(columns, PARTICIPANT_COLUMNS);
+            this.select = concat(select, PARTICIPANT_SELECT);
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public List<String> getColumns() {
+            return columns;
+        }
+
+        private static List<String> concat(List<String> first, List<String> second) {
+            List<String> all = new ArrayList<>(first);
+            all.addAll(second);
+            return List.copyOf(all);
+        }
+    }
+
+    // Participant and location columns shared by both datasets
+    private static final List<String> PARTICIPANT_COLUMNS = List.of("patientId", "patientName", "doctorId",
+            "doctorName", "hospitalId", "districtId", "districtName");
+    private static final List<String> PARTICIPANT_SELECT = List.of("pa.id", "pa.fullName", "d.id",
+            "d.fullName", "d.hospitalId", "dist.id", "dist.name");
+
+    private static final Logger logger = Logger.getLogger(ExportService.class.getName());
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ExportService(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper, @Value("${export.fetch-size:1000}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /** Writes every matching row to {@code out} in id order and returns the row count. */
+    public long export(Dataset dataset, ExportFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        try {
+            Long rows = readOnlyTransaction.execute(status -> {
+                try (ExportRowWriter writer = ExportRowWriter.of(format, out, dataset.getColumns(), objectMapper)) {
+                    return stream(dataset, filter, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            logger.info("Exported " + rows + " " + dataset.getKey() + " as " + format + " in "
+                    + (System.currentTimeMillis() - start) + " ms");
+            return rows != null ? rows : 0L;
+        } catch (UncheckedIOException e) {
+            // Typically the client went away mid-download
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private long stream(Dataset dataset, ExportFilter filter, ExportRowWriter writer) throws IOException {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String jpql = buildQuery(dataset, filter, parameters);
+        Query<Object[]> query = entityManager.createQuery(jpql, Object[].class).unwrap(Query.class);
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            query.setParameter(parameter.getKey(), parameter.getValue());
+        }
+        query.setFetchSize(fetchSize);
+        query.setReadOnly(true);
+        query.setCacheMode(CacheMode.IGNORE);
+
+        long rows = 0;
+        try (ScrollableResults<Object[]> results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                writer.write(results.get());
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static String buildQuery(Dataset dataset, ExportFilter filter, Map<String, Object> parameters) {
+        String a = dataset.alias;
+        StringBuilder jpql = new StringBuilder("SELECT ")
+                .append(String.join(", ", dataset.select))
+                .append(" FROM ").append(dataset.entity).append(' ').append(a)
+                .append(" LEFT JOIN ").append(a).append(".patient pa")
+                .append(" LEFT JOIN pa.village v LEFT JOIN v.cell c LEFT JOIN c.sector s LEFT JOIN s.district dist")
+                .append(" LEFT JOIN ").append(a).append(".doctor d");
+        List<String> conditions = new ArrayList<>();
+        if (filter.from() != null) {
+            conditions.add(a + "." + dataset.dateField + " >= :from");
+            parameters.put("from", filter.from());
+        }
+        if (filter.to() != null) {
+            conditions.add(a + "." + dataset.dateField + " <= :to");
+            parameters.put("to", filter.to());
+        }
+        if (filter.hospitalId() != null) {
+            conditions.add("d.hospitalId = :hospitalId");
+            parameters.put("hospitalId", filter.hospitalId());
+        }
+        if (filter.doctorId() != null) {
+            conditions.add("d.id = :doctorId");
+            parameters.put("doctorId", filter.doctorId());
+        }
+        if (filter.districtId() != null) {
+            conditions.add("dist.id = :districtId");
+            parameters.put("districtId", filter.districtId());
+        }
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        return jpql.append(" ORDER BY ").append(a).append(".id").toString();
+    }
+}
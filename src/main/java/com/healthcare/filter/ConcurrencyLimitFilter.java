@@ -0,0 +1,108 @@
+package com.healthcare.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests in flight. With virtual threads Tomcat no longer bounds concurrency
+ * through its worker pool, so without this limit a burst would pile thousands of requests onto the
+ * JDBC connection pool (and onto driver code that pins carrier threads inside synchronized blocks).
+ * A request that goes async (StreamingResponseBody, Callable, DeferredResult) keeps its permit until
+ * the async work completes, not just until the first dispatch returns.
+ * Disabled when server.concurrency.max-in-flight is 0.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final long acquireTimeoutMs;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(@Value("${server.concurrency.max-in-flight:0}") int maxInFlight,
+                                  @Value("${server.concurrency.acquire-timeout-ms:2000}") long acquireTimeoutMs,
+                                  MeterRegistry meterRegistry) {
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.permits = new Semaphore(Math.max(maxInFlight, 1), true);
+        this.rejected = meterRegistry.counter("http.server.requests.rejected");
+        Gauge.builder("http.server.requests.in_flight", permits, p -> maxInFlight > 0 ? maxInFlight - p.availablePermits() : 0)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (maxInFlight <= 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server busy, please retry.");
+            return;
+        }
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Completion is only signalled after this dispatch returns, so the listener cannot miss it
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                permits.release();
+            }
+        }
+    }
+
+    /** Returns the permit once async processing ends; onComplete also follows a timeout or error. */
+    private class ReleaseOnComplete implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permits.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A new async cycle drops the registered listeners, so carry the release over to it
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
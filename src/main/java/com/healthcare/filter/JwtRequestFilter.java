@@ -1,7 +1,11 @@
 package com.healthcare.filter;
 
+import com.healthcare.service.SecurityVersionService;
 import com.healthcare.service.UserDetailsServiceImpl;
+import com.healthcare.util.AuthenticationCache;
 import com.healthcare.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +13,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -20,10 +25,15 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final UserDetailsServiceImpl userDetailsService;
     private final JwtUtil jwtUtil;
+    private final AuthenticationCache authenticationCache;
+    private final SecurityVersionService securityVersionService;
 
-    public JwtRequestFilter(UserDetailsServiceImpl userDetailsService, JwtUtil jwtUtil) {
+    public JwtRequestFilter(UserDetailsServiceImpl userDetailsService, JwtUtil jwtUtil,
+                            AuthenticationCache authenticationCache, SecurityVersionService securityVersionService) {
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
+        this.authenticationCache = authenticationCache;
+        this.securityVersionService = securityVersionService;
     }
 
     @Override
@@ -32,21 +42,13 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            username = jwtUtil.extractUsername(jwt);
-        }
-
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            String jwt = authorizationHeader.substring(7);
+            UserDetails userDetails = resolveUser(jwt);
 
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 usernamePasswordAuthenticationToken
@@ -57,4 +59,39 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         chain.doFilter(request, response);
     }
 
+    // Cache hit: no parsing and no database. Miss: one signature-verified parse plus one user lookup.
+    private UserDetails resolveUser(String jwt) {
+        String digest = authenticationCache.digest(jwt);
+        UserDetails cached = authenticationCache.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = authenticationCache.generation();
+
+        try {
+            Claims claims = jwtUtil.parseClaims(jwt);
+            if (jwtUtil.hasPrincipalClaims(claims)) {
+                return resolveFromClaims(digest, claims, generation);
+            }
+            UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+            if (!jwtUtil.validateClaims(claims, userDetails)) {
+                return null;
+            }
+            authenticationCache.put(digest, userDetails, claims.getExpiration().getTime(), generation);
+            return userDetails;
+        } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+    // Principal-in-token: authorities come from the signed claims, the stamp is checked against memory
+    private UserDetails resolveFromClaims(String digest, Claims claims, long generation) {
+        if (jwtUtil.extractSecurityVersion(claims) != securityVersionService.currentVersion(claims.getSubject())) {
+            return null;
+        }
+        UserDetails userDetails = jwtUtil.principalFromClaims(claims);
+        authenticationCache.put(digest, userDetails, claims.getExpiration().getTime(), generation);
+        return userDetails;
+    }
+
 }
@@ -0,0 +1,45 @@
+package com.healthcare.filter;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Returns the request's trace id as {@code X-Trace-Id}, so a client-reported failure can be matched to
+ * the server's log lines (which carry the same id). The span itself is opened by Spring Boot's
+ * observation filter, which continues an incoming {@code traceparent} header; this filter runs after it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class TraceIdResponseFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Trace-Id";
+
+    private final Tracer tracer;
+
+    public TraceIdResponseFilter(ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Unsampled spans still carry a trace id, so the header is set whatever the sampling rate
+        Span span = tracer.currentSpan();
+        String traceId = span != null ? span.context().traceId() : null;
+        if (traceId != null && !traceId.isEmpty()) {
+            response.setHeader(HEADER, traceId);
+        }
+        chain.doFilter(request, response);
+    }
+}
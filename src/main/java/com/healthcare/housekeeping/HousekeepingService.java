@@ -0,0 +1,149 @@
+package com.healthcare.housekeeping;
+
+import com.healthcare.otp.OtpService;
+import com.healthcare.repository.EmailOutboxRepository;
+import com.healthcare.repository.IdempotencyRecordRepository;
+import com.healthcare.repository.OtpCodeRepository;
+import com.healthcare.repository.PasswordResetTokenRepository;
+import com.healthcare.service.EmailDeliveryService;
+import com.healthcare.service.IdempotencyService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Periodically deletes auth and delivery state that has outlived its use: expired password reset
+ * tokens, expired one-time codes and idempotency keys, and sent or failed outbox messages past
+ * retention. Rows go in
+ * batches of {@code housekeeping.batch-size}, each in its own short transaction, and at most
+ * {@code housekeeping.max-batches} per table per run, so a large backlog drains over several runs
+ * instead of holding locks in one long delete.
+ */
+@Service
+public class HousekeepingService {
+
+    private static final Logger logger = Logger.getLogger(HousekeepingService.class.getName());
+
+    private final PasswordResetTokenRepository tokenRepository;
+    private final EmailOutboxRepository outboxRepository;
+    private final OtpCodeRepository otpCodeRepository;
+    private final IdempotencyRecordRepository idempotencyRepository;
+    private final OtpService otpService;
+    private final IdempotencyService idempotencyService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxBatches;
+    private final int sentRetentionDays;
+    private final int failedRetentionDays;
+    private final AtomicLong lastRunEpochSeconds = new AtomicLong();
+
+    public HousekeepingService(PasswordResetTokenRepository tokenRepository, EmailOutboxRepository outboxRepository,
+                               OtpCodeRepository otpCodeRepository,
+                               IdempotencyRecordRepository idempotencyRepository, OtpService otpService,
+                               IdempotencyService idempotencyService, TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${housekeeping.batch-size:500}") int batchSize,
+                               @Value("${housekeeping.max-batches:20}") int maxBatches,
+                               @Value("${housekeeping.outbox.sent-retention-days:7}") int sentRetentionDays,
+                               @Value("${housekeeping.outbox.failed-retention-days:30}") int failedRetentionDays) {
+        this.tokenRepository = tokenRepository;
+        this.outboxRepository = outboxRepository;
+        this.otpCodeRepository = otpCodeRepository;
+        this.idempotencyRepository = idempotencyRepository;
+        this.otpService = otpService;
+        this.idempotencyService = idempotencyService;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatches = Math.max(1, maxBatches);
+        this.sentRetentionDays = sentRetentionDays;
+        this.failedRetentionDays = failedRetentionDays;
+        Gauge.builder("housekeeping.last.run", lastRunEpochSeconds, AtomicLong::get)
+                .description("Epoch seconds of the last completed housekeeping run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${housekeeping.interval-ms:300000}",
+            initialDelayString = "${housekeeping.interval-ms:300000}")
+    public void run() {
+        LocalDateTime now = LocalDateTime.now();
+        Date cutoff = new Date();
+        purge("password_reset_token", page -> tokenRepository.findExpiredIds(cutoff, page),
+                tokenRepository::deleteAllByIdInBatch);
+        purge("email_outbox_sent", page -> outboxRepository.findIdsByStatusCreatedBefore(
+                EmailDeliveryService.SENT, now.minusDays(sentRetentionDays), page),
+                outboxRepository::deleteAllByIdInBatch);
+        purge("email_outbox_failed", page -> outboxRepository.findIdsByStatusCreatedBefore(
+                EmailDeliveryService.FAILED, now.minusDays(failedRetentionDays), page),
+                outboxRepository::deleteAllByIdInBatch);
+        // One-time codes are stored with UTC expiry times; the in-memory store, if in use, is swept too
+        LocalDateTime utcNow = LocalDateTime.now(ZoneOffset.UTC);
+        record("otp_codes", () -> otpService.purgeExpired()
+                + batches(page -> otpCodeRepository.findExpiredIds(utcNow, page),
+                otpCodeRepository::deleteAllByIdInBatch));
+        record("idempotency_keys", () -> {
+            idempotencyService.evictExpired(now);
+            return batches(page -> idempotencyRepository.findExpiredIds(now, page),
+                    idempotencyRepository::deleteAllByIdInBatch);
+        });
+        lastRunEpochSeconds.set(Instant.now().getEpochSecond());
+    }
+
+    private void purge(String table, Function<Pageable, List<Long>> nextIds, Consumer<List<Long>> delete) {
+        record(table, () -> batches(nextIds, delete));
+    }
+
+    private int batches(Function<Pageable, List<Long>> nextIds, Consumer<List<Long>> delete) {
+        Pageable firstBatch = PageRequest.of(0, batchSize);
+        int purged = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = nextIds.apply(firstBatch);
+                if (!ids.isEmpty()) {
+                    delete.accept(ids);
+                }
+                return ids.size();
+            });
+            purged += deleted != null ? deleted : 0;
+            if (deleted == null || deleted < batchSize) {
+                break;
+            }
+        }
+        return purged;
+    }
+
+    // Failures are logged per table so one broken purge does not stop the others
+    private void record(String table, IntSupplier task) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            int purged = task.getAsInt();
+            meterRegistry.counter("housekeeping.purged", "table", table).increment(purged);
+            if (purged > 0) {
+                logger.info("Housekeeping purged " + purged + " rows from " + table);
+            }
+        } catch (RuntimeException e) {
+            meterRegistry.counter("housekeeping.failures", "table", table).increment();
+            logger.warning("Housekeeping of " + table + " failed: " + e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer("housekeeping.duration", "table", table));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.healthcare.importer;
+
+public enum ImportFormat {
+    CSV, NDJSON;
+
+    /** Picks the format from an explicit {@code format} parameter, falling back to the content type. */
+    public static ImportFormat resolve(String format, String contentType) {
+        if (format != null && !format.isBlank()) {
+            return valueOf(format.trim().toUpperCase());
+        }
+        if (contentType != null && contentType.toLowerCase().contains("json")) {
+            return NDJSON;
+        }
+        return CSV;
+    }
+}
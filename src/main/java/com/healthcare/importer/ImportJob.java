@@ -0,0 +1,133 @@
+package com.healthcare.importer;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Progress of one bulk import. Counters are updated by the import thread and read by status polls. */
+public class ImportJob {
+
+    public static final String QUEUED = "queued";
+    public static final String RUNNING = "running";
+    public static final String COMPLETED = "completed";
+    public static final String FAILED = "failed";
+
+    private final String id;
+    private final ImportFormat format;
+    private final Path input;
+    private final Path errorFile;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile String status = QUEUED;
+    private volatile String message;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    public ImportJob(String id, ImportFormat format, Path input, Path errorFile) {
+        this.id = id;
+        this.format = format;
+        this.input = input;
+        this.errorFile = errorFile;
+    }
+
+    void started() {
+        startedAt = Instant.now();
+        status = RUNNING;
+    }
+
+    void finished(String status, String message) {
+        this.message = message;
+        this.finishedAt = Instant.now();
+        this.status = status;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void imported(long count) {
+        imported.addAndGet(count);
+    }
+
+    void duplicate() {
+        duplicates.incrementAndGet();
+    }
+
+    void failed() {
+        failed.incrementAndGet();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ImportFormat getFormat() {
+        return format;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getImported() {
+        return imported.get();
+    }
+
+    public long getDuplicates() {
+        return duplicates.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getRowsPerSecond() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(start, end).toMillis());
+        return rowsRead.get() * 1000 / millis;
+    }
+
+    public boolean isDone() {
+        return COMPLETED.equals(status) || FAILED.equals(status);
+    }
+
+    @JsonIgnore
+    public Path getInput() {
+        return input;
+    }
+
+    @JsonIgnore
+    public Path getErrorFile() {
+        return errorFile;
+    }
+}
@@ -0,0 +1,19 @@
+package com.healthcare.importer;
+
+import java.util.Map;
+
+/**
+ * One input record. {@code line} is the 1-based line the record starts on; {@code error} is set
+ * instead of {@code fields} when the record could not be parsed.
+ */
+public record ImportRow(long line, Map<String, String> fields, String error) {
+
+    public String field(String name) {
+        String value = fields != null ? fields.get(name) : null;
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,164 @@
+package com.healthcare.importer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams records out of a CSV file with a header row, or out of NDJSON (one JSON object per line).
+ * Field names are matched case-insensitively. Only one record is held in memory at a time.
+ */
+public abstract class ImportRowReader implements Closeable {
+
+    protected final BufferedReader reader;
+    protected long line = 0;
+
+    protected ImportRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /** Returns the next record, or null at end of input. */
+    public abstract ImportRow next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    public static ImportRowReader of(ImportFormat format, BufferedReader reader, ObjectMapper objectMapper) throws IOException {
+        return format == ImportFormat.NDJSON ? new Ndjson(reader, objectMapper) : new Csv(reader);
+    }
+
+    static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT).replace("_", "").replace(" ", "");
+    }
+
+    private static final class Ndjson extends ImportRowReader {
+
+        private final ObjectMapper objectMapper;
+
+        Ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+            super(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+                if (text == null) {
+                    return null;
+                }
+            } while (text.isBlank());
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (IOException e) {
+                return new ImportRow(line, null, "Invalid JSON");
+            }
+            if (node == null || !node.isObject()) {
+                return new ImportRow(line, null, "Expected a JSON object");
+            }
+            Map<String, String> fields = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+            while (entries.hasNext()) {
+                Map.Entry<String, JsonNode> entry = entries.next();
+                if (!entry.getValue().isNull()) {
+                    fields.put(normalizeName(entry.getKey()), entry.getValue().asText());
+                }
+            }
+            return new ImportRow(line, fields, null);
+        }
+    }
+
+    /** RFC 4180 CSV: quoted fields may contain commas, doubled quotes and line breaks. */
+    private static final class Csv extends ImportRowReader {
+
+        private final List<String> header;
+
+        Csv(BufferedReader reader) throws IOException {
+            super(reader);
+            List<String> names = readRecord();
+            header = new ArrayList<>();
+            if (names != null) {
+                for (String name : names) {
+                    header.add(normalizeName(name));
+                }
+            }
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            List<String> values;
+            long start;
+            do {
+                start = line + 1;
+                values = readRecord();
+                if (values == null) {
+                    return null;
+                }
+            } while (values.size() == 1 && values.get(0).isBlank());
+            if (values.size() != header.size()) {
+                return new ImportRow(start, null, "Expected " + header.size() + " columns but found " + values.size());
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                fields.put(header.get(i), values.get(i));
+            }
+            return new ImportRow(start, fields, null);
+        }
+
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            line++;
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int peek = reader.read();
+                        if (peek == '"') {
+                            value.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        value.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    value.append((char) c);
+                }
+                c = reader.read();
+            }
+            values.add(value.toString());
+            return values;
+        }
+    }
+}
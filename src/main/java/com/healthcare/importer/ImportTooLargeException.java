@@ -0,0 +1,13 @@
+package com.healthcare.importer;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** The upload is larger than {@code import.max-upload-bytes}; nothing was queued. */
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class ImportTooLargeException extends RuntimeException {
+
+    public ImportTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,338 @@
+package com.healthcare.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.location.LocationLevel;
+import com.healthcare.model.Person;
+import com.healthcare.model.Role;
+import com.healthcare.password.PooledPasswordEncoder;
+import com.healthcare.repository.PersonRepository;
+import com.healthcare.repository.RoleRepository;
+import com.healthcare.repository.VillageRepository;
+import com.healthcare.service.LocationService;
+import com.healthcare.util.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Bulk patient registration. Uploads are spooled to a temp file and imported by a single background
+ * thread, one job at a time:
+ * <ol>
+ *   <li>rows are streamed from CSV or NDJSON and validated; emails are checked against a set of
+ *       existing emails loaded once per job, which also catches duplicates within the file;</li>
+ *   <li>passwords of each chunk are hashed on a parallel pool while the previous chunk is written;</li>
+ *   <li>each chunk is saved in one transaction as batched inserts (see the pooled id sequence on
+ *       {@link Person}). If a chunk fails, its rows are retried one by one so only bad rows are lost.</li>
+ * </ol>
+ * Rejected rows go to a per-job CSV error file. Rows without a password get an unusable password
+ * and must go through password reset before signing in.
+ */
+@Service
+public class PatientImportService {
+
+    static final String UNUSABLE_PASSWORD = "!imported-without-password";
+
+    private static final Logger logger = Logger.getLogger(PatientImportService.class.getName());
+    private static final int MAX_RETAINED_JOBS = 20;
+
+    private final PersonRepository personRepository;
+    private final RoleRepository roleRepository;
+    private final VillageRepository villageRepository;
+    private final LocationService locationService;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long maxUploadBytes;
+    private final ExecutorService jobRunner;
+    private final ExecutorService hashPool;
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+
+    /** A validated row whose password hash may still be in flight. */
+    private record PreparedRow(long line, Person person, Long villageId, Future<String> passwordHash) {
+    }
+
+    public PatientImportService(PersonRepository personRepository, RoleRepository roleRepository,
+                                VillageRepository villageRepository, LocationService locationService,
+                                PooledPasswordEncoder passwordEncoder, TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${import.batch-size:500}") int batchSize,
+                                @Value("${import.hash-workers:0}") int hashWorkers,
+                                @Value("${import.max-upload-bytes:104857600}") long maxUploadBytes) {
+        this.personRepository = personRepository;
+        this.roleRepository = roleRepository;
+        this.villageRepository = villageRepository;
+        this.locationService = locationService;
+        // Rows are already hashed on hashPool; going through the login pool too would only take its slots
+        this.passwordEncoder = passwordEncoder.direct();
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxUploadBytes = maxUploadBytes;
+        int workers = hashWorkers > 0 ? hashWorkers : Runtime.getRuntime().availableProcessors();
+        this.jobRunner = Executors.newSingleThreadExecutor(ThreadFactories.named("patient-import-", false));
+        this.hashPool = Executors.newFixedThreadPool(workers, ThreadFactories.named("import-hash-", false));
+    }
+
+    @PreDestroy
+    public void stop() {
+        jobRunner.shutdownNow();
+        hashPool.shutdownNow();
+    }
+
+    public long getMaxUploadBytes() {
+        return maxUploadBytes;
+    }
+
+    /**
+     * Spools {@code body} to disk and queues the import; returns as soon as the upload is stored.
+     * Throws {@link ImportTooLargeException} once more than {@code import.max-upload-bytes} arrive.
+     */
+    public ImportJob submit(InputStream body, ImportFormat format) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Path input = Files.createTempFile("patient-import-" + id + "-", "." + format.name().toLowerCase(Locale.ROOT));
+        spool(body, input);
+        Path errors = Files.createTempFile("patient-import-" + id + "-", "-errors.csv");
+        ImportJob job = new ImportJob(id, format, input, errors);
+        register(job);
+        jobRunner.submit(() -> run(job));
+        return job;
+    }
+
+    // Counts bytes as they are copied: the body is a raw stream, so no multipart limit applies to it
+    private void spool(InputStream body, Path input) throws IOException {
+        try (OutputStream out = Files.newOutputStream(input)) {
+            byte[] buffer = new byte[64 * 1024];
+            long total = 0;
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+                if (total > maxUploadBytes) {
+                    throw new ImportTooLargeException("Import uploads are limited to " + maxUploadBytes + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(input);
+            throw e;
+        }
+    }
+
+    public ImportJob getJob(String id) {
+        synchronized (jobs) {
+            return jobs.get(id);
+        }
+    }
+
+    private void register(ImportJob job) {
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            Iterator<ImportJob> oldest = jobs.values().iterator();
+            while (jobs.size() > MAX_RETAINED_JOBS && oldest.hasNext()) {
+                ImportJob candidate = oldest.next();
+                if (candidate.isDone()) {
+                    oldest.remove();
+                    deleteQuietly(candidate.getErrorFile());
+                }
+            }
+        }
+    }
+
+    private void run(ImportJob job) {
+        job.started();
+        try (BufferedReader in = Files.newBufferedReader(job.getInput(), StandardCharsets.UTF_8);
+             ImportRowReader reader = ImportRowReader.of(job.getFormat(), in, objectMapper);
+             BufferedWriter errors = Files.newBufferedWriter(job.getErrorFile(), StandardCharsets.UTF_8)) {
+            errors.write("line,email,error\n");
+            Set<String> knownEmails = new HashSet<>(personRepository.findAllEmailsLowercase());
+            Role patientRole = roleRepository.findByName("PATIENT");
+            if (patientRole == null) {
+                throw new IllegalStateException("PATIENT role is missing");
+            }
+
+            List<PreparedRow> pending = null;
+            List<PreparedRow> chunk = new ArrayList<>(batchSize);
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                job.rowRead();
+                PreparedRow prepared = prepare(row, knownEmails, patientRole, job, errors);
+                if (prepared != null) {
+                    chunk.add(prepared);
+                }
+                if (chunk.size() == batchSize) {
+                    if (pending != null) {
+                        write(pending, job, errors);
+                    }
+                    pending = chunk;
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            if (pending != null) {
+                write(pending, job, errors);
+            }
+            write(chunk, job, errors);
+            job.finished(ImportJob.COMPLETED, null);
+            logger.info("Patient import " + job.getId() + " finished: " + job.getImported() + " imported, "
+                    + job.getDuplicates() + " duplicates, " + job.getFailed() + " failed, "
+                    + job.getRowsPerSecond() + " rows/s");
+        } catch (Exception e) {
+            job.finished(ImportJob.FAILED, e.getMessage());
+            logger.severe("Patient import " + job.getId() + " failed: " + e.getMessage());
+        } finally {
+            deleteQuietly(job.getInput());
+        }
+    }
+
+    private PreparedRow prepare(ImportRow row, Set<String> knownEmails, Role patientRole, ImportJob job,
+                                BufferedWriter errors) throws IOException {
+        if (row.error() != null) {
+            reject(row.line(), null, row.error(), job, errors);
+            return null;
+        }
+        String email = row.field("email");
+        String fullName = row.field("fullname");
+        if (email == null || !email.contains("@")) {
+            reject(row.line(), email, "A valid email is required", job, errors);
+            return null;
+        }
+        if (fullName == null) {
+            reject(row.line(), email, "fullName is required", job, errors);
+            return null;
+        }
+        Integer age = null;
+        Long villageId = null;
+        try {
+            String ageText = row.field("age");
+            age = ageText != null ? Integer.valueOf(ageText) : null;
+            String villageText = row.field("villageid");
+            villageId = villageText != null ? Long.valueOf(villageText) : null;
+        } catch (NumberFormatException e) {
+            reject(row.line(), email, "age and villageId must be numbers", job, errors);
+            return null;
+        }
+        if (villageId != null && locationService.getTree().node(LocationLevel.VILLAGE, villageId) == null) {
+            reject(row.line(), email, "Unknown village " + villageId, job, errors);
+            return null;
+        }
+        if (!knownEmails.add(email.toLowerCase(Locale.ROOT))) {
+            job.duplicate();
+            writeError(errors, row.line(), email, "Email already exists");
+            return null;
+        }
+
+        Person person = Person.builder()
+                .fullName(fullName)
+                .email(email)
+                .phone(row.field("phone"))
+                .age(age)
+                .gender(row.field("gender"))
+                .insurance(row.field("insurance"))
+                .roles(Set.of(patientRole))
+                .securityVersion(0L)
+                .build();
+        String password = row.field("password");
+        Future<String> hash = password != null ? hashPool.submit(() -> passwordEncoder.encode(password)) : null;
+        return new PreparedRow(row.line(), person, villageId, hash);
+    }
+
+    private void write(List<PreparedRow> chunk, ImportJob job, BufferedWriter errors)
+            throws IOException, InterruptedException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        for (PreparedRow row : chunk) {
+            try {
+                row.person().setPassword(row.passwordHash() != null ? row.passwordHash().get() : UNUSABLE_PASSWORD);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Password hashing failed", e.getCause());
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> personRepository.saveAll(attach(chunk)));
+            job.imported(chunk.size());
+        } catch (RuntimeException chunkFailure) {
+            for (PreparedRow row : chunk) {
+                // Drop state left by the rolled-back attempt before saving the row on its own
+                row.person().setId(null);
+                row.person().setRoles(new HashSet<>(row.person().getRoles()));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> personRepository.save(attach(List.of(row)).get(0)));
+                    job.imported(1);
+                } catch (RuntimeException e) {
+                    reject(row.line(), row.person().getEmail(), rootMessage(e), job, errors);
+                }
+            }
+        }
+        errors.flush();
+    }
+
+    /** Sets village references inside the current transaction; the ids were validated against the location tree. */
+    private List<Person> attach(List<PreparedRow> rows) {
+        List<Person> persons = new ArrayList<>(rows.size());
+        for (PreparedRow row : rows) {
+            row.person().setVillage(row.villageId() != null ? villageRepository.getReferenceById(row.villageId()) : null);
+            persons.add(row.person());
+        }
+        return persons;
+    }
+
+    private void reject(long line, String email, String error, ImportJob job, BufferedWriter errors) throws IOException {
+        job.failed();
+        writeError(errors, line, email, error);
+    }
+
+    private static void writeError(BufferedWriter errors, long line, String email, String error) throws IOException {
+        errors.write(line + "," + csv(email) + "," + csv(error) + "\n");
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warning("Could not delete " + path + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.healthcare.location;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A serialized JSON document with its gzip form and a content-derived ETag. Bodies under
+ * {@link #GZIP_THRESHOLD} bytes are not compressed; {@link #gzip()} is null for them.
+ */
+public record CachedJson(byte[] json, byte[] gzip, String etag) {
+
+    static final int GZIP_THRESHOLD = 1024;
+
+    static CachedJson of(byte[] json) {
+        return new CachedJson(json, json.length >= GZIP_THRESHOLD ? gzip(json) : null, etagOf(json));
+    }
+
+    /** ETag of the gzip variant; a different encoding is a different representation. */
+    public String gzipEtag() {
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etagOf(byte[] data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
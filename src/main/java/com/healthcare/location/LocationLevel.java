@@ -0,0 +1,40 @@
+package com.healthcare.location;
+
+public enum LocationLevel {
+    PROVINCE("provinces", null),
+    DISTRICT("districts", "provinceId"),
+    SECTOR("sectors", "districtId"),
+    CELL("cells", "sectorId"),
+    VILLAGE("villages", "cellId");
+
+    private final String key;
+    private final String parentField;
+
+    LocationLevel(String key, String parentField) {
+        this.key = key;
+        this.parentField = parentField;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /** JSON field naming the parent id, or null for the top level. */
+    public String getParentField() {
+        return parentField;
+    }
+
+    public LocationLevel child() {
+        int next = ordinal() + 1;
+        return next < values().length ? values()[next] : null;
+    }
+
+    public static LocationLevel fromKey(String key) {
+        for (LocationLevel level : values()) {
+            if (level.key.equalsIgnoreCase(key)) {
+                return level;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.healthcare.location;
+
+/** One row of an administrative level, without its entity associations. */
+public record LocationNode(Long id, String name, Long parentId) {
+
+    public LocationNode(Long id, String name) {
+        this(id, name, null);
+    }
+}
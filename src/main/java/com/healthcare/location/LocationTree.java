@@ -0,0 +1,152 @@
+package com.healthcare.location;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the province → district → sector → cell → village hierarchy. Every list the
+ * API can return (a whole level, the children of one node, the nested tree) is serialized once at
+ * build time, so serving it is a map lookup.
+ */
+public final class LocationTree {
+
+    private final Map<LocationLevel, Map<Long, LocationNode>> nodes = new EnumMap<>(LocationLevel.class);
+    private final Map<LocationLevel, CachedJson> levels = new EnumMap<>(LocationLevel.class);
+    private final Map<LocationLevel, Map<Long, CachedJson>> children = new EnumMap<>(LocationLevel.class);
+    private final CachedJson tree;
+    private final Instant builtAt = Instant.now();
+
+    /**
+     * @param rows every node per level, already in display order
+     */
+    public LocationTree(Map<LocationLevel, List<LocationNode>> rows, JsonFactory jsonFactory) {
+        Map<LocationLevel, Map<Long, List<LocationNode>>> grouped = new EnumMap<>(LocationLevel.class);
+        for (LocationLevel level : LocationLevel.values()) {
+            List<LocationNode> list = rows.getOrDefault(level, List.of());
+            Map<Long, LocationNode> byId = new HashMap<>(list.size() * 2);
+            Map<Long, List<LocationNode>> byParent = new HashMap<>();
+            for (LocationNode node : list) {
+                byId.put(node.id(), node);
+                if (node.parentId() != null) {
+                    byParent.computeIfAbsent(node.parentId(), id -> new ArrayList<>()).add(node);
+                }
+            }
+            nodes.put(level, Collections.unmodifiableMap(byId));
+            grouped.put(level, byParent);
+            levels.put(level, CachedJson.of(write(jsonFactory, g -> writeList(g, level, list))));
+        }
+
+        for (LocationLevel level : LocationLevel.values()) {
+            LocationLevel childLevel = level.child();
+            if (childLevel == null) {
+                continue;
+            }
+            Map<Long, List<LocationNode>> byParent = grouped.get(childLevel);
+            CachedJson empty = CachedJson.of(write(jsonFactory, g -> writeList(g, childLevel, List.of())));
+            Map<Long, CachedJson> docs = new HashMap<>(nodes.get(level).size() * 2);
+            for (Long parentId : nodes.get(level).keySet()) {
+                List<LocationNode> list = byParent.get(parentId);
+                docs.put(parentId, list == null ? empty
+                        : CachedJson.of(write(jsonFactory, g -> writeList(g, childLevel, list))));
+            }
+            children.put(level, Collections.unmodifiableMap(docs));
+        }
+
+        List<LocationNode> provinces = rows.getOrDefault(LocationLevel.PROVINCE, List.of());
+        tree = CachedJson.of(write(jsonFactory, g -> {
+            g.writeStartArray();
+            for (LocationNode province : provinces) {
+                writeNested(g, LocationLevel.PROVINCE, province, grouped);
+            }
+            g.writeEndArray();
+        }));
+    }
+
+    public CachedJson level(LocationLevel level) {
+        return levels.get(level);
+    }
+
+    /** The children of one node, or null if {@code parentId} is not a node of {@code parentLevel}. */
+    public CachedJson childrenOf(LocationLevel parentLevel, Long parentId) {
+        Map<Long, CachedJson> docs = children.get(parentLevel);
+        return docs != null ? docs.get(parentId) : null;
+    }
+
+    public CachedJson tree() {
+        return tree;
+    }
+
+    public LocationNode node(LocationLevel level, Long id) {
+        return nodes.get(level).get(id);
+    }
+
+    public int size(LocationLevel level) {
+        return nodes.get(level).size();
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    private static void writeList(JsonGenerator g, LocationLevel level, List<LocationNode> list) throws IOException {
+        g.writeStartArray();
+        for (LocationNode node : list) {
+            g.writeStartObject();
+            writeFields(g, level, node);
+            g.writeEndObject();
+        }
+        g.writeEndArray();
+    }
+
+    private static void writeNested(JsonGenerator g, LocationLevel level, LocationNode node,
+                                    Map<LocationLevel, Map<Long, List<LocationNode>>> grouped) throws IOException {
+        g.writeStartObject();
+        writeFields(g, level, node);
+        LocationLevel childLevel = level.child();
+        if (childLevel != null) {
+            g.writeArrayFieldStart(childLevel.getKey());
+            for (LocationNode child : grouped.get(childLevel).getOrDefault(node.id(), List.of())) {
+                writeNested(g, childLevel, child, grouped);
+            }
+            g.writeEndArray();
+        }
+        g.writeEndObject();
+    }
+
+    private static void writeFields(JsonGenerator g, LocationLevel level, LocationNode node) throws IOException {
+        g.writeNumberField("id", node.id());
+        g.writeStringField("name", node.name());
+        if (level.getParentField() != null) {
+            if (node.parentId() != null) {
+                g.writeNumberField(level.getParentField(), node.parentId());
+            } else {
+                g.writeNullField(level.getParentField());
+            }
+        }
+    }
+
+    private interface JsonWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private static byte[] write(JsonFactory jsonFactory, JsonWriter writer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            writer.write(generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,181 @@
+package com.healthcare.migration;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.MappingMetamodel;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Startup check that every derived query method ({@code findByX}, {@code countByXAndY}, ...) in the
+ * Spring Data repositories can be served from an index: for each OR branch of the method name at
+ * least one of the filtered columns must be the leading column of an index on the entity's table.
+ * Methods with an explicit {@link Query} are skipped (their indexes are reviewed with the SQL), as are
+ * conditions that go through a collection join, which the join table's own indexes serve.
+ */
+@Component
+public class IndexCoverageCheck {
+
+    private static final Logger logger = Logger.getLogger(IndexCoverageCheck.class.getName());
+
+    private final ApplicationContext applicationContext;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+    private final boolean enabled;
+
+    public IndexCoverageCheck(ApplicationContext applicationContext, EntityManagerFactory entityManagerFactory,
+                              DataSource dataSource,
+                              @Value("${schema.index-check.enabled:true}") boolean enabled) {
+        this.applicationContext = applicationContext;
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        if (!enabled) {
+            return;
+        }
+        MappingMetamodel metamodel = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel();
+        Repositories repositories = new Repositories(applicationContext);
+        List<String> unsupported = new ArrayList<>();
+        int checked = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData meta = connection.getMetaData();
+            Map<String, Set<String>> leadingColumns = new HashMap<>();
+            for (Class<?> domainType : repositories) {
+                EntityPersister persister = metamodel.findEntityDescriptor(domainType);
+                if (!(persister instanceof AbstractEntityPersister entityPersister)) {
+                    continue;
+                }
+                String table = entityPersister.getTableName();
+                EntityType<?> entityType = entityManagerFactory.getMetamodel().entity(domainType);
+                RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+                for (Method method : information.getQueryMethods()) {
+                    if (method.isAnnotationPresent(Query.class)) {
+                        continue;
+                    }
+                    PartTree tree;
+                    try {
+                        tree = new PartTree(method.getName(), domainType);
+                    } catch (RuntimeException e) {
+                        continue;
+                    }
+                    for (PartTree.OrPart branch : tree) {
+                        Set<String> columns = columnsOf(entityPersister, entityType, branch);
+                        if (columns == null) {
+                            continue;
+                        }
+                        checked++;
+                        Set<String> indexed = leadingColumns.computeIfAbsent(table, t -> leadingIndexColumns(meta, t));
+                        if (columns.stream().noneMatch(indexed::contains)) {
+                            unsupported.add(information.getRepositoryInterface().getSimpleName() + "." + method.getName()
+                                    + " filters " + table + " on " + columns);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            logger.warning("Index coverage check skipped: " + e.getMessage());
+            return;
+        }
+        if (unsupported.isEmpty()) {
+            logger.info("Index coverage check: all " + checked + " derived query conditions have a supporting index");
+        } else {
+            unsupported.forEach(m -> logger.warning("Derived query without a supporting index: " + m));
+        }
+    }
+
+    /**
+     * Lower-cased columns filtered by one OR branch, or null when the branch has no condition this
+     * check can judge (no criteria, or a condition on a collection path).
+     */
+    private static Set<String> columnsOf(AbstractEntityPersister persister, EntityType<?> entityType,
+                                         PartTree.OrPart branch) {
+        Set<String> columns = new HashSet<>();
+        for (Part part : branch) {
+            String column = columnOf(persister, entityType, part.getProperty());
+            if (column == null) {
+                return null;
+            }
+            columns.add(column.toLowerCase(Locale.ROOT));
+        }
+        return columns.isEmpty() ? null : columns;
+    }
+
+    private static String columnOf(AbstractEntityPersister persister, EntityType<?> entityType, PropertyPath path) {
+        String property = path.getSegment();
+        if (property.equals(persister.getIdentifierPropertyName())) {
+            return persister.getIdentifierColumnNames()[0];
+        }
+        PropertyPath next = path.next();
+        // Only a to-one reference's own id (patient.id) maps onto a local column
+        if (next != null && (next.hasNext() || path.isCollection() || !isToOne(entityType, property))) {
+            return null;
+        }
+        try {
+            String[] columns = persister.getPropertyColumnNames(property);
+            return columns.length > 0 ? columns[0] : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean isToOne(EntityType<?> entityType, String property) {
+        try {
+            Attribute.PersistentAttributeType type = entityType.getAttribute(property).getPersistentAttributeType();
+            return type == Attribute.PersistentAttributeType.MANY_TO_ONE
+                    || type == Attribute.PersistentAttributeType.ONE_TO_ONE;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static Set<String> leadingIndexColumns(DatabaseMetaData meta, String table) {
+        Set<String> columns = new HashSet<>();
+        try {
+            String name = meta.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT)
+                    : meta.storesLowerCaseIdentifiers() ? table.toLowerCase(Locale.ROOT) : table;
+            try (ResultSet rs = meta.getIndexInfo(null, null, name, false, true)) {
+                while (rs.next()) {
+                    String column = rs.getString("COLUMN_NAME");
+                    if (rs.getShort("ORDINAL_POSITION") == 1 && column != null) {
+                        columns.add(column.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot read indexes of " + table, e);
+        }
+        return columns;
+    }
+}
@@ -6,12 +6,32 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
-@Table(name="appointments")
+@Table(name="appointments", indexes = {
+        @Index(name="idx_appointments_patient_date", columnList="patient_id, date, id"),
+        @Index(name="idx_appointments_doctor_date", columnList="doctor_id, date, id")
+})
+// Patient and doctor with their village chain up to the province, in one join; roles come from a batch fetch
+@NamedEntityGraph(name = "Appointment.participants",
+        attributeNodes = {
+                @NamedAttributeNode(value = "patient", subgraph = "person"),
+                @NamedAttributeNode(value = "doctor", subgraph = "person")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "person", attributeNodes = @NamedAttributeNode(value = "village", subgraph = "village")),
+                @NamedSubgraph(name = "village", attributeNodes = @NamedAttributeNode(value = "cell", subgraph = "cell")),
+                @NamedSubgraph(name = "cell", attributeNodes = @NamedAttributeNode(value = "sector", subgraph = "sector")),
+                @NamedSubgraph(name = "sector", attributeNodes = @NamedAttributeNode(value = "district", subgraph = "district")),
+                @NamedSubgraph(name = "district", attributeNodes = @NamedAttributeNode("province"))
+        })
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Appointment {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Optimistic lock; exposed to clients as the ETag for If-Match updates
+    @Version
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name="patient_id")
     private Person patient;
@@ -1,11 +1,16 @@
 package com.healthcare.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.*;
 
 @Entity
 @Table(name="cells")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "locations.cells")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Cell {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,6 +23,7 @@ public class Cell {
     @JoinColumn(name="sector_id")
     private Sector sector;
 
+    @JsonIgnore // back-reference; children are served by /api/locations
     @OneToMany(mappedBy = "cell")
     private List<Village> villages = new ArrayList<>();
 }
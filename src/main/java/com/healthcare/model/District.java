@@ -1,11 +1,16 @@
 package com.healthcare.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.*;
 
 @Entity
 @Table(name="districts")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "locations.districts")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class District {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,6 +23,7 @@ public class District {
     @JoinColumn(name="province_id")
     private Province province;
 
+    @JsonIgnore // back-reference; children are served by /api/locations
     @OneToMany(mappedBy = "district")
     private List<Sector> sectors = new ArrayList<>();
 }
@@ -0,0 +1,34 @@
+package com.healthcare.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name="email_outbox", indexes = @Index(name="idx_email_outbox_status_next", columnList="status, nextAttemptAt"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class EmailOutbox {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    private String subject;
+
+    // Null once a sensitive message has been sent or given up on
+    @Column(length = 4000)
+    private String body;
+
+    // OTPs and reset links: the body is not kept after delivery
+    private boolean sensitive;
+
+    private String status; // pending/sending/sent/failed
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime sentAt;
+
+    @Column(length = 1000)
+    private String lastError;
+}
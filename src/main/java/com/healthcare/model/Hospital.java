@@ -2,9 +2,13 @@ package com.healthcare.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name="hospitals")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "reference.hospitals")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Hospital {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
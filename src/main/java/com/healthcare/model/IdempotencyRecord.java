@@ -0,0 +1,32 @@
+package com.healthcare.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name="idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name="uk_idempotency_owner_scope_key", columnNames={"owner", "scope", "idempotencyKey"}),
+        indexes = @Index(name="idx_idempotency_expires", columnList="expiresAt"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class IdempotencyRecord {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(nullable = false, length = 64)
+    private String scope;
+
+    @Column(nullable = false, length = 128)
+    private String idempotencyKey;
+
+    @Column(length = 64)
+    private String fingerprint; // SHA-256 of the request body
+
+    private String status; // in_progress/completed
+    private Long resourceId;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt; // lease deadline while in progress, then end of the replay window
+}
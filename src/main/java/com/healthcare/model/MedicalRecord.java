@@ -5,12 +5,19 @@ import lombok.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name="medical_records")
+@Table(name="medical_records", indexes = {
+        @Index(name="idx_medical_records_patient_date", columnList="patient_id, date, id"),
+        @Index(name="idx_medical_records_doctor_date", columnList="doctor_id, date, id")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class MedicalRecord {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Optimistic lock; exposed to clients as the ETag for If-Match updates
+    @Version
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name="patient_id")
     private Person patient;
@@ -0,0 +1,27 @@
+package com.healthcare.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// One row per email and purpose; the code itself is only stored as a hash
+@Entity
+@Table(name="otp_codes",
+        uniqueConstraints = @UniqueConstraint(name="uk_otp_codes_key", columnNames={"otpKey"}),
+        indexes = @Index(name="idx_otp_codes_expires", columnList="expiresAt"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class OtpCode {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 330)
+    private String otpKey; // email|purpose
+
+    @Column(nullable = false, length = 64)
+    private String codeHash;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private int attempts;
+}
@@ -3,7 +3,12 @@ package com.healthcare.model;
 import jakarta.persistence.*;
 import java.util.Date;
 
+// Only the SHA-256 of the emailed token is stored, so a leaked table cannot be used to reset passwords
 @Entity
+@Table(name = "password_reset_token", indexes = {
+        @Index(name = "idx_password_reset_token_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "idx_password_reset_token_expiry", columnList = "expiryDate")
+})
 public class PasswordResetToken {
 
     private static final int EXPIRATION = 60 * 24;
@@ -12,9 +17,10 @@ public class PasswordResetToken {
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
 
-    private String token;
+    @Column(length = 64)
+    private String tokenHash;
 
-    @OneToOne(targetEntity = Person.class, fetch = FetchType.EAGER)
+    @ManyToOne(targetEntity = Person.class, fetch = FetchType.LAZY)
     @JoinColumn(nullable = false, name = "person_id")
     private Person person;
 
@@ -22,8 +28,8 @@ public class PasswordResetToken {
 
     public PasswordResetToken() {}
 
-    public PasswordResetToken(String token, Person person) {
-        this.token = token;
+    public PasswordResetToken(String tokenHash, Person person) {
+        this.tokenHash = tokenHash;
         this.person = person;
         this.expiryDate = calculateExpiryDate(EXPIRATION);
     }
@@ -41,12 +47,12 @@ public class PasswordResetToken {
         this.id = id;
     }
 
-    public String getToken() {
-        return token;
+    public String getTokenHash() {
+        return tokenHash;
     }
 
-    public void setToken(String token) {
-        this.token = token;
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
     }
 
     public Person getPerson() {
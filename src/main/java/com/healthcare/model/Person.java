@@ -1,5 +1,7 @@
 package com.healthcare.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
 import java.util.*;
@@ -8,7 +10,10 @@ import java.util.*;
 @Table(name="persons")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Person {
-  @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+  // Pooled sequence so bulk inserts can be JDBC-batched (IDENTITY forces one round trip per row)
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "persons_seq")
+  @SequenceGenerator(name = "persons_seq", sequenceName = "persons_seq", allocationSize = 50)
   private Long id;
 
   @Column(nullable=false)
@@ -18,6 +23,7 @@ public class Person {
   private String email;
 
   @Column(nullable=false)
+  @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
   private String password;
 
   // Person -> Village (Location relationship)
@@ -43,5 +49,14 @@ public class Person {
   private Set<Role> roles = new HashSet<>();
   
   private boolean mfaEnabled = false;
-  private String mfaSecret;
+
+  // Bumped on password/role changes; tokens carrying an older stamp are rejected
+  @JsonIgnore
+  @Builder.Default
+  private Long securityVersion = 0L;
+
+  @JsonIgnore
+  public long getSecurityVersion() {
+    return securityVersion != null ? securityVersion : 0L;
+  }
 }
@@ -5,12 +5,32 @@ import lombok.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name="prescriptions")
+@Table(name="prescriptions", indexes = {
+        @Index(name="idx_prescriptions_patient_date_issued", columnList="patient_id, dateIssued, id"),
+        @Index(name="idx_prescriptions_doctor_date_issued", columnList="doctor_id, dateIssued, id")
+})
+// Patient and doctor with their village chain up to the province, in one join; roles come from a batch fetch
+@NamedEntityGraph(name = "Prescription.participants",
+        attributeNodes = {
+                @NamedAttributeNode(value = "patient", subgraph = "person"),
+                @NamedAttributeNode(value = "doctor", subgraph = "person")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "person", attributeNodes = @NamedAttributeNode(value = "village", subgraph = "village")),
+                @NamedSubgraph(name = "village", attributeNodes = @NamedAttributeNode(value = "cell", subgraph = "cell")),
+                @NamedSubgraph(name = "cell", attributeNodes = @NamedAttributeNode(value = "sector", subgraph = "sector")),
+                @NamedSubgraph(name = "sector", attributeNodes = @NamedAttributeNode(value = "district", subgraph = "district")),
+                @NamedSubgraph(name = "district", attributeNodes = @NamedAttributeNode("province"))
+        })
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Prescription {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Optimistic lock; exposed to clients as the ETag for If-Match updates
+    @Version
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name="patient_id")
     private Person patient;
@@ -1,11 +1,16 @@
 package com.healthcare.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.*;
 
 @Entity
 @Table(name="provinces")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "locations.provinces")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Province {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -14,6 +19,7 @@ public class Province {
     @Column(unique = true, nullable = false)
     private String name;
 
+    @JsonIgnore // back-reference; children are served by /api/locations
     @OneToMany(mappedBy = "province")
     private List<District> districts = new ArrayList<>();
 }
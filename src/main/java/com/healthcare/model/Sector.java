@@ -1,11 +1,16 @@
 package com.healthcare.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.*;
 
 @Entity
 @Table(name="sectors")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "locations.sectors")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Sector {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,6 +23,7 @@ public class Sector {
     @JoinColumn(name="district_id")
     private District district;
 
+    @JsonIgnore // back-reference; children are served by /api/locations
     @OneToMany(mappedBy = "sector")
     private List<Cell> cells = new ArrayList<>();
 }
@@ -1,11 +1,16 @@
 package com.healthcare.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.*;
 
 @Entity
 @Table(name="villages")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "locations.villages")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Village {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,6 +23,7 @@ public class Village {
     @JoinColumn(name="cell_id")
     private Cell cell;
 
+    @JsonIgnore // back-reference; children are served by /api/locations
     @OneToMany(mappedBy = "village")
     private List<Person> persons = new ArrayList<>();
 }
@@ -0,0 +1,96 @@
+package com.healthcare.otp;
+
+import com.healthcare.model.OtpCode;
+import com.healthcare.repository.OtpCodeRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+/**
+ * Persistent store ({@code otp.store=database}) for deployments with several nodes or that must keep
+ * codes across restarts: one small {@code otp_codes} row per email and purpose, never the persons row.
+ * <p>
+ * A new code overwrites the key's row in place. When two requests issue the first code for a key at
+ * the same time, one insert loses on the unique key and is retried as an overwrite. Expired rows
+ * are deleted by the housekeeping run.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "database")
+public class DatabaseOtpStore implements OtpStore {
+
+    private static final int MAX_PUT_ATTEMPTS = 3;
+
+    private final OtpCodeRepository repository;
+    // Each attempt needs a transaction of its own: a failed insert leaves its transaction rollback-only
+    private final TransactionTemplate putTransaction;
+
+    public DatabaseOtpStore(OtpCodeRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.putTransaction = new TransactionTemplate(transactionManager);
+        this.putTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void put(String key, String codeHash, Instant expiresAt) {
+        LocalDateTime expiry = toUtc(expiresAt);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                putTransaction.executeWithoutResult(status -> {
+                    if (repository.replace(key, codeHash, expiry) == 0) {
+                        repository.saveAndFlush(OtpCode.builder()
+                                .otpKey(key)
+                                .codeHash(codeHash)
+                                .expiresAt(expiry)
+                                .attempts(0)
+                                .build());
+                    }
+                });
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent request inserted the key first; the next attempt updates its row
+                if (attempt >= MAX_PUT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public OtpCheck check(String key, String codeHash, Instant now, int maxAttempts) {
+        Optional<OtpCode> found = repository.findByOtpKey(key);
+        if (found.isEmpty()) {
+            return OtpCheck.MISSING;
+        }
+        OtpCode code = found.get();
+        if (!code.getExpiresAt().isAfter(toUtc(now))) {
+            repository.delete(code);
+            return OtpCheck.EXPIRED;
+        }
+        if (MessageDigest.isEqual(code.getCodeHash().getBytes(StandardCharsets.US_ASCII),
+                codeHash.getBytes(StandardCharsets.US_ASCII))) {
+            repository.delete(code);
+            return OtpCheck.VALID;
+        }
+        code.setAttempts(code.getAttempts() + 1);
+        if (code.getAttempts() >= maxAttempts) {
+            repository.delete(code);
+        }
+        return OtpCheck.INVALID;
+    }
+
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
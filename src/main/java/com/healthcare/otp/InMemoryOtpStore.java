@@ -0,0 +1,53 @@
+package com.healthcare.otp;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Default store: codes live only in this node's memory and vanish on restart. */
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private record Entry(String codeHash, Instant expiresAt, int attempts) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(String key, String codeHash, Instant expiresAt) {
+        entries.put(key, new Entry(codeHash, expiresAt, 0));
+    }
+
+    @Override
+    public OtpCheck check(String key, String codeHash, Instant now, int maxAttempts) {
+        OtpCheck[] result = {OtpCheck.MISSING};
+        entries.computeIfPresent(key, (k, entry) -> {
+            if (!entry.expiresAt().isAfter(now)) {
+                result[0] = OtpCheck.EXPIRED;
+                return null;
+            }
+            if (MessageDigest.isEqual(entry.codeHash().getBytes(StandardCharsets.US_ASCII),
+                    codeHash.getBytes(StandardCharsets.US_ASCII))) {
+                result[0] = OtpCheck.VALID;
+                return null;
+            }
+            result[0] = OtpCheck.INVALID;
+            int attempts = entry.attempts() + 1;
+            return attempts >= maxAttempts ? null : new Entry(entry.codeHash(), entry.expiresAt(), attempts);
+        });
+        return result[0];
+    }
+
+    @Override
+    public int purgeExpired(Instant now) {
+        int before = entries.size();
+        entries.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+        return Math.max(before - entries.size(), 0);
+    }
+}
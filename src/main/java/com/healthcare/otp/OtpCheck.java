@@ -0,0 +1,6 @@
+package com.healthcare.otp;
+
+/** Outcome of presenting a code. Only {@link #VALID} consumes it; too many wrong codes also discard it. */
+public enum OtpCheck {
+    VALID, INVALID, EXPIRED, MISSING
+}
@@ -0,0 +1,6 @@
+package com.healthcare.otp;
+
+/** Codes are scoped to a purpose, so a login code cannot complete a password reset and vice versa. */
+public enum OtpPurpose {
+    LOGIN, TWO_FACTOR, PASSWORD_RESET
+}
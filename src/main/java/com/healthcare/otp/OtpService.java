@@ -0,0 +1,70 @@
+package com.healthcare.otp;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Issues and verifies one-time codes, one live code per email and purpose. Codes are random 6-digit
+ * numbers, kept only as salted hashes, expire after {@code otp.ttl-minutes}, are consumed by the first
+ * correct use and discarded after {@code otp.max-attempts} wrong ones. Nothing here touches persons.
+ */
+@Service
+public class OtpService {
+
+    private final OtpStore store;
+    private final SecureRandom random = new SecureRandom();
+    private final Duration ttl;
+    private final int maxAttempts;
+
+    public OtpService(OtpStore store,
+                      @Value("${otp.ttl-minutes:10}") long ttlMinutes,
+                      @Value("${otp.max-attempts:5}") int maxAttempts) {
+        this.store = store;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.maxAttempts = maxAttempts;
+    }
+
+    /** Creates a new code for the email and purpose, invalidating any earlier one, and returns it. */
+    public String issue(String email, OtpPurpose purpose) {
+        String code = String.format("%06d", random.nextInt(1_000_000));
+        String key = key(email, purpose);
+        store.put(key, hash(key, code), Instant.now().plus(ttl));
+        return code;
+    }
+
+    public OtpCheck verify(String email, OtpPurpose purpose, String code) {
+        if (email == null || code == null) {
+            return OtpCheck.MISSING;
+        }
+        String key = key(email, purpose);
+        return store.check(key, hash(key, code.trim()), Instant.now(), maxAttempts);
+    }
+
+    /** Called by the housekeeping run; returns how many expired in-memory codes were dropped. */
+    public int purgeExpired() {
+        return store.purgeExpired(Instant.now());
+    }
+
+    private static String key(String email, OtpPurpose purpose) {
+        return email.trim().toLowerCase(Locale.ROOT) + "|" + purpose.name();
+    }
+
+    // The key salts the hash, so equal codes for different users or purposes never share a hash
+    private static String hash(String key, String code) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest((key + ":" + code).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
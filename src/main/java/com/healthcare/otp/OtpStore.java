@@ -0,0 +1,24 @@
+package com.healthcare.otp;
+
+import java.time.Instant;
+
+/**
+ * Holds at most one live code per key ({@code email|purpose}), by hash. Implementations make
+ * {@link #check} atomic: a matching code is consumed by exactly one caller, a wrong one counts an
+ * attempt, and the code is discarded once {@code maxAttempts} wrong codes were presented.
+ */
+public interface OtpStore {
+
+    /** Stores a new code for the key, replacing any previous one. */
+    void put(String key, String codeHash, Instant expiresAt);
+
+    OtpCheck check(String key, String codeHash, Instant now, int maxAttempts);
+
+    /**
+     * Drops expired codes the store keeps outside the database; returns how many were removed. Rows in
+     * {@code otp_codes} are left to the housekeeping run, which deletes them in bounded batches.
+     */
+    default int purgeExpired(Instant now) {
+        return 0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.healthcare.password;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.logging.Logger;
+
+/**
+ * Picks a BCrypt strength for this machine. Each strength step doubles the work, so one timing at the
+ * minimum strength is enough to extrapolate the highest strength that still fits the target.
+ */
+public final class BcryptCalibration {
+
+    private static final Logger logger = Logger.getLogger(BcryptCalibration.class.getName());
+    private static final int SAMPLES = 3;
+
+    private BcryptCalibration() {
+    }
+
+    public static int strengthFor(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode("calibration"); // warm-up: class loading and JIT
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double measuredMillis = Math.max(best / 1_000_000.0, 0.001);
+        int strength = minStrength;
+        while (strength < maxStrength && measuredMillis * 2 <= targetMillis) {
+            measuredMillis *= 2;
+            strength++;
+        }
+        logger.info("BCrypt strength " + strength + " (~" + Math.round(measuredMillis) + " ms per hash, target "
+                + targetMillis + " ms)");
+        return strength;
+    }
+}
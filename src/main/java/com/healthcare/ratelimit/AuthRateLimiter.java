@@ -0,0 +1,141 @@
+package com.healthcare.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the unauthenticated auth endpoints before they do any database, BCrypt or mail work.
+ * Every action has a token bucket per client IP and one per email; OTP verification additionally
+ * locks an email out once too many wrong codes were entered within a sliding window. Limits are
+ * configured as {@code burst:perMinute} (see ratelimit.* in application.properties).
+ */
+@Service
+public class AuthRateLimiter {
+
+    public enum Action {
+        LOGIN("login"), OTP_SEND("otp-send"), OTP_VERIFY("otp-verify");
+
+        private final String key;
+
+        Action(String key) {
+            this.key = key;
+        }
+    }
+
+    /** Why a request was refused and when the client may retry. */
+    public record Rejection(long retryAfterSeconds, String message) {
+    }
+
+    private static final String OTP_FAILURES = "otp-failures";
+
+    private final RateLimitStore store;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Limit[] perIp = new Limit[Action.values().length];
+    private final Limit[] perEmail = new Limit[Action.values().length];
+    private final int maxOtpFailures;
+    private final Duration otpFailureWindow;
+
+    public AuthRateLimiter(RateLimitStore store, MeterRegistry meterRegistry,
+                           @Value("${ratelimit.enabled:true}") boolean enabled,
+                           @Value("${ratelimit.login.per-ip:20:10}") String loginPerIp,
+                           @Value("${ratelimit.login.per-email:5:5}") String loginPerEmail,
+                           @Value("${ratelimit.otp-send.per-ip:10:5}") String otpSendPerIp,
+                           @Value("${ratelimit.otp-send.per-email:3:1}") String otpSendPerEmail,
+                           @Value("${ratelimit.otp-verify.per-ip:20:10}") String otpVerifyPerIp,
+                           @Value("${ratelimit.otp-verify.per-email:10:5}") String otpVerifyPerEmail,
+                           @Value("${ratelimit.otp-lockout.max-failures:5}") int maxOtpFailures,
+                           @Value("${ratelimit.otp-lockout.window-minutes:15}") long otpFailureWindowMinutes) {
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        perIp[Action.LOGIN.ordinal()] = Limit.parse(loginPerIp);
+        perEmail[Action.LOGIN.ordinal()] = Limit.parse(loginPerEmail);
+        perIp[Action.OTP_SEND.ordinal()] = Limit.parse(otpSendPerIp);
+        perEmail[Action.OTP_SEND.ordinal()] = Limit.parse(otpSendPerEmail);
+        perIp[Action.OTP_VERIFY.ordinal()] = Limit.parse(otpVerifyPerIp);
+        perEmail[Action.OTP_VERIFY.ordinal()] = Limit.parse(otpVerifyPerEmail);
+        this.maxOtpFailures = maxOtpFailures;
+        this.otpFailureWindow = Duration.ofMinutes(otpFailureWindowMinutes);
+    }
+
+    /**
+     * Takes a token for the client IP and, when given, the email. Returns null if the request may
+     * proceed. OTP verification is also refused while the email is locked out.
+     */
+    public Rejection check(Action action, String ip, String email) {
+        if (!enabled) {
+            return null;
+        }
+        String normalizedEmail = normalize(email);
+        if (action == Action.OTP_VERIFY && normalizedEmail != null
+                && store.failures(OTP_FAILURES, normalizedEmail, otpFailureWindow) >= maxOtpFailures) {
+            return reject(action, "lockout", otpFailureWindow.toSeconds(),
+                    "Too many incorrect codes. Please wait " + otpFailureWindow.toMinutes() + " minutes and request a new one.");
+        }
+        long wait = take(action, "ip", ip, perIp[action.ordinal()]);
+        if (wait > 0) {
+            return reject(action, "ip", TimeUnit.NANOSECONDS.toSeconds(wait) + 1, "Too many requests. Please try again later.");
+        }
+        wait = take(action, "email", normalizedEmail, perEmail[action.ordinal()]);
+        if (wait > 0) {
+            return reject(action, "email", TimeUnit.NANOSECONDS.toSeconds(wait) + 1, "Too many requests. Please try again later.");
+        }
+        return null;
+    }
+
+    public void recordOtpFailure(String email) {
+        String normalizedEmail = normalize(email);
+        if (enabled && normalizedEmail != null) {
+            store.recordFailure(OTP_FAILURES, normalizedEmail, otpFailureWindow);
+        }
+    }
+
+    public void recordOtpSuccess(String email) {
+        String normalizedEmail = normalize(email);
+        if (enabled && normalizedEmail != null) {
+            store.resetFailures(OTP_FAILURES, normalizedEmail);
+        }
+    }
+
+    private long take(Action action, String scope, String key, Limit limit) {
+        if (key == null) {
+            return 0;
+        }
+        return store.tryAcquire(action.key + "-" + scope, key, limit.burst(), limit.interval());
+    }
+
+    private Rejection reject(Action action, String reason, long retryAfterSeconds, String message) {
+        meterRegistry.counter("auth.ratelimit.rejected", "action", action.key, "reason", reason).increment();
+        return new Rejection(retryAfterSeconds, message);
+    }
+
+    private static String normalize(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** {@code burst:perMinute}, e.g. {@code 20:10} = up to 20 at once, then 10 per minute. */
+    record Limit(int burst, Duration interval) {
+
+        static Limit parse(String spec) {
+            String[] parts = spec.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Rate limit must be burst:perMinute, got " + spec);
+            }
+            int burst = Integer.parseInt(parts[0].trim());
+            int perMinute = Integer.parseInt(parts[1].trim());
+            if (burst < 1 || perMinute < 1) {
+                throw new IllegalArgumentException("Rate limit values must be positive, got " + spec);
+            }
+            return new Limit(burst, Duration.ofMinutes(1).dividedBy(perMinute));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.healthcare.ratelimit;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free, fixed-memory {@link RateLimitStore}. Each table is an {@link AtomicLongArray} of
+ * {@code stripes} slots and a key hashes (with a per-process random seed) to one slot, so memory does
+ * not grow with the number of distinct IPs or emails an attacker sends; the price is that two keys
+ * sharing a slot share a limit. Every update is a single CAS.
+ * <ul>
+ *     <li>Token buckets use GCRA: the slot holds the bucket's theoretical arrival time.</li>
+ *     <li>Failure windows pack {window number, owner tag, current count, previous count} into one long
+ *     and weight the previous window by how much of it still overlaps the sliding window. The owner tag
+ *     records which key the failures belong to, or that several keys share them; a reset only clears a
+ *     slot its key owns alone, so one user's success never wipes another user's failures.</li>
+ * </ul>
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final int MAX_COUNT = 0xFFFF;
+    private static final int NO_OWNER = 0;
+    private static final int SHARED = 0xFFFF;
+
+    private final int mask;
+    private final int seed = new SecureRandom().nextInt();
+    private final long origin = System.nanoTime();
+    private final Map<String, AtomicLongArray> tables = new ConcurrentHashMap<>();
+
+    public InMemoryRateLimitStore(int stripes) {
+        int size = Integer.highestOneBit(Math.max(stripes, 2) - 1) << 1;
+        this.mask = size - 1;
+    }
+
+    @Override
+    public long tryAcquire(String table, String key, int capacity, Duration interval) {
+        AtomicLongArray slots = table(table);
+        int slot = slot(key);
+        long now = now();
+        long emission = interval.toNanos();
+        long tolerance = emission * (Math.max(capacity, 1) - 1);
+        while (true) {
+            long arrival = slots.get(slot);
+            long start = Math.max(arrival, now);
+            long wait = start - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (slots.compareAndSet(slot, arrival, start + emission)) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public double failures(String table, String key, Duration window) {
+        long windowNanos = window.toNanos();
+        long now = now();
+        long packed = rolled(table(table).get(slot(key)), now / windowNanos);
+        double overlap = 1.0 - (double) (now % windowNanos) / windowNanos;
+        return previous(packed) * overlap + current(packed);
+    }
+
+    @Override
+    public void recordFailure(String table, String key, Duration window) {
+        AtomicLongArray slots = table(table);
+        int slot = slot(key);
+        long windowNumber = now() / window.toNanos();
+        int tag = tag(key);
+        while (true) {
+            long stored = slots.get(slot);
+            long packed = rolled(stored, windowNumber);
+            int owner = owner(packed) == NO_OWNER || owner(packed) == tag ? tag : SHARED;
+            long next = pack(windowNumber, owner, Math.min(current(packed) + 1, MAX_COUNT), previous(packed));
+            if (slots.compareAndSet(slot, stored, next)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void resetFailures(String table, String key) {
+        AtomicLongArray slots = table(table);
+        int slot = slot(key);
+        int tag = tag(key);
+        // A shared slot keeps its count: clearing it would also clear failures of the other keys
+        long stored;
+        do {
+            stored = slots.get(slot);
+        } while (owner(stored) == tag && !slots.compareAndSet(slot, stored, 0L));
+    }
+
+    private AtomicLongArray table(String name) {
+        return tables.computeIfAbsent(name, n -> new AtomicLongArray(mask + 1));
+    }
+
+    private int slot(String key) {
+        int h = key.hashCode() ^ seed;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h & mask;
+    }
+
+    // Second, independent hash of the key, kept clear of NO_OWNER and SHARED
+    private int tag(String key) {
+        int h = key.hashCode() * 0x9e3779b1 + seed;
+        h ^= h >>> 15;
+        h *= 0x2c1b3c6d;
+        h ^= h >>> 12;
+        return 1 + Math.floorMod(h, SHARED - 1);
+    }
+
+    // Never 0 for a live clock reading, so an empty slot always reads as "long ago"
+    private long now() {
+        return System.nanoTime() - origin + 1;
+    }
+
+    /** Shifts a packed failure window forward to {@code windowNumber}. */
+    private static long rolled(long packed, long windowNumber) {
+        long stored = packed >>> 48;
+        if (stored == (windowNumber & 0xFFFF)) {
+            return packed;
+        }
+        if (stored == ((windowNumber - 1) & 0xFFFF) && current(packed) > 0) {
+            return pack(windowNumber, owner(packed), 0, current(packed));
+        }
+        return pack(windowNumber, NO_OWNER, 0, 0);
+    }
+
+    // Window numbers only need to tell "this", "previous" and "older" apart, so 16 bits are enough
+    private static long pack(long windowNumber, int owner, int current, int previous) {
+        return ((windowNumber & 0xFFFF) << 48) | ((long) owner << 32) | ((long) current << 16) | previous;
+    }
+
+    private static int owner(long packed) {
+        return (int) ((packed >>> 32) & 0xFFFF);
+    }
+
+    private static int current(long packed) {
+        return (int) ((packed >>> 16) & MAX_COUNT);
+    }
+
+    private static int previous(long packed) {
+        return (int) (packed & MAX_COUNT);
+    }
+}
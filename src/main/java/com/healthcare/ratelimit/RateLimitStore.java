@@ -0,0 +1,25 @@
+package com.healthcare.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Backing store for {@link AuthRateLimiter}. The default {@link InMemoryRateLimitStore} is per node;
+ * a multi-node deployment supplies its own bean (for example over Redis, with the same semantics
+ * implemented as atomic scripts) and the in-memory one steps aside.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes one token from {@code key}'s bucket in {@code table}: at most {@code capacity} in a burst,
+     * one more every {@code interval}. Returns 0 when a token was taken, otherwise the nanoseconds
+     * until one will be available.
+     */
+    long tryAcquire(String table, String key, int capacity, Duration interval);
+
+    /** Failures recorded for {@code key} over the last {@code window}, as a sliding-window estimate. */
+    double failures(String table, String key, Duration window);
+
+    void recordFailure(String table, String key, Duration window);
+
+    void resetFailures(String table, String key);
+}
@@ -1,13 +1,59 @@
 package com.healthcare.repository;
 
+import com.healthcare.analytics.RowVersion;
+import com.healthcare.dto.AppointmentSummary;
 import com.healthcare.model.Appointment;
+import com.healthcare.scheduling.Booking;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long>, JpaSpecificationExecutor<Appointment> {
-    Page<Appointment> findByPatientId(Long patientId, Pageable pageable);
-    Page<Appointment> findByDoctorId(Long doctorId, Pageable pageable);
+    // Paged reads use the participants graph so a page costs one select (plus count and a roles batch) instead of N+1
+    @Override
+    @EntityGraph(value = "Appointment.participants", type = EntityGraph.EntityGraphType.LOAD)
+    Page<Appointment> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(value = "Appointment.participants", type = EntityGraph.EntityGraphType.LOAD)
+    Page<Appointment> findAll(Specification<Appointment> spec, Pageable pageable);
+
     long countByStatus(String status);
+
+    @Query("SELECT new com.healthcare.scheduling.Booking(a.doctor.id, a.date, a.time) FROM Appointment a "
+            + "WHERE a.date >= :from AND a.doctor IS NOT NULL AND a.time IS NOT NULL "
+            + "AND (a.status IS NULL OR LOWER(a.status) <> 'cancelled')")
+    List<Booking> findActiveBookingsFrom(@Param("from") LocalDate from);
+
+    // List views: one narrow select per page, no entity hydration
+    String SUMMARY_SELECT = "SELECT new com.healthcare.dto.AppointmentSummary(a.id, a.date, a.time, a.status, a.hospitalId, "
+            + "a.hospitalName, a.serviceId, a.serviceName, a.insurance, pa.id, pa.fullName, d.id, d.fullName, a.version) "
+            + "FROM Appointment a LEFT JOIN a.patient pa LEFT JOIN a.doctor d";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(a) FROM Appointment a")
+    Page<AppointmentSummary> findSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " WHERE pa.id = :patientId",
+            countQuery = "SELECT COUNT(a) FROM Appointment a WHERE a.patient.id = :patientId")
+    Page<AppointmentSummary> findSummariesByPatientId(@Param("patientId") Long patientId, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " WHERE d.id = :doctorId",
+            countQuery = "SELECT COUNT(a) FROM Appointment a WHERE a.doctor.id = :doctorId")
+    Page<AppointmentSummary> findSummariesByDoctorId(@Param("doctorId") Long doctorId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE a.id IN :ids")
+    List<AppointmentSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Analytics rebuild: versions of rows that changed while the rebuild was reading its snapshot
+    @Query("SELECT new com.healthcare.analytics.RowVersion(a.id, a.version) FROM Appointment a WHERE a.id IN :ids")
+    List<RowVersion> findVersionsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -1,7 +1,14 @@
 package com.healthcare.repository;
 
+import com.healthcare.location.LocationNode;
 import com.healthcare.model.Cell;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface CellRepository extends JpaRepository<Cell, Long> {
+
+    @Query("SELECT new com.healthcare.location.LocationNode(c.id, c.name, c.sector.id) FROM Cell c ORDER BY c.name, c.id")
+    List<LocationNode> findAllNodes();
 }
@@ -1,7 +1,14 @@
 package com.healthcare.repository;
 
+import com.healthcare.location.LocationNode;
 import com.healthcare.model.District;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface DistrictRepository extends JpaRepository<District, Long> {
+
+    @Query("SELECT new com.healthcare.location.LocationNode(d.id, d.name, d.province.id) FROM District d ORDER BY d.name, d.id")
+    List<LocationNode> findAllNodes();
 }
@@ -0,0 +1,31 @@
+package com.healthcare.repository;
+
+import com.healthcare.model.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    List<EmailOutbox> findTop100ByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(Collection<String> statuses,
+                                                                                   LocalDateTime now);
+    long countByStatus(String status);
+
+    // Housekeeping: finished messages past their retention, one bounded batch of ids at a time
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status = :status AND e.createdAt < :cutoff ORDER BY e.id")
+    List<Long> findIdsByStatusCreatedBefore(@Param("status") String status, @Param("cutoff") LocalDateTime cutoff,
+                                            Pageable pageable);
+
+    // Takes a due message for sending until :lease; matches nothing once another worker or node has claimed it
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = 'sending', e.nextAttemptAt = :lease "
+            + "WHERE e.id = :id AND e.status IN ('pending', 'sending') AND e.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("lease") LocalDateTime lease);
+}
@@ -0,0 +1,29 @@
+package com.healthcare.repository;
+
+import com.healthcare.model.IdempotencyRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+    Optional<IdempotencyRecord> findByOwnerAndScopeAndIdempotencyKey(String owner, String scope, String idempotencyKey);
+
+    // Takes over an expired key; matches nothing once another request has already moved the deadline
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.status = 'in_progress', r.fingerprint = :fingerprint, r.resourceId = NULL, "
+            + "r.createdAt = :now, r.expiresAt = :lease WHERE r.id = :id AND r.expiresAt <= :now")
+    int reclaim(@Param("id") Long id, @Param("fingerprint") String fingerprint,
+                @Param("now") LocalDateTime now, @Param("lease") LocalDateTime lease);
+
+    // Housekeeping: one bounded batch of ids at a time, deleted with deleteAllByIdInBatch
+    @Query("SELECT r.id FROM IdempotencyRecord r WHERE r.expiresAt < :cutoff ORDER BY r.id")
+    List<Long> findExpiredIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
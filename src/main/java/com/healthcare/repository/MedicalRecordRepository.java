@@ -1,12 +1,34 @@
 package com.healthcare.repository;
 
+import com.healthcare.dto.MedicalRecordSummary;
 import com.healthcare.model.MedicalRecord;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Long>, JpaSpecificationExecutor<MedicalRecord> {
-    Page<MedicalRecord> findByPatientId(Long patientId, Pageable pageable);
-    Page<MedicalRecord> findByDoctorId(Long doctorId, Pageable pageable);
+    // List views: one narrow select per page, no entity hydration
+    String SUMMARY_SELECT = "SELECT new com.healthcare.dto.MedicalRecordSummary(m.id, m.date, m.diagnosis, m.reviewed, "
+            + "pa.id, pa.fullName, d.id, d.fullName, m.version) "
+            + "FROM MedicalRecord m LEFT JOIN m.patient pa LEFT JOIN m.doctor d";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(m) FROM MedicalRecord m")
+    Page<MedicalRecordSummary> findSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " WHERE pa.id = :patientId",
+            countQuery = "SELECT COUNT(m) FROM MedicalRecord m WHERE m.patient.id = :patientId")
+    Page<MedicalRecordSummary> findSummariesByPatientId(@Param("patientId") Long patientId, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " WHERE d.id = :doctorId",
+            countQuery = "SELECT COUNT(m) FROM MedicalRecord m WHERE m.doctor.id = :doctorId")
+    Page<MedicalRecordSummary> findSummariesByDoctorId(@Param("doctorId") Long doctorId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE m.id IN :ids")
+    List<MedicalRecordSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 }
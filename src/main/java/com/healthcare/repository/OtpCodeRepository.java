@@ -0,0 +1,30 @@
+package com.healthcare.repository;
+
+import com.healthcare.model.OtpCode;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface OtpCodeRepository extends JpaRepository<OtpCode, Long> {
+    // Row lock so concurrent checks of the same code serialize (single use, exact attempt counts)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<OtpCode> findByOtpKey(String otpKey);
+
+    // Replaces the key's code in place; 0 when the key has no row yet
+    @Modifying
+    @Query("UPDATE OtpCode o SET o.codeHash = :codeHash, o.expiresAt = :expiresAt, o.attempts = 0 WHERE o.otpKey = :otpKey")
+    int replace(@Param("otpKey") String otpKey, @Param("codeHash") String codeHash,
+                @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Housekeeping: one bounded batch of ids at a time, deleted with deleteAllByIdInBatch
+    @Query("SELECT o.id FROM OtpCode o WHERE o.expiresAt <= :cutoff ORDER BY o.id")
+    List<Long> findExpiredIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
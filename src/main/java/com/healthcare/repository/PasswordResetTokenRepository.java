@@ -1,11 +1,28 @@
 package com.healthcare.repository;
 
 import com.healthcare.model.PasswordResetToken;
+import com.healthcare.model.Person;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
 
-    Optional<PasswordResetToken> findByToken(String token);
+    Optional<PasswordResetToken> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PasswordResetToken t WHERE t.person = :person")
+    int deleteByPerson(@Param("person") Person person);
+
+    // Housekeeping: one bounded batch of ids at a time, deleted with deleteAllByIdInBatch
+    @Query("SELECT t.id FROM PasswordResetToken t WHERE t.expiryDate < :cutoff ORDER BY t.id")
+    List<Long> findExpiredIds(@Param("cutoff") Date cutoff, Pageable pageable);
 }
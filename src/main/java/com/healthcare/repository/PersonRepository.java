@@ -1,13 +1,17 @@
 package com.healthcare.repository;
 
+import com.healthcare.dto.PersonSummary;
 import com.healthcare.model.Person;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PersonRepository extends JpaRepository<Person, Long>, JpaSpecificationExecutor<Person> {
@@ -17,7 +21,35 @@ public interface PersonRepository extends JpaRepository<Person, Long>, JpaSpecif
     @Query("SELECT p FROM Person p WHERE LOWER(p.email) = LOWER(:email)")
     Optional<Person> findByEmailIgnoreCase(@Param("email") String email);
     
+    @Query("SELECT COALESCE(p.securityVersion, 0) FROM Person p WHERE LOWER(p.email) = LOWER(:email)")
+    Optional<Long> findSecurityVersionByEmail(@Param("email") String email);
+
+    // Login rehash only: skips entity events and the version bump, the password itself is unchanged
+    @Modifying
+    @Query("UPDATE Person p SET p.password = :password WHERE p.email = :email")
+    int updatePasswordHash(@Param("email") String email, @Param("password") String password);
+
+    @Query("SELECT LOWER(p.email) FROM Person p")
+    List<String> findAllEmailsLowercase();
+
+    @Query("SELECT p.id FROM Person p JOIN p.roles r WHERE r.name = 'DOCTOR' AND p.hospitalId = :hospitalId ORDER BY p.id")
+    List<Long> findDoctorIdsByHospitalId(@Param("hospitalId") String hospitalId);
+
     boolean existsByEmail(String email);
     long countByRoles_Name(String roleName);
     Page<Person> findByRoles_Name(String roleName, Pageable pageable);
+
+    // List views: one narrow select per page, no password, MFA secret or role/location graph
+    String SUMMARY_SELECT = "SELECT new com.healthcare.dto.PersonSummary(p.id, p.fullName, p.email, p.phone, p.age, "
+            + "p.gender, p.insurance, p.specialty, p.hospitalId, v.id, v.name) FROM Person p LEFT JOIN p.village v";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(p) FROM Person p")
+    Page<PersonSummary> findSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " JOIN p.roles r WHERE r.name = :roleName",
+            countQuery = "SELECT COUNT(p) FROM Person p JOIN p.roles r WHERE r.name = :roleName")
+    Page<PersonSummary> findSummariesByRole(@Param("roleName") String roleName, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE p.id IN :ids")
+    List<PersonSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 }
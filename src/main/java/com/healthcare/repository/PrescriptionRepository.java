@@ -1,12 +1,50 @@
 package com.healthcare.repository;
 
+import com.healthcare.analytics.RowVersion;
+import com.healthcare.dto.PrescriptionSummary;
 import com.healthcare.model.Prescription;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface PrescriptionRepository extends JpaRepository<Prescription, Long>, JpaSpecificationExecutor<Prescription> {
-    Page<Prescription> findByPatientId(Long patientId, Pageable pageable);
-    Page<Prescription> findByDoctorId(Long doctorId, Pageable pageable);
+    // Paged reads use the participants graph so a page costs one select (plus count and a roles batch) instead of N+1
+    @Override
+    @EntityGraph(value = "Prescription.participants", type = EntityGraph.EntityGraphType.LOAD)
+    Page<Prescription> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(value = "Prescription.participants", type = EntityGraph.EntityGraphType.LOAD)
+    Page<Prescription> findAll(Specification<Prescription> spec, Pageable pageable);
+
+    // List views: one narrow select per page, no entity hydration
+    String SUMMARY_SELECT = "SELECT new com.healthcare.dto.PrescriptionSummary(p.id, p.medication, p.dosage, p.frequency, "
+            + "p.durationDays, p.dateIssued, p.status, pa.id, pa.fullName, d.id, d.fullName, p.version) "
+            + "FROM Prescription p LEFT JOIN p.patient pa LEFT JOIN p.doctor d";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(p) FROM Prescription p")
+    Page<PrescriptionSummary> findSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " WHERE pa.id = :patientId",
+            countQuery = "SELECT COUNT(p) FROM Prescription p WHERE p.patient.id = :patientId")
+    Page<PrescriptionSummary> findSummariesByPatientId(@Param("patientId") Long patientId, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " WHERE d.id = :doctorId",
+            countQuery = "SELECT COUNT(p) FROM Prescription p WHERE p.doctor.id = :doctorId")
+    Page<PrescriptionSummary> findSummariesByDoctorId(@Param("doctorId") Long doctorId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE p.id IN :ids")
+    List<PrescriptionSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Analytics rebuild: versions of rows that changed while the rebuild was reading its snapshot
+    @Query("SELECT new com.healthcare.analytics.RowVersion(p.id, p.version) FROM Prescription p WHERE p.id IN :ids")
+    List<RowVersion> findVersionsByIdIn(@Param("ids") Collection<Long> ids);
 }
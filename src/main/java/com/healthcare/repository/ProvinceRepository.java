@@ -1,7 +1,14 @@
 package com.healthcare.repository;
 
+import com.healthcare.location.LocationNode;
 import com.healthcare.model.Province;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface ProvinceRepository extends JpaRepository<Province, Long> {
+
+    @Query("SELECT new com.healthcare.location.LocationNode(p.id, p.name) FROM Province p ORDER BY p.name, p.id")
+    List<LocationNode> findAllNodes();
 }
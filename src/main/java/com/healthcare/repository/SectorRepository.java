@@ -1,7 +1,14 @@
 package com.healthcare.repository;
 
+import com.healthcare.location.LocationNode;
 import com.healthcare.model.Sector;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface SectorRepository extends JpaRepository<Sector, Long> {
+
+    @Query("SELECT new com.healthcare.location.LocationNode(s.id, s.name, s.district.id) FROM Sector s ORDER BY s.name, s.id")
+    List<LocationNode> findAllNodes();
 }
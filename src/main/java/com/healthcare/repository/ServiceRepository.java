@@ -1,7 +1,17 @@
 package com.healthcare.repository;
 
 import com.healthcare.model.Service;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface ServiceRepository extends JpaRepository<Service, Long> {
+    // Booking form list: served from the query cache until a service is written
+    @Override
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "query.reference")})
+    List<Service> findAll();
 }
@@ -1,7 +1,14 @@
 package com.healthcare.repository;
 
+import com.healthcare.location.LocationNode;
 import com.healthcare.model.Village;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface VillageRepository extends JpaRepository<Village, Long> {
+
+    @Query("SELECT new com.healthcare.location.LocationNode(v.id, v.name, v.cell.id) FROM Village v ORDER BY v.name, v.id")
+    List<LocationNode> findAllNodes();
 }
@@ -0,0 +1,79 @@
+package com.healthcare.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Marks GET/HEAD requests replica-eligible unless the same client (authenticated user, else remote
+ * address) sent a write within {@code datasource.replica.read-your-writes-ms}; those reads stay on the
+ * primary so a client always sees its own POST/PUT/DELETE despite replication lag. Runs after the
+ * security filter chain so the principal is known.
+ */
+@Component
+@ConditionalOnExpression("'${datasource.replica.urls:}' != ''")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final long windowMs;
+    private final Map<String, Long> lastWriteAt = new ConcurrentHashMap<>();
+
+    public ReadYourWritesFilter(@Value("${datasource.replica.read-your-writes-ms:5000}") long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = clientOf(request);
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            // Marked before and after: a read racing the tail of this write must not hit a replica either
+            lastWriteAt.put(client, System.currentTimeMillis());
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                lastWriteAt.put(client, System.currentTimeMillis());
+            }
+            return;
+        }
+        Long lastWrite = lastWriteAt.get(client);
+        if (lastWrite != null && System.currentTimeMillis() - lastWrite < windowMs) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ReplicaRoute.allowReplica();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoute.clear();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.read-your-writes-ms:5000}")
+    public void forgetExpiredWrites() {
+        long cutoff = System.currentTimeMillis() - windowMs;
+        lastWriteAt.values().removeIf(at -> at < cutoff);
+    }
+
+    private static String clientOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
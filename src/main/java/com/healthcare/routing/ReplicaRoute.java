@@ -0,0 +1,45 @@
+package com.healthcare.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread permission for read-only transactions to run on a replica. Nothing is replica-eligible
+ * unless marked: {@link ReadYourWritesFilter} marks GET requests from clients with no recent write, so
+ * background jobs (outbox worker, imports, purges, rebuilds) and everything inside a write request keep
+ * reading the primary.
+ */
+public final class ReplicaRoute {
+
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+    private ReplicaRoute() {
+    }
+
+    public static boolean isReplicaAllowed() {
+        return Boolean.TRUE.equals(REPLICA_ALLOWED.get());
+    }
+
+    static void allowReplica() {
+        REPLICA_ALLOWED.set(Boolean.TRUE);
+    }
+
+    static void clear() {
+        REPLICA_ALLOWED.remove();
+    }
+
+    /** Carries the calling thread's permission over to a task handed to another executor. */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        boolean allowed = isReplicaAllowed();
+        if (!allowed) {
+            return task;
+        }
+        return () -> {
+            allowReplica();
+            try {
+                return task.get();
+            } finally {
+                clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.healthcare.scheduling;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/** The doctor time an appointment holds. */
+public record Booking(Long doctorId, LocalDate date, LocalTime time) {
+}
@@ -0,0 +1,53 @@
+package com.healthcare.scheduling;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Busy slots of one calendar (a doctor) on one day, one bit per slot. Reservation is a lock-free
+ * compare-and-set on the slot's word, so of two concurrent bookings for the same slot exactly one wins.
+ */
+final class DayBitmap {
+
+    private final AtomicLongArray words;
+
+    DayBitmap(int slots) {
+        this.words = new AtomicLongArray((slots + 63) >>> 6);
+    }
+
+    boolean tryReserve(int slot) {
+        int index = slot >>> 6;
+        long bit = 1L << (slot & 63);
+        while (true) {
+            long current = words.get(index);
+            if ((current & bit) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(index, current, current | bit)) {
+                return true;
+            }
+        }
+    }
+
+    void release(int slot) {
+        int index = slot >>> 6;
+        long bit = 1L << (slot & 63);
+        while (true) {
+            long current = words.get(index);
+            if ((current & bit) == 0 || words.compareAndSet(index, current, current & ~bit)) {
+                return;
+            }
+        }
+    }
+
+    boolean isBusy(int slot) {
+        return (words.get(slot >>> 6) & (1L << (slot & 63))) != 0;
+    }
+
+    int wordCount() {
+        return words.length();
+    }
+
+    long word(int index) {
+        return words.get(index);
+    }
+}
@@ -0,0 +1,237 @@
+package com.healthcare.scheduling;
+
+import com.healthcare.event.EntityChangeListener;
+import com.healthcare.event.EntityUpdate;
+import com.healthcare.model.Appointment;
+import com.healthcare.model.Person;
+import com.healthcare.repository.AppointmentRepository;
+import com.healthcare.repository.PersonRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * In-memory doctor availability: one {@link DayBitmap} per doctor per day from today on. Appointment
+ * writes reserve their slot here before touching the database, so a double booking is rejected without
+ * a query and without locks. A hospital slot is free when at least one of its doctors is free.
+ * <p>
+ * The bitmaps are loaded from upcoming appointments at startup and cover bookings made through this
+ * instance only; running several instances needs a shared store or a database constraint instead.
+ */
+@Service
+public class SchedulingEngine implements EntityChangeListener {
+
+    /** A free slot; {@code doctorId} is a doctor free at that time. */
+    public record Slot(LocalDate date, LocalTime time, Long doctorId) {
+    }
+
+    private static final Logger logger = Logger.getLogger(SchedulingEngine.class.getName());
+
+    private final AppointmentRepository appointmentRepository;
+    private final PersonRepository personRepository;
+    private final SlotGrid grid;
+    private final int horizonDays;
+    private final Map<Long, Map<LocalDate, DayBitmap>> calendars = new ConcurrentHashMap<>();
+    private final Map<String, List<Long>> rosters = new ConcurrentHashMap<>();
+
+    public SchedulingEngine(AppointmentRepository appointmentRepository, PersonRepository personRepository,
+                            @Value("${scheduling.slot-minutes:30}") int slotMinutes,
+                            @Value("${scheduling.open-at:08:00}") String openAt,
+                            @Value("${scheduling.close-at:17:00}") String closeAt,
+                            @Value("${scheduling.horizon-days:60}") int horizonDays) {
+        this.appointmentRepository = appointmentRepository;
+        this.personRepository = personRepository;
+        this.grid = new SlotGrid(slotMinutes, LocalTime.parse(openAt), LocalTime.parse(closeAt));
+        this.horizonDays = horizonDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        int loaded = 0;
+        int overlapping = 0;
+        for (Booking booking : appointmentRepository.findActiveBookingsFrom(LocalDate.now())) {
+            if (day(booking.doctorId(), booking.date()).tryReserve(grid.slotOf(booking.time()))) {
+                loaded++;
+            } else {
+                overlapping++;
+            }
+        }
+        logger.info("Scheduling engine loaded " + loaded + " upcoming bookings in "
+                + (System.currentTimeMillis() - start) + " ms"
+                + (overlapping > 0 ? " (" + overlapping + " already double-booked)" : ""));
+    }
+
+    /** The booking an appointment holds, or null if it holds none (no doctor or time, cancelled, or in the past). */
+    public Booking bookingOf(Appointment appointment) {
+        if (appointment == null || appointment.getDoctor() == null || appointment.getDoctor().getId() == null
+                || appointment.getDate() == null || appointment.getTime() == null
+                || "cancelled".equalsIgnoreCase(appointment.getStatus())
+                || appointment.getDate().isBefore(LocalDate.now())) {
+            return null;
+        }
+        return new Booking(appointment.getDoctor().getId(), appointment.getDate(), appointment.getTime());
+    }
+
+    public boolean sameSlot(Booking a, Booking b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.doctorId().equals(b.doctorId()) && a.date().equals(b.date())
+                && grid.slotOf(a.time()) == grid.slotOf(b.time());
+    }
+
+    /**
+     * Atomically claims the booking's slot.
+     *
+     * @throws SlotConflictException if the doctor already has an appointment in that slot
+     */
+    public void reserve(Booking booking) {
+        if (booking == null) {
+            return;
+        }
+        int slot = grid.slotOf(booking.time());
+        if (!day(booking.doctorId(), booking.date()).tryReserve(slot)) {
+            throw new SlotConflictException("Doctor " + booking.doctorId() + " is already booked on "
+                    + booking.date() + " at " + grid.startOf(slot));
+        }
+    }
+
+    public void release(Booking booking) {
+        if (booking == null) {
+            return;
+        }
+        Map<LocalDate, DayBitmap> days = calendars.get(booking.doctorId());
+        DayBitmap day = days != null ? days.get(booking.date()) : null;
+        if (day != null) {
+            day.release(grid.slotOf(booking.time()));
+        }
+    }
+
+    public boolean isFree(Long doctorId, LocalDate date, LocalTime time) {
+        Map<LocalDate, DayBitmap> days = calendars.get(doctorId);
+        DayBitmap day = days != null ? days.get(date) : null;
+        return day == null || !day.isBusy(grid.slotOf(time));
+    }
+
+    /** The first {@code count} bookable slots of one doctor at or after {@code from}, within the horizon. */
+    public List<Slot> nextFreeSlots(Long doctorId, LocalDateTime from, int count) {
+        return nextFree(List.of(doctorId), from, count);
+    }
+
+    /** The first {@code count} slots at or after {@code from} in which some doctor of the hospital is free. */
+    public List<Slot> nextFreeHospitalSlots(String hospitalId, LocalDateTime from, int count) {
+        List<Long> roster = rosters.computeIfAbsent(hospitalId, personRepository::findDoctorIdsByHospitalId);
+        return roster.isEmpty() ? List.of() : nextFree(roster, from, count);
+    }
+
+    public SlotGrid getGrid() {
+        return grid;
+    }
+
+    private List<Slot> nextFree(List<Long> doctorIds, LocalDateTime from, int count) {
+        List<Slot> result = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.now();
+        if (from.isBefore(now)) {
+            from = now;
+        }
+        LocalDate date = from.toLocalDate();
+        LocalDate last = now.toLocalDate().plusDays(horizonDays);
+        int firstSlot = firstSlotAtOrAfter(from.toLocalTime());
+        DayBitmap[] days = new DayBitmap[doctorIds.size()];
+        for (; !date.isAfter(last) && result.size() < count; date = date.plusDays(1), firstSlot = 0) {
+            for (int i = 0; i < days.length; i++) {
+                Map<LocalDate, DayBitmap> calendar = calendars.get(doctorIds.get(i));
+                days[i] = calendar != null ? calendar.get(date) : null;
+            }
+            int start = Math.max(firstSlot, grid.getFirstBookable());
+            int end = grid.getEndBookable();
+            for (int word = start >>> 6; word <= (end - 1) >>> 6 && result.size() < count; word++) {
+                // Bits set where every doctor is busy; a hospital slot is free unless all of them are
+                long allBusy = -1L;
+                for (DayBitmap day : days) {
+                    allBusy &= day != null ? day.word(word) : 0L;
+                }
+                long free = ~allBusy & rangeMask(word, start, end);
+                while (free != 0 && result.size() < count) {
+                    int slot = (word << 6) + Long.numberOfTrailingZeros(free);
+                    free &= free - 1;
+                    result.add(new Slot(date, grid.startOf(slot), firstFreeDoctor(doctorIds, days, slot)));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Long firstFreeDoctor(List<Long> doctorIds, DayBitmap[] days, int slot) {
+        for (int i = 0; i < days.length; i++) {
+            if (days[i] == null || !days[i].isBusy(slot)) {
+                return doctorIds.get(i);
+            }
+        }
+        return null;
+    }
+
+    /** Bits of word {@code word} that fall in the slot range [start, end). */
+    private static long rangeMask(int word, int start, int end) {
+        int base = word << 6;
+        long mask = -1L;
+        if (start > base) {
+            mask &= -1L << (start - base);
+        }
+        if (end < base + 64) {
+            mask &= (1L << (end - base)) - 1;
+        }
+        return mask;
+    }
+
+    private int firstSlotAtOrAfter(LocalTime time) {
+        int slot = grid.slotOf(time);
+        return grid.startOf(slot).equals(time) ? slot : slot + 1;
+    }
+
+    private DayBitmap day(Long doctorId, LocalDate date) {
+        return calendars.computeIfAbsent(doctorId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(date, d -> new DayBitmap(grid.getSlotsPerDay()));
+    }
+
+    /** Drops bitmaps for days that have passed. */
+    @Scheduled(cron = "${scheduling.purge-cron:0 10 0 * * *}")
+    public void purgePastDays() {
+        LocalDate today = LocalDate.now();
+        calendars.values().forEach(days -> days.keySet().removeIf(date -> date.isBefore(today)));
+        calendars.values().removeIf(Map::isEmpty);
+    }
+
+    @Override
+    public void onInsert(Object entity) {
+        invalidateRosters(entity);
+    }
+
+    @Override
+    public void onUpdate(Object entity, EntityUpdate update) {
+        invalidateRosters(entity);
+    }
+
+    @Override
+    public void onDelete(Object entity) {
+        invalidateRosters(entity);
+    }
+
+    private void invalidateRosters(Object entity) {
+        if (entity instanceof Person) {
+            rosters.clear();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.healthcare.scheduling;
+
+public class SlotConflictException extends RuntimeException {
+
+    public SlotConflictException(String message) {
+        super(message);
+    }
+}
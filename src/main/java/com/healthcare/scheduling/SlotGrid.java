@@ -0,0 +1,51 @@
+package com.healthcare.scheduling;
+
+import java.time.LocalTime;
+
+/**
+ * Splits a day into fixed-length slots numbered from midnight. Bookable hours are a contiguous range
+ * of slots; appointments outside it are still tracked so they can conflict with each other.
+ */
+public final class SlotGrid {
+
+    private final int slotMinutes;
+    private final int slotsPerDay;
+    private final int firstBookable;
+    private final int endBookable;
+
+    public SlotGrid(int slotMinutes, LocalTime openAt, LocalTime closeAt) {
+        if (slotMinutes <= 0 || 1440 % slotMinutes != 0) {
+            throw new IllegalArgumentException("Slot length must divide a day evenly: " + slotMinutes);
+        }
+        this.slotMinutes = slotMinutes;
+        this.slotsPerDay = 1440 / slotMinutes;
+        this.firstBookable = slotOf(openAt);
+        this.endBookable = closeAt.equals(LocalTime.MIDNIGHT) ? slotsPerDay
+                : (closeAt.toSecondOfDay() / 60 + slotMinutes - 1) / slotMinutes;
+    }
+
+    public int slotOf(LocalTime time) {
+        return time.toSecondOfDay() / 60 / slotMinutes;
+    }
+
+    public LocalTime startOf(int slot) {
+        return LocalTime.MIDNIGHT.plusMinutes((long) slot * slotMinutes);
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public int getSlotsPerDay() {
+        return slotsPerDay;
+    }
+
+    public int getFirstBookable() {
+        return firstBookable;
+    }
+
+    /** Exclusive. */
+    public int getEndBookable() {
+        return endBookable;
+    }
+}
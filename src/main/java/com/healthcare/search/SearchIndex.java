@@ -0,0 +1,283 @@
+package com.healthcare.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * In-memory inverted index for one entity type. Every token of a document is posted under three
+ * kinds of keys: the exact token, its leading prefixes (up to {@link #MAX_PREFIX} characters) and its
+ * trigrams. Queries rank exact matches above prefix matches above infix (trigram) matches, and all
+ * query tokens must match. Only ids and tokens are kept; entities are loaded per page by the caller.
+ */
+public class SearchIndex {
+
+    static final int MAX_PREFIX = 10;
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int INFIX_SCORE = 1;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, String[]> documents = new ConcurrentHashMap<>();
+
+    private static final Comparator<Map.Entry<Long, Integer>> RANK = Map.Entry.<Long, Integer>comparingByValue().reversed()
+            .thenComparing(Map.Entry.<Long, Integer>comparingByKey(Comparator.reverseOrder()));
+
+    public record Hits(List<Long> ids, long total) {
+    }
+
+    /** Rank position of the last hit returned; the next page continues strictly below it. */
+    public record Cursor(int score, long id) {
+    }
+
+    public record CursorHits(List<Long> ids, Cursor next, long total, boolean totalExact) {
+    }
+
+    private record Scores(Map<Long, Integer> byId, boolean truncated) {
+    }
+
+    public synchronized void index(Long id, String... fields) {
+        if (id == null) {
+            return;
+        }
+        removeInternal(id);
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String field : fields) {
+            tokens.addAll(tokenize(field));
+        }
+        if (tokens.isEmpty()) {
+            return;
+        }
+        String[] docTokens = tokens.toArray(new String[0]);
+        documents.put(id, docTokens);
+        for (String key : keysFor(docTokens)) {
+            postings.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        if (id != null) {
+            removeInternal(id);
+        }
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        documents.clear();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Offset variant for the paged search endpoint. Scores at most {@code maxCandidates} matches, like
+     * the cursor variant, so a broad term cannot build a score map the size of the index.
+     */
+    public Hits query(String term, int offset, int limit, int maxCandidates) {
+        Scores scores = score(term, maxCandidates);
+        int from = Math.max(offset, 0);
+        List<Map.Entry<Long, Integer>> top = top(scores.byId(), null, (int) Math.min((long) from + Math.max(limit, 0), Integer.MAX_VALUE));
+        List<Long> ids = new ArrayList<>();
+        for (int i = from; i < top.size(); i++) {
+            ids.add(top.get(i).getKey());
+        }
+        return new Hits(ids, scores.byId().size());
+    }
+
+    /**
+     * Cursor variant: returns at most {@code limit} hits ranked strictly after {@code after} (null for
+     * the first page). At most {@code maxCandidates} matches are scored, lowest-ranked kinds dropped
+     * first, so memory stays bounded for very broad terms; the total is then a lower bound.
+     */
+    public CursorHits query(String term, Cursor after, int limit, int maxCandidates) {
+        Scores scores = score(term, maxCandidates);
+        List<Map.Entry<Long, Integer>> top = top(scores.byId(), after, limit + 1);
+        boolean more = top.size() > limit;
+        if (more) {
+            top = top.subList(0, limit);
+        }
+        List<Long> ids = new ArrayList<>(top.size());
+        for (Map.Entry<Long, Integer> entry : top) {
+            ids.add(entry.getKey());
+        }
+        Cursor next = null;
+        if (more && !top.isEmpty()) {
+            Map.Entry<Long, Integer> last = top.get(top.size() - 1);
+            next = new Cursor(last.getValue(), last.getKey());
+        }
+        return new CursorHits(ids, next, scores.byId().size(), !scores.truncated());
+    }
+
+    private Scores score(String term, int maxCandidates) {
+        List<String> queryTokens = tokenize(term);
+        if (queryTokens.isEmpty()) {
+            return new Scores(Map.of(), false);
+        }
+
+        Map<Long, Integer> scores = null;
+        boolean truncated = false;
+        for (String q : queryTokens) {
+            Map<Long, Integer> tokenScores = new HashMap<>();
+            truncated |= matchToken(q, tokenScores, maxCandidates);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                Map<Long, Integer> combined = new HashMap<>();
+                for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                    Integer s = tokenScores.get(entry.getKey());
+                    if (s != null) {
+                        combined.put(entry.getKey(), entry.getValue() + s);
+                    }
+                }
+                scores = combined;
+            }
+            if (scores.isEmpty()) {
+                return new Scores(Map.of(), truncated);
+            }
+        }
+        return new Scores(scores, truncated);
+    }
+
+    // Bounded top-k selection: O(n log k) time, O(k) extra memory instead of sorting every match
+    private static List<Map.Entry<Long, Integer>> top(Map<Long, Integer> scores, Cursor after, int k) {
+        if (k <= 0 || scores.isEmpty()) {
+            return List.of();
+        }
+        PriorityQueue<Map.Entry<Long, Integer>> heap = new PriorityQueue<>(Math.min(k, 1024) + 1, RANK.reversed());
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            if (after != null && !isAfter(entry, after)) {
+                continue;
+            }
+            heap.offer(entry);
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+        List<Map.Entry<Long, Integer>> result = new ArrayList<>(heap);
+        result.sort(RANK);
+        return result;
+    }
+
+    private static boolean isAfter(Map.Entry<Long, Integer> entry, Cursor cursor) {
+        int score = entry.getValue();
+        return score < cursor.score() || (score == cursor.score() && entry.getKey() < cursor.id());
+    }
+
+    // Adds matches best-kind first (exact, prefix, infix); returns true if maxCandidates cut it short
+    private boolean matchToken(String q, Map<Long, Integer> scores, int maxCandidates) {
+        for (Long id : postings.getOrDefault("=" + q, Collections.emptySet())) {
+            if (scores.size() >= maxCandidates) {
+                return true;
+            }
+            scores.put(id, EXACT_SCORE);
+        }
+
+        String prefixKey = "^" + (q.length() <= MAX_PREFIX ? q : q.substring(0, MAX_PREFIX));
+        for (Long id : postings.getOrDefault(prefixKey, Collections.emptySet())) {
+            if (scores.containsKey(id) || (q.length() > MAX_PREFIX && !anyToken(id, t -> t.startsWith(q)))) {
+                continue;
+            }
+            if (scores.size() >= maxCandidates) {
+                return true;
+            }
+            scores.put(id, PREFIX_SCORE);
+        }
+
+        if (q.length() >= 3) {
+            for (Long id : trigramCandidates(q)) {
+                if (scores.containsKey(id) || !anyToken(id, t -> t.contains(q))) {
+                    continue;
+                }
+                if (scores.size() >= maxCandidates) {
+                    return true;
+                }
+                scores.put(id, INFIX_SCORE);
+            }
+        }
+        return false;
+    }
+
+    // Intersects trigram postings starting from the rarest one; callers verify the substring match
+    private Set<Long> trigramCandidates(String q) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            Set<Long> list = postings.get("~" + q.substring(i, i + 3));
+            if (list == null) {
+                return Collections.emptySet();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new LinkedHashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private boolean anyToken(Long id, Predicate<String> predicate) {
+        String[] tokens = documents.get(id);
+        if (tokens == null) {
+            return false;
+        }
+        for (String token : tokens) {
+            if (predicate.test(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removeInternal(Long id) {
+        String[] tokens = documents.remove(id);
+        if (tokens == null) {
+            return;
+        }
+        for (String key : keysFor(tokens)) {
+            Set<Long> ids = postings.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+
+    private static Set<String> keysFor(String[] tokens) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String token : tokens) {
+            keys.add("=" + token);
+            for (int len = 1; len <= Math.min(token.length(), MAX_PREFIX); len++) {
+                keys.add("^" + token.substring(0, len));
+            }
+            for (int i = 0; i + 3 <= token.length(); i++) {
+                keys.add("~" + token.substring(i, i + 3));
+            }
+        }
+        return keys;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
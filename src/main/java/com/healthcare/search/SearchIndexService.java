@@ -0,0 +1,284 @@
+package com.healthcare.search;
+
+import com.healthcare.event.EntityChangeListener;
+import com.healthcare.event.EntityUpdate;
+import com.healthcare.model.Appointment;
+import com.healthcare.model.MedicalRecord;
+import com.healthcare.model.Person;
+import com.healthcare.model.Prescription;
+import com.healthcare.repository.AppointmentRepository;
+import com.healthcare.repository.MedicalRecordRepository;
+import com.healthcare.repository.PersonRepository;
+import com.healthcare.repository.PrescriptionRepository;
+import com.healthcare.dto.AppointmentSummary;
+import com.healthcare.dto.MedicalRecordSummary;
+import com.healthcare.dto.PrescriptionSummary;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Owns one {@link SearchIndex} per searchable entity type. The indexes are built once in the
+ * background after startup and then kept current from committed inserts, updates and deletes
+ * delivered by {@link com.healthcare.event.EntityEventDispatcher}.
+ * <p>
+ * The rebuild pages through the tables while those changes keep arriving, so a page read before a
+ * commit can put an old document back or revive a deleted id. Changes are therefore also buffered
+ * while the rebuild runs and replayed, in order, once it has read everything.
+ * <p>
+ * Appointment, medical record and prescription documents carry the participants' names, so renaming
+ * a person reindexes every document that names them.
+ */
+@Service
+public class SearchIndexService implements EntityChangeListener {
+
+    public enum Type {
+        PERSONS("persons"), APPOINTMENTS("appointments"),
+        MEDICAL_RECORDS("medical-records"), PRESCRIPTIONS("prescriptions");
+
+        private final String key;
+
+        Type(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public static Type fromKey(String key) {
+            for (Type type : values()) {
+                if (type.key.equalsIgnoreCase(key)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final Logger logger = Logger.getLogger(SearchIndexService.class.getName());
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final PersonRepository personRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final MedicalRecordRepository medicalRecordRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final Map<Type, SearchIndex> indexes = new EnumMap<>(Type.class);
+    private volatile boolean ready = false;
+    // Live changes hold the read lock; the rebuild's replay holds the write lock
+    private final ReadWriteLock replayLock = new ReentrantReadWriteLock();
+    // Non-null while a rebuild is reading the tables
+    private volatile Queue<Runnable> pending;
+
+    public SearchIndexService(PersonRepository personRepository, AppointmentRepository appointmentRepository,
+                              MedicalRecordRepository medicalRecordRepository,
+                              PrescriptionRepository prescriptionRepository) {
+        this.personRepository = personRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.medicalRecordRepository = medicalRecordRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        for (Type type : Type.values()) {
+            indexes.put(type, new SearchIndex());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public SearchIndex.Hits query(Type type, String term, int offset, int limit, int maxCandidates) {
+        return indexes.get(type).query(term, offset, limit, maxCandidates);
+    }
+
+    public SearchIndex.CursorHits query(Type type, String term, SearchIndex.Cursor after, int limit, int maxCandidates) {
+        return indexes.get(type).query(term, after, limit, maxCandidates);
+    }
+
+    @Override
+    public void onInsert(Object entity) {
+        apply(() -> onSaved(entity));
+    }
+
+    @Override
+    public void onUpdate(Object entity, EntityUpdate update) {
+        apply(() -> onSaved(entity));
+        if (entity instanceof Person p && !Objects.equals(p.getFullName(), update.previous("fullName"))) {
+            apply(() -> reindexParticipant(p.getId()));
+        }
+    }
+
+    @Override
+    public void onDelete(Object entity) {
+        apply(() -> onRemoved(entity));
+    }
+
+    public void onSaved(Object entity) {
+        if (entity instanceof Person p) {
+            indexes.get(Type.PERSONS).index(p.getId(), p.getFullName(), p.getEmail(), p.getPhone());
+        } else if (entity instanceof Appointment a) {
+            indexAppointment(a.getId(), a.getStatus(), a.getHospitalName(), a.getServiceName(),
+                    nameOf(a.getPatient()), nameOf(a.getDoctor()));
+        } else if (entity instanceof MedicalRecord m) {
+            indexMedicalRecord(m.getId(), m.getDiagnosis(), nameOf(m.getPatient()), nameOf(m.getDoctor()));
+        } else if (entity instanceof Prescription p) {
+            indexPrescription(p.getId(), p.getMedication(), p.getStatus(),
+                    nameOf(p.getPatient()), nameOf(p.getDoctor()));
+        }
+    }
+
+    public void onRemoved(Object entity) {
+        if (entity instanceof Person p) {
+            indexes.get(Type.PERSONS).remove(p.getId());
+        } else if (entity instanceof Appointment a) {
+            indexes.get(Type.APPOINTMENTS).remove(a.getId());
+        } else if (entity instanceof MedicalRecord m) {
+            indexes.get(Type.MEDICAL_RECORDS).remove(m.getId());
+        } else if (entity instanceof Prescription p) {
+            indexes.get(Type.PRESCRIPTIONS).remove(p.getId());
+        }
+    }
+
+    /**
+     * Re-reads the documents that name a person as patient or doctor. The summary projections carry
+     * every indexed field, so this is one narrow select per page and no entity hydration.
+     */
+    void reindexParticipant(Long personId) {
+        for (AppointmentSummary a : each(pageable -> appointmentRepository.findSummariesByPatientId(personId, pageable),
+                pageable -> appointmentRepository.findSummariesByDoctorId(personId, pageable))) {
+            indexAppointment(a.id(), a.status(), a.hospitalName(), a.serviceName(), a.patientName(), a.doctorName());
+        }
+        for (MedicalRecordSummary m : each(pageable -> medicalRecordRepository.findSummariesByPatientId(personId, pageable),
+                pageable -> medicalRecordRepository.findSummariesByDoctorId(personId, pageable))) {
+            indexMedicalRecord(m.id(), m.diagnosis(), m.patientName(), m.doctorName());
+        }
+        for (PrescriptionSummary p : each(pageable -> prescriptionRepository.findSummariesByPatientId(personId, pageable),
+                pageable -> prescriptionRepository.findSummariesByDoctorId(personId, pageable))) {
+            indexPrescription(p.id(), p.medication(), p.status(), p.patientName(), p.doctorName());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        Thread thread = new Thread(this::rebuild, "search-index-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        pending = new ConcurrentLinkedQueue<>();
+        try {
+            load(personRepository, this::onSaved);
+            load(appointmentRepository, this::onSaved);
+            load(medicalRecordRepository, this::onSaved);
+            load(prescriptionRepository, this::onSaved);
+            int replayed = replay();
+            ready = true;
+            logger.info("Search index built in " + (System.currentTimeMillis() - start) + " ms: "
+                    + indexes.get(Type.PERSONS).size() + " persons, "
+                    + indexes.get(Type.APPOINTMENTS).size() + " appointments, "
+                    + indexes.get(Type.MEDICAL_RECORDS).size() + " medical records, "
+                    + indexes.get(Type.PRESCRIPTIONS).size() + " prescriptions, "
+                    + replayed + " concurrent changes replayed");
+        } catch (Exception e) {
+            logger.severe("Search index build failed, falling back to database search: " + e.getMessage());
+        } finally {
+            pending = null;
+        }
+    }
+
+    private void apply(Runnable change) {
+        replayLock.readLock().lock();
+        try {
+            change.run();
+            Queue<Runnable> buffer = pending;
+            if (buffer != null) {
+                buffer.add(change);
+            }
+        } finally {
+            replayLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Re-applies every change that arrived during the scan, so each document ends at the state of its
+     * last commit whether its page was read before or after that commit. Live changes wait on the write
+     * lock until the replay is done.
+     */
+    private int replay() {
+        replayLock.writeLock().lock();
+        try {
+            int replayed = 0;
+            for (Runnable change : pending) {
+                change.run();
+                replayed++;
+            }
+            pending = null;
+            return replayed;
+        } finally {
+            replayLock.writeLock().unlock();
+        }
+    }
+
+    private <T> void load(JpaRepository<T, Long> repository, Consumer<Object> sink) {
+        Page<T> page = repository.findAll(PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id")));
+        while (true) {
+            page.forEach(sink);
+            if (!page.hasNext()) {
+                break;
+            }
+            page = repository.findAll(page.nextPageable());
+        }
+    }
+
+    @SafeVarargs
+    private static <T> List<T> each(Function<Pageable, Page<T>>... finders) {
+        List<T> rows = new ArrayList<>();
+        for (Function<Pageable, Page<T>> finder : finders) {
+            Page<T> page = finder.apply(PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id")));
+            while (true) {
+                rows.addAll(page.getContent());
+                if (!page.hasNext()) {
+                    break;
+                }
+                page = finder.apply(page.nextPageable());
+            }
+        }
+        return rows;
+    }
+
+    private void indexAppointment(Long id, String status, String hospitalName, String serviceName,
+                                  String patientName, String doctorName) {
+        indexes.get(Type.APPOINTMENTS).index(id, status, hospitalName, serviceName, patientName, doctorName);
+    }
+
+    private void indexMedicalRecord(Long id, String diagnosis, String patientName, String doctorName) {
+        indexes.get(Type.MEDICAL_RECORDS).index(id, diagnosis, patientName, doctorName);
+    }
+
+    private void indexPrescription(Long id, String medication, String status, String patientName, String doctorName) {
+        indexes.get(Type.PRESCRIPTIONS).index(id, medication, status, patientName, doctorName);
+    }
+
+    private static String nameOf(Person person) {
+        return person != null ? person.getFullName() : null;
+    }
+}
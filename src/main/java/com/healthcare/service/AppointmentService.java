@@ -1,43 +1,92 @@
 package com.healthcare.service;
 
+import com.healthcare.dto.CursorPage;
+import com.healthcare.dto.AppointmentSummary;
 import com.healthcare.model.Appointment;
 import com.healthcare.repository.AppointmentRepository;
+import com.healthcare.scheduling.Booking;
+import com.healthcare.scheduling.SchedulingEngine;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AppointmentService {
 
+    private static final KeysetPager.Keyset<AppointmentSummary> HISTORY = new KeysetPager.Keyset<>(
+            AppointmentSummary.class, AppointmentRepository.SUMMARY_SELECT, "Appointment", "a", "date",
+            AppointmentSummary::date, AppointmentSummary::id);
+
     private final AppointmentRepository appointmentRepository;
+    private final KeysetPager keysetPager;
+    private final SchedulingEngine schedulingEngine;
 
-    public AppointmentService(AppointmentRepository appointmentRepository) {
+    public AppointmentService(AppointmentRepository appointmentRepository, SchedulingEngine schedulingEngine,
+                              KeysetPager keysetPager) {
         this.appointmentRepository = appointmentRepository;
+        this.schedulingEngine = schedulingEngine;
+        this.keysetPager = keysetPager;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<AppointmentSummary> getAllAppointments(Pageable pageable) {
+        return appointmentRepository.findSummaries(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<AppointmentSummary> getAppointmentsByPatientId(Long patientId, Pageable pageable) {
+        return appointmentRepository.findSummariesByPatientId(patientId, pageable);
     }
 
-    public Page<Appointment> getAllAppointments(Pageable pageable) {
-        return appointmentRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Page<AppointmentSummary> getAppointmentsByDoctorId(Long doctorId, Pageable pageable) {
+        return appointmentRepository.findSummariesByDoctorId(doctorId, pageable);
     }
 
-    public Page<Appointment> getAppointmentsByPatientId(Long patientId, Pageable pageable) {
-        return appointmentRepository.findByPatientId(patientId, pageable);
+    /** A patient's appointments, newest first, by keyset cursor. */
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentSummary> getAppointmentHistoryByPatientId(Long patientId, String cursor, int limit, boolean includeTotal) {
+        return keysetPager.page(HISTORY, "patient", patientId, cursor, limit, includeTotal);
     }
 
-    public Page<Appointment> getAppointmentsByDoctorId(Long doctorId, Pageable pageable) {
-        return appointmentRepository.findByDoctorId(doctorId, pageable);
+    /** A doctor's appointments, newest first, by keyset cursor. */
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentSummary> getAppointmentHistoryByDoctorId(Long doctorId, String cursor, int limit, boolean includeTotal) {
+        return keysetPager.page(HISTORY, "doctor", doctorId, cursor, limit, includeTotal);
     }
 
+    @Transactional(readOnly = true)
     public Appointment getAppointmentById(Long id) {
         return appointmentRepository.findById(id).orElse(null);
     }
 
+    /**
+     * @throws com.healthcare.scheduling.SlotConflictException if the doctor is already booked in that slot
+     */
     public Appointment createAppointment(Appointment appointment) {
-        return appointmentRepository.save(appointment);
+        appointment.setVersion(null);
+        Booking booking = schedulingEngine.bookingOf(appointment);
+        schedulingEngine.reserve(booking);
+        try {
+            return appointmentRepository.save(appointment);
+        } catch (RuntimeException e) {
+            schedulingEngine.release(booking);
+            throw e;
+        }
     }
 
-    public Appointment updateAppointment(Long id, Appointment appointmentDetails) {
+    /**
+     * @param expectedVersion version named by the client's If-Match header, or null for an unconditional update
+     * @throws StaleVersionException if {@code expectedVersion} is not the current version
+     */
+    public Appointment updateAppointment(Long id, Appointment appointmentDetails, Long expectedVersion) {
         Appointment appointment = appointmentRepository.findById(id).orElse(null);
         if (appointment != null) {
+            if (expectedVersion != null && !expectedVersion.equals(appointment.getVersion())) {
+                throw new StaleVersionException("Appointment " + id + " was modified by another request", appointment.getVersion());
+            }
+            Booking previous = schedulingEngine.bookingOf(appointment);
             appointment.setPatient(appointmentDetails.getPatient());
             appointment.setDoctor(appointmentDetails.getDoctor());
             appointment.setDate(appointmentDetails.getDate());
@@ -48,12 +97,28 @@ public class AppointmentService {
             appointment.setInsurance(appointmentDetails.getInsurance());
             appointment.setServiceId(appointmentDetails.getServiceId());
             appointment.setServiceName(appointmentDetails.getServiceName());
-            return appointmentRepository.save(appointment);
+
+            Booking next = schedulingEngine.bookingOf(appointment);
+            if (schedulingEngine.sameSlot(previous, next)) {
+                return appointmentRepository.save(appointment);
+            }
+            schedulingEngine.reserve(next);
+            Appointment saved;
+            try {
+                saved = appointmentRepository.save(appointment);
+            } catch (RuntimeException e) {
+                schedulingEngine.release(next);
+                throw e;
+            }
+            schedulingEngine.release(previous);
+            return saved;
         }
         return null;
     }
 
     public void deleteAppointment(Long id) {
+        Booking booking = appointmentRepository.findById(id).map(schedulingEngine::bookingOf).orElse(null);
         appointmentRepository.deleteById(id);
+        schedulingEngine.release(booking);
     }
 }
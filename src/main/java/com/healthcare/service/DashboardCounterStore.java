@@ -0,0 +1,184 @@
+package com.healthcare.service;
+
+import com.healthcare.event.EntityChangeListener;
+import com.healthcare.event.EntityUpdate;
+import com.healthcare.model.Appointment;
+import com.healthcare.model.Person;
+import com.healthcare.model.Role;
+import com.healthcare.repository.AppointmentRepository;
+import com.healthcare.repository.PersonRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory dashboard totals. Counters are adjusted on every committed person and appointment write
+ * and periodically reconciled against the database, which also corrects drift from paths that bypass
+ * entity events (bulk JPQL, role collection changes, writes made by other nodes).
+ * <p>
+ * A reconcile runs its count queries one after another while writes keep committing. From the moment
+ * a counter's query starts, changes to that counter are also recorded as deltas and added on top of
+ * its fresh count, so a write the query did not see is not lost when the count is set.
+ */
+@Service
+public class DashboardCounterStore implements EntityChangeListener {
+
+    private static final String[] STATUSES = {"pending", "confirmed", "cancelled"};
+
+    private final PersonRepository personRepository;
+    private final AppointmentRepository appointmentRepository;
+
+    private final AtomicLong totalPatients = new AtomicLong();
+    private final AtomicLong totalDoctors = new AtomicLong();
+    private final AtomicLong totalAppointments = new AtomicLong();
+    private final Map<String, AtomicLong> appointmentsByStatus = new ConcurrentHashMap<>();
+    private volatile Instant lastReconciledAt;
+    // Listener updates hold the read lock; setting the reconciled counts holds the write lock
+    private final ReadWriteLock countsLock = new ReentrantReadWriteLock();
+    // Non-null while a reconcile is counting: per counter whose query has started, the deltas applied since
+    private volatile Map<AtomicLong, AtomicLong> pending;
+
+    public DashboardCounterStore(PersonRepository personRepository, AppointmentRepository appointmentRepository) {
+        this.personRepository = personRepository;
+        this.appointmentRepository = appointmentRepository;
+    }
+
+    public long getTotalPatients() {
+        return totalPatients.get();
+    }
+
+    public long getTotalDoctors() {
+        return totalDoctors.get();
+    }
+
+    public long getTotalAppointments() {
+        return totalAppointments.get();
+    }
+
+    public long getAppointmentsWithStatus(String status) {
+        AtomicLong counter = appointmentsByStatus.get(status);
+        return counter != null ? counter.get() : 0L;
+    }
+
+    public Instant getLastReconciledAt() {
+        return lastReconciledAt;
+    }
+
+    public boolean isInitialized() {
+        return lastReconciledAt != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${dashboard.counters.reconcile-interval-ms:300000}",
+            initialDelayString = "${dashboard.counters.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        Map<AtomicLong, AtomicLong> deltas = new ConcurrentHashMap<>();
+        pending = deltas;
+        try {
+            Map<AtomicLong, Long> counts = new LinkedHashMap<>();
+            count(counts, deltas, totalPatients, () -> personRepository.countByRoles_Name("PATIENT"));
+            count(counts, deltas, totalDoctors, () -> personRepository.countByRoles_Name("DOCTOR"));
+            count(counts, deltas, totalAppointments, appointmentRepository::count);
+            for (String status : STATUSES) {
+                count(counts, deltas, statusCounter(status), () -> appointmentRepository.countByStatus(status));
+            }
+            countsLock.writeLock().lock();
+            try {
+                counts.forEach((counter, count) -> counter.set(count + deltas.get(counter).get()));
+                pending = null;
+            } finally {
+                countsLock.writeLock().unlock();
+            }
+            lastReconciledAt = Instant.now();
+        } finally {
+            pending = null;
+        }
+    }
+
+    @Override
+    public void onInsert(Object entity) {
+        if (entity instanceof Person person) {
+            adjustRoles(person, 1);
+        } else if (entity instanceof Appointment appointment) {
+            add(totalAppointments, 1);
+            adjustStatus(appointment.getStatus(), 1);
+        }
+    }
+
+    @Override
+    public void onUpdate(Object entity, EntityUpdate update) {
+        if (entity instanceof Appointment appointment) {
+            Object previous = update.previous("status");
+            String oldStatus = previous != null ? previous.toString() : null;
+            if (!Objects.equals(oldStatus, appointment.getStatus())) {
+                adjustStatus(oldStatus, -1);
+                adjustStatus(appointment.getStatus(), 1);
+            }
+        }
+    }
+
+    @Override
+    public void onDelete(Object entity) {
+        if (entity instanceof Person person) {
+            adjustRoles(person, -1);
+        } else if (entity instanceof Appointment appointment) {
+            add(totalAppointments, -1);
+            adjustStatus(appointment.getStatus(), -1);
+        }
+    }
+
+    private void adjustRoles(Person person, int delta) {
+        if (person.getRoles() == null) {
+            return;
+        }
+        for (Role role : person.getRoles()) {
+            if ("PATIENT".equals(role.getName())) {
+                add(totalPatients, delta);
+            } else if ("DOCTOR".equals(role.getName())) {
+                add(totalDoctors, delta);
+            }
+        }
+    }
+
+    private void adjustStatus(String status, int delta) {
+        if (status != null) {
+            add(statusCounter(status), delta);
+        }
+    }
+
+    private void add(AtomicLong counter, long delta) {
+        countsLock.readLock().lock();
+        try {
+            counter.addAndGet(delta);
+            Map<AtomicLong, AtomicLong> deltas = pending;
+            AtomicLong recorded = deltas != null ? deltas.get(counter) : null;
+            if (recorded != null) {
+                recorded.addAndGet(delta);
+            }
+        } finally {
+            countsLock.readLock().unlock();
+        }
+    }
+
+    // Starts recording the counter's deltas before its query runs, so nothing committed after the query is missed
+    private static void count(Map<AtomicLong, Long> counts, Map<AtomicLong, AtomicLong> deltas, AtomicLong counter,
+                              LongSupplier query) {
+        deltas.put(counter, new AtomicLong());
+        counts.put(counter, query.getAsLong());
+    }
+
+    private AtomicLong statusCounter(String status) {
+        return appointmentsByStatus.computeIfAbsent(status, s -> new AtomicLong());
+    }
+}
@@ -1,8 +1,7 @@
 package com.healthcare.service;
 
-import com.healthcare.repository.AppointmentRepository;
-import com.healthcare.repository.PersonRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -10,26 +9,30 @@ import java.util.Map;
 @Service
 public class DashboardService {
 
-    private final PersonRepository personRepository;
-    private final AppointmentRepository appointmentRepository;
+    private final DashboardCounterStore counterStore;
 
-    public DashboardService(PersonRepository personRepository, AppointmentRepository appointmentRepository) {
-        this.personRepository = personRepository;
-        this.appointmentRepository = appointmentRepository;
+    public DashboardService(DashboardCounterStore counterStore) {
+        this.counterStore = counterStore;
     }
 
+    @Transactional(readOnly = true)
     public Map<String, Object> getDashboardSummary() {
+        if (!counterStore.isInitialized()) {
+            counterStore.reconcile();
+        }
+
         Map<String, Object> summary = new HashMap<>();
 
-        summary.put("totalPatients", personRepository.countByRoles_Name("PATIENT"));
-        summary.put("totalDoctors", personRepository.countByRoles_Name("DOCTOR"));
-        summary.put("totalAppointments", appointmentRepository.count());
+        summary.put("totalPatients", counterStore.getTotalPatients());
+        summary.put("totalDoctors", counterStore.getTotalDoctors());
+        summary.put("totalAppointments", counterStore.getTotalAppointments());
 
         Map<String, Long> appointmentsByStatus = new HashMap<>();
-        appointmentsByStatus.put("pending", appointmentRepository.countByStatus("pending"));
-        appointmentsByStatus.put("confirmed", appointmentRepository.countByStatus("confirmed"));
-        appointmentsByStatus.put("cancelled", appointmentRepository.countByStatus("cancelled"));
+        appointmentsByStatus.put("pending", counterStore.getAppointmentsWithStatus("pending"));
+        appointmentsByStatus.put("confirmed", counterStore.getAppointmentsWithStatus("confirmed"));
+        appointmentsByStatus.put("cancelled", counterStore.getAppointmentsWithStatus("cancelled"));
         summary.put("appointmentsByStatus", appointmentsByStatus);
+        summary.put("countersReconciledAt", counterStore.getLastReconciledAt());
 
         return summary;
     }
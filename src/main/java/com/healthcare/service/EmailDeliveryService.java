@@ -0,0 +1,288 @@
+package com.healthcare.service;
+
+import com.healthcare.model.EmailOutbox;
+import com.healthcare.repository.EmailOutboxRepository;
+import com.healthcare.util.ThreadFactories;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Asynchronous outbound mail pipeline. Messages are written to the email_outbox table first, so
+ * nothing queued is lost on restart, and then handed to a bounded in-memory queue drained by a
+ * small worker pool. Each worker sends its batch over a single SMTP connection and reschedules
+ * failures with exponential backoff. A scheduled poller re-queues due rows that did not fit in the
+ * queue, need a retry, or were left behind by a previous run.
+ * <p>
+ * Before sending, a worker claims each row with a conditional update from pending to sending, so a
+ * message queued by several pollers or nodes goes out once. The claim is a lease of
+ * {@code email.delivery.claim-lease-ms}: a row still sending after that (its node died mid-batch) is
+ * due again.
+ */
+@Service
+public class EmailDeliveryService {
+
+    public static final String PENDING = "pending";
+    public static final String SENDING = "sending";
+    public static final String SENT = "sent";
+    public static final String FAILED = "failed";
+
+    private static final Logger logger = Logger.getLogger(EmailDeliveryService.class.getName());
+
+    private final JavaMailSender mailSender;
+    private final EmailOutboxRepository outboxRepository;
+    private final BlockingQueue<Long> queue;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long claimLeaseMs;
+    private volatile boolean running = true;
+
+    private final Timer sendLatency;
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+
+    public EmailDeliveryService(JavaMailSender mailSender, EmailOutboxRepository outboxRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${email.delivery.queue-capacity:1000}") int queueCapacity,
+                                @Value("${email.delivery.workers:2}") int workerCount,
+                                @Value("${email.delivery.batch-size:20}") int batchSize,
+                                @Value("${email.delivery.max-attempts:5}") int maxAttempts,
+                                @Value("${email.delivery.initial-backoff-ms:2000}") long initialBackoffMs,
+                                @Value("${email.delivery.max-backoff-ms:300000}") long maxBackoffMs,
+                                @Value("${email.delivery.claim-lease-ms:300000}") long claimLeaseMs,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.mailSender = mailSender;
+        this.outboxRepository = outboxRepository;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.claimLeaseMs = claimLeaseMs;
+
+        // Worker count still bounds concurrent SMTP connections when the workers are virtual threads
+        this.workers = Executors.newFixedThreadPool(workerCount,
+                ThreadFactories.named("email-worker-", virtualThreads));
+
+        Gauge.builder("email.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        this.sendLatency = Timer.builder("email.send.latency")
+                .description("Time to deliver one batch over SMTP")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sentCounter = meterRegistry.counter("email.messages", "result", "sent");
+        this.retryCounter = meterRegistry.counter("email.messages", "result", "retry");
+        this.failedCounter = meterRegistry.counter("email.messages", "result", "failed");
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::workLoop);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        workers.shutdownNow();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Persists the message to the outbox and queues it for delivery. Never blocks on SMTP. The body of
+     * a {@code sensitive} message is cleared from the outbox once it is sent or given up on.
+     */
+    public EmailOutbox enqueue(String to, String subject, String text, boolean sensitive) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutbox saved = outboxRepository.save(EmailOutbox.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(text)
+                .sensitive(sensitive)
+                .status(PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+        offer(saved.getId());
+        return saved;
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    @Scheduled(fixedDelayString = "${email.delivery.poll-interval-ms:10000}",
+            initialDelayString = "${email.delivery.poll-interval-ms:10000}")
+    public void pollOutbox() {
+        for (EmailOutbox due : outboxRepository.findTop100ByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                List.of(PENDING, SENDING), LocalDateTime.now())) {
+            if (!offer(due.getId())) {
+                break;
+            }
+        }
+    }
+
+    // Full queue is not an error: the row stays pending and the poller picks it up later
+    private boolean offer(Long id) {
+        if (!queued.add(id)) {
+            return true;
+        }
+        if (!queue.offer(id)) {
+            queued.remove(id);
+            return false;
+        }
+        return true;
+    }
+
+    private void workLoop() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                Long first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.severe("✗ Email worker error: " + e.getMessage());
+            } finally {
+                batch.forEach(queued::remove);
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(List<Long> ids) {
+        LocalDateTime claimedAt = LocalDateTime.now();
+        LocalDateTime lease = claimedAt.plusNanos(TimeUnit.MILLISECONDS.toNanos(claimLeaseMs));
+        List<Long> claimed = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (outboxRepository.claim(id, claimedAt, lease) == 1) {
+                claimed.add(id);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return;
+        }
+        List<EmailOutbox> rows = outboxRepository.findAllById(claimed);
+
+        Map<SimpleMailMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        for (EmailOutbox row : rows) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(row.getRecipient());
+            message.setSubject(row.getSubject());
+            message.setText(row.getBody());
+            messages.put(message, row);
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        Exception batchFailure = null;
+        long start = System.nanoTime();
+        try {
+            // JavaMailSenderImpl sends a multi-message call over one SMTP connection
+            mailSender.send(messages.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                batchFailure = e;
+            }
+        } catch (MailException e) {
+            batchFailure = e;
+        }
+        sendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<SimpleMailMessage, EmailOutbox> entry : messages.entrySet()) {
+            Exception error = batchFailure != null ? batchFailure : failures.get(entry.getKey());
+            if (error == null) {
+                markSent(entry.getValue(), now);
+            } else {
+                markFailed(entry.getValue(), error, now);
+            }
+        }
+        outboxRepository.saveAll(rows);
+    }
+
+    private void markSent(EmailOutbox row, LocalDateTime now) {
+        row.setStatus(SENT);
+        row.setSentAt(now);
+        row.setAttempts(row.getAttempts() + 1);
+        row.setLastError(null);
+        redactIfSensitive(row);
+        sentCounter.increment();
+        logger.info("✓ Email sent successfully to: " + row.getRecipient());
+    }
+
+    private void markFailed(EmailOutbox row, Exception error, LocalDateTime now) {
+        row.setStatus(PENDING);
+        int attempts = row.getAttempts() + 1;
+        row.setAttempts(attempts);
+        row.setLastError(truncate(error.getMessage()));
+        if (attempts == 1) {
+            logger.severe("✗ FAILED to send email to " + row.getRecipient());
+            logger.severe("  Error: " + error.getMessage());
+            logger.warning("  Please check your email configuration in application.properties");
+        }
+        if (attempts >= maxAttempts) {
+            row.setStatus(FAILED);
+            redactIfSensitive(row);
+            failedCounter.increment();
+            logger.severe("✗ Giving up on email " + row.getId() + " to " + row.getRecipient() + " after " + attempts + " attempts");
+            return;
+        }
+        long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 20));
+        long jitter = ThreadLocalRandom.current().nextLong(Math.max(1, backoff / 5));
+        row.setNextAttemptAt(now.plusNanos(TimeUnit.MILLISECONDS.toNanos(backoff + jitter)));
+        retryCounter.increment();
+    }
+
+    private static void redactIfSensitive(EmailOutbox row) {
+        if (row.isSensitive()) {
+            row.setBody(null);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
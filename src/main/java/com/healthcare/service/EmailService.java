@@ -1,7 +1,7 @@
 package com.healthcare.service;
 
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 
 import java.util.logging.Logger;
@@ -10,31 +10,33 @@ import java.util.logging.Logger;
 public class EmailService {
 
     private static final Logger logger = Logger.getLogger(EmailService.class.getName());
-    private final JavaMailSender mailSender;
+    private final EmailDeliveryService deliveryService;
+    private final Counter enqueueFailures;
 
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public EmailService(EmailDeliveryService deliveryService, MeterRegistry meterRegistry) {
+        this.deliveryService = deliveryService;
+        this.enqueueFailures = meterRegistry.counter("email.enqueue.failures");
     }
 
+    /**
+     * Queues the message for asynchronous delivery and returns immediately; SMTP work happens on
+     * the {@link EmailDeliveryService} workers.
+     */
     public void sendSimpleMessage(String to, String subject, String text) {
+        sendSimpleMessage(to, subject, text, false);
+    }
+
+    /**
+     * As above; a {@code sensitive} message (one-time code, reset link) does not keep its body in the
+     * outbox after delivery.
+     */
+    public void sendSimpleMessage(String to, String subject, String text, boolean sensitive) {
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(text);
-            mailSender.send(message);
-            logger.info("✓ Email sent successfully to: " + to);
-            logger.info("  Subject: " + subject);
+            deliveryService.enqueue(to, subject, text, sensitive);
         } catch (Exception e) {
-            logger.severe("✗ FAILED to send email to " + to);
-            logger.severe("  Error: " + e.getMessage());
-            logger.severe("  Subject: " + subject);
-            // Log the OTP/content for development purposes
-            logger.warning("  Email content (OTP for testing): " + text);
-            logger.warning("  Please check your email configuration in application.properties");
             // Don't throw exception - allow the flow to continue
-            // The OTP is still generated and can be used
-            // In production, you might want to handle this differently
+            enqueueFailures.increment();
+            logger.warning("Failed to queue email '" + subject + "' to " + to + ": " + e.getMessage());
         }
     }
 
@@ -46,7 +48,7 @@ public class EmailService {
                 "If you did not request this code, please ignore this email.\n\n" +
                 "Best regards,\n" +
                 "Rwanda Healthcare System";
-        
-        sendSimpleMessage(to, subject, text);
+
+        sendSimpleMessage(to, subject, text, true);
     }
 }
@@ -0,0 +1,184 @@
+package com.healthcare.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.model.IdempotencyRecord;
+import com.healthcare.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Makes POST creates safe to retry. The first request with a given Idempotency-Key claims the key
+ * with a unique row in {@code idempotency_keys}; retries of a completed request get the originally
+ * created resource back instead of inserting again. Completed keys are also kept in memory, so a
+ * retry storm on one key costs a map lookup plus a primary-key read.
+ * <p>
+ * Keys are scoped per user and per endpoint and expire after {@code idempotency.ttl-hours}. While a
+ * request runs, its key only holds a lease of {@code idempotency.lease-seconds}: a key left in progress
+ * by a crashed node can be claimed again once the lease lapses, and an expired key is never replayed.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String IN_PROGRESS = "in_progress";
+    public static final String COMPLETED = "completed";
+
+    /** Result of an idempotent create; {@code replayed} is true when it was served from an earlier request. */
+    public record Outcome<T>(T value, boolean replayed) {
+    }
+
+    /** The key is in use by a request that has not finished, or was used with a different body. */
+    public static class KeyConflictException extends RuntimeException {
+        private final int status;
+
+        public KeyConflictException(String message, int status) {
+            super(message);
+            this.status = status;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+    }
+
+    private record Completed(String fingerprint, Long resourceId, LocalDateTime expiresAt) {
+    }
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final long ttlHours;
+    private final long leaseSeconds;
+    private final Map<String, Completed> completed = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repository, ObjectMapper objectMapper,
+                              @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${idempotency.lease-seconds:60}") long leaseSeconds) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttlHours = ttlHours;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    /**
+     * Runs {@code create} once per (user, scope, key). Without a key the call is not deduplicated.
+     *
+     * @param request the request body, fingerprinted so a reused key with a different body is rejected
+     * @param idOf    extracts the id of the created resource
+     * @param loader  loads a previously created resource for replay
+     * @throws KeyConflictException     with status 409 while the first request is still running, or 422 if
+     *                                  the key was used with a different body
+     * @throws IllegalArgumentException if the key is longer than 128 characters
+     */
+    public <T> Outcome<T> execute(String key, String scope, Object request, Supplier<T> create,
+                                  Function<T, Long> idOf, Function<Long, T> loader) {
+        if (key == null || key.isBlank()) {
+            return new Outcome<>(create.get(), false);
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String owner = currentOwner();
+        String cacheKey = owner + "|" + scope + "|" + key;
+        String fingerprint = fingerprint(request);
+
+        Completed done = completed.get(cacheKey);
+        if (done != null && done.expiresAt().isAfter(LocalDateTime.now())) {
+            return replay(done.fingerprint(), done.resourceId(), fingerprint, loader);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .owner(owner)
+                .scope(scope)
+                .idempotencyKey(key)
+                .fingerprint(fingerprint)
+                .status(IN_PROGRESS)
+                .createdAt(now)
+                .expiresAt(now.plusSeconds(leaseSeconds))
+                .build();
+        try {
+            record = repository.saveAndFlush(record);
+        } catch (DataIntegrityViolationException e) {
+            IdempotencyRecord existing = repository.findByOwnerAndScopeAndIdempotencyKey(owner, scope, key)
+                    .orElseThrow(() -> new KeyConflictException("Idempotency-Key is being reused, retry the request", 409));
+            if (existing.getExpiresAt() != null && existing.getExpiresAt().isAfter(now)) {
+                if (!COMPLETED.equals(existing.getStatus())) {
+                    throw new KeyConflictException("A request with this Idempotency-Key is still in progress", 409);
+                }
+                completed.put(cacheKey, new Completed(existing.getFingerprint(), existing.getResourceId(), existing.getExpiresAt()));
+                return replay(existing.getFingerprint(), existing.getResourceId(), fingerprint, loader);
+            }
+            // Expired, or a lease left behind by a request that never finished: whoever moves the deadline first owns the key
+            record = reclaim(existing, fingerprint, now);
+        }
+
+        T created;
+        try {
+            created = create.get();
+        } catch (RuntimeException e) {
+            // Release the key so the client can retry after a failure
+            repository.delete(record);
+            throw e;
+        }
+        record.setStatus(COMPLETED);
+        record.setResourceId(idOf.apply(created));
+        record.setExpiresAt(LocalDateTime.now().plusHours(ttlHours));
+        repository.save(record);
+        completed.put(cacheKey, new Completed(fingerprint, record.getResourceId(), record.getExpiresAt()));
+        return new Outcome<>(created, false);
+    }
+
+    /** Called by the housekeeping run, which deletes the expired rows; drops their cached copies. */
+    public void evictExpired(LocalDateTime now) {
+        completed.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+    }
+
+    private IdempotencyRecord reclaim(IdempotencyRecord existing, String fingerprint, LocalDateTime now) {
+        LocalDateTime lease = now.plusSeconds(leaseSeconds);
+        if (repository.reclaim(existing.getId(), fingerprint, now, lease) == 0) {
+            throw new KeyConflictException("A request with this Idempotency-Key is still in progress", 409);
+        }
+        existing.setFingerprint(fingerprint);
+        existing.setStatus(IN_PROGRESS);
+        existing.setResourceId(null);
+        existing.setCreatedAt(now);
+        existing.setExpiresAt(lease);
+        return existing;
+    }
+
+    private <T> Outcome<T> replay(String storedFingerprint, Long resourceId, String fingerprint, Function<Long, T> loader) {
+        if (storedFingerprint != null && !storedFingerprint.equals(fingerprint)) {
+            throw new KeyConflictException("Idempotency-Key was already used with a different request body", 422);
+        }
+        return new Outcome<>(resourceId != null ? loader.apply(resourceId) : null, true);
+    }
+
+    private static String currentOwner() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getName() != null ? authentication.getName() : "anonymous";
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] body = request instanceof String s ? s.getBytes(StandardCharsets.UTF_8) : objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.healthcare.service;
+
+import com.healthcare.dto.CursorPage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination over (date DESC, id DESC) for per-patient and per-doctor histories. Each page seeks
+ * past the last row of the previous one, so page 500 costs the same as page 1, and the COUNT query
+ * only runs when a total is requested. Rows without a date come first, in id order.
+ * <p>
+ * Backed by the (patient_id, date, id) and (doctor_id, date, id) indexes on the history tables.
+ */
+@Component
+public class KeysetPager {
+
+    public static final int MAX_LIMIT = 100;
+
+    /**
+     * Describes a summary query to paginate.
+     *
+     * @param select    JPQL select of the summary type, ending with the FROM clause
+     * @param entity    entity name, for the count query
+     * @param alias     alias of the entity in {@code select}
+     * @param dateField date property to order by
+     */
+    public record Keyset<T>(Class<T> type, String select, String entity, String alias, String dateField,
+                            Function<T, LocalDate> dateOf, Function<T, Long> idOf) {
+    }
+
+    private record Cursor(LocalDate date, long id) {
+    }
+
+    private final EntityManager entityManager;
+
+    public KeysetPager(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @param owner        association to filter on, {@code "patient"} or {@code "doctor"}
+     * @param cursor       cursor from the previous page, or null for the first page
+     * @param includeTotal also count all rows of the owner (one extra query)
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public <T> CursorPage<T> page(Keyset<T> keyset, String owner, Long ownerId, String cursor, int limit,
+                                  boolean includeTotal) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Cursor after = decode(cursor);
+        String a = keyset.alias();
+        String date = a + "." + keyset.dateField();
+
+        StringBuilder jpql = new StringBuilder(keyset.select())
+                .append(" WHERE ").append(a).append('.').append(owner).append(".id = :ownerId");
+        if (after != null && after.date() == null) {
+            jpql.append(" AND ((").append(date).append(" IS NULL AND ").append(a).append(".id < :id) OR ")
+                    .append(date).append(" IS NOT NULL)");
+        } else if (after != null) {
+            jpql.append(" AND (").append(date).append(" < :date OR (").append(date).append(" = :date AND ")
+                    .append(a).append(".id < :id))");
+        }
+        jpql.append(" ORDER BY ").append(date).append(" DESC NULLS FIRST, ").append(a).append(".id DESC");
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), keyset.type())
+                .setParameter("ownerId", ownerId)
+                .setMaxResults(pageSize + 1);
+        if (after != null) {
+            query.setParameter("id", after.id());
+            if (after.date() != null) {
+                query.setParameter("date", after.date());
+            }
+        }
+        List<T> rows = query.getResultList();
+
+        String next = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            T last = rows.get(pageSize - 1);
+            next = encode(keyset.dateOf().apply(last), keyset.idOf().apply(last));
+        }
+
+        Long total = null;
+        if (includeTotal) {
+            total = entityManager.createQuery("SELECT COUNT(x) FROM " + keyset.entity() + " x WHERE x." + owner
+                            + ".id = :ownerId", Long.class)
+                    .setParameter("ownerId", ownerId)
+                    .getSingleResult();
+        }
+        return new CursorPage<>(List.copyOf(rows), next, total);
+    }
+
+    private static String encode(LocalDate date, Long id) {
+        String raw = (date != null ? date.toString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            String date = raw.substring(0, sep);
+            return new Cursor(date.isEmpty() ? null : LocalDate.parse(date), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+}
@@ -1,47 +1,118 @@
 package com.healthcare.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.event.EntityChangeListener;
+import com.healthcare.event.EntityUpdate;
+import com.healthcare.location.LocationLevel;
+import com.healthcare.location.LocationNode;
+import com.healthcare.location.LocationTree;
 import com.healthcare.model.*;
 import com.healthcare.repository.*;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
 
+/**
+ * Serves the administrative hierarchy from an immutable {@link LocationTree}. The tree is built at
+ * startup and rebuilt shortly after any committed province, district, sector, cell or village write.
+ */
 @Service
-public class LocationService {
+public class LocationService implements EntityChangeListener {
+
+    private static final Logger logger = Logger.getLogger(LocationService.class.getName());
 
     private final ProvinceRepository provinceRepository;
     private final DistrictRepository districtRepository;
     private final SectorRepository sectorRepository;
     private final CellRepository cellRepository;
     private final VillageRepository villageRepository;
+    private final ObjectMapper objectMapper;
+    private final AtomicBoolean stale = new AtomicBoolean(false);
+    private volatile LocationTree tree;
 
     public LocationService(ProvinceRepository provinceRepository, DistrictRepository districtRepository,
                            SectorRepository sectorRepository, CellRepository cellRepository,
-                           VillageRepository villageRepository) {
+                           VillageRepository villageRepository, ObjectMapper objectMapper) {
         this.provinceRepository = provinceRepository;
         this.districtRepository = districtRepository;
         this.sectorRepository = sectorRepository;
         this.cellRepository = cellRepository;
         this.villageRepository = villageRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public LocationTree getTree() {
+        LocationTree current = tree;
+        if (current == null) {
+            current = refresh();
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        refresh();
+    }
+
+    public synchronized LocationTree refresh() {
+        long start = System.currentTimeMillis();
+        stale.set(false);
+        Map<LocationLevel, List<LocationNode>> rows = new EnumMap<>(LocationLevel.class);
+        rows.put(LocationLevel.PROVINCE, provinceRepository.findAllNodes());
+        rows.put(LocationLevel.DISTRICT, districtRepository.findAllNodes());
+        rows.put(LocationLevel.SECTOR, sectorRepository.findAllNodes());
+        rows.put(LocationLevel.CELL, cellRepository.findAllNodes());
+        rows.put(LocationLevel.VILLAGE, villageRepository.findAllNodes());
+        LocationTree built = new LocationTree(rows, objectMapper.getFactory());
+        tree = built;
+        logger.info("Location tree built in " + (System.currentTimeMillis() - start) + " ms: "
+                + built.size(LocationLevel.PROVINCE) + " provinces, "
+                + built.size(LocationLevel.DISTRICT) + " districts, "
+                + built.size(LocationLevel.SECTOR) + " sectors, "
+                + built.size(LocationLevel.CELL) + " cells, "
+                + built.size(LocationLevel.VILLAGE) + " villages");
+        return built;
     }
 
-    public List<Province> getAllProvinces() {
-        return provinceRepository.findAll();
+    /** Coalesces bursts of location writes (e.g. a seed import) into one rebuild. */
+    @Scheduled(fixedDelayString = "${locations.refresh-delay-ms:2000}")
+    public void refreshIfStale() {
+        if (stale.get()) {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                stale.set(true);
+                logger.warning("Location tree refresh failed, keeping previous tree: " + e.getMessage());
+            }
+        }
     }
 
-    public List<District> getAllDistricts() {
-        return districtRepository.findAll();
+    @Override
+    public void onInsert(Object entity) {
+        markStale(entity);
     }
 
-    public List<Sector> getAllSectors() {
-        return sectorRepository.findAll();
+    @Override
+    public void onUpdate(Object entity, EntityUpdate update) {
+        markStale(entity);
     }
 
-    public List<Cell> getAllCells() {
-        return cellRepository.findAll();
+    @Override
+    public void onDelete(Object entity) {
+        markStale(entity);
     }
 
-    public List<Village> getAllVillages() {
-        return villageRepository.findAll();
+    private void markStale(Object entity) {
+        if (entity instanceof Province || entity instanceof District || entity instanceof Sector
+                || entity instanceof Cell || entity instanceof Village) {
+            stale.set(true);
+        }
     }
 }
@@ -1,43 +1,76 @@
 package com.healthcare.service;
 
+import com.healthcare.dto.CursorPage;
+import com.healthcare.dto.MedicalRecordSummary;
 import com.healthcare.model.MedicalRecord;
 import com.healthcare.repository.MedicalRecordRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class MedicalRecordService {
 
+    private static final KeysetPager.Keyset<MedicalRecordSummary> HISTORY = new KeysetPager.Keyset<>(
+            MedicalRecordSummary.class, MedicalRecordRepository.SUMMARY_SELECT, "MedicalRecord", "m", "date",
+            MedicalRecordSummary::date, MedicalRecordSummary::id);
+
     private final MedicalRecordRepository medicalRecordRepository;
+    private final KeysetPager keysetPager;
 
-    public MedicalRecordService(MedicalRecordRepository medicalRecordRepository) {
+    public MedicalRecordService(MedicalRecordRepository medicalRecordRepository, KeysetPager keysetPager) {
         this.medicalRecordRepository = medicalRecordRepository;
+        this.keysetPager = keysetPager;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<MedicalRecordSummary> getAllMedicalRecords(Pageable pageable) {
+        return medicalRecordRepository.findSummaries(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<MedicalRecordSummary> getMedicalRecordsByPatientId(Long patientId, Pageable pageable) {
+        return medicalRecordRepository.findSummariesByPatientId(patientId, pageable);
     }
 
-    public Page<MedicalRecord> getAllMedicalRecords(Pageable pageable) {
-        return medicalRecordRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Page<MedicalRecordSummary> getMedicalRecordsByDoctorId(Long doctorId, Pageable pageable) {
+        return medicalRecordRepository.findSummariesByDoctorId(doctorId, pageable);
     }
 
-    public Page<MedicalRecord> getMedicalRecordsByPatientId(Long patientId, Pageable pageable) {
-        return medicalRecordRepository.findByPatientId(patientId, pageable);
+    /** A patient's medical records, newest first, by keyset cursor. */
+    @Transactional(readOnly = true)
+    public CursorPage<MedicalRecordSummary> getMedicalRecordHistoryByPatientId(Long patientId, String cursor, int limit, boolean includeTotal) {
+        return keysetPager.page(HISTORY, "patient", patientId, cursor, limit, includeTotal);
     }
 
-    public Page<MedicalRecord> getMedicalRecordsByDoctorId(Long doctorId, Pageable pageable) {
-        return medicalRecordRepository.findByDoctorId(doctorId, pageable);
+    /** A doctor's medical records, newest first, by keyset cursor. */
+    @Transactional(readOnly = true)
+    public CursorPage<MedicalRecordSummary> getMedicalRecordHistoryByDoctorId(Long doctorId, String cursor, int limit, boolean includeTotal) {
+        return keysetPager.page(HISTORY, "doctor", doctorId, cursor, limit, includeTotal);
     }
 
+    @Transactional(readOnly = true)
     public MedicalRecord getMedicalRecordById(Long id) {
         return medicalRecordRepository.findById(id).orElse(null);
     }
 
     public MedicalRecord createMedicalRecord(MedicalRecord medicalRecord) {
+        medicalRecord.setVersion(null);
         return medicalRecordRepository.save(medicalRecord);
     }
 
-    public MedicalRecord updateMedicalRecord(Long id, MedicalRecord medicalRecordDetails) {
+    /**
+     * @param expectedVersion version named by the client's If-Match header, or null for an unconditional update
+     * @throws StaleVersionException if {@code expectedVersion} is not the current version
+     */
+    public MedicalRecord updateMedicalRecord(Long id, MedicalRecord medicalRecordDetails, Long expectedVersion) {
         MedicalRecord medicalRecord = medicalRecordRepository.findById(id).orElse(null);
         if (medicalRecord != null) {
+            if (expectedVersion != null && !expectedVersion.equals(medicalRecord.getVersion())) {
+                throw new StaleVersionException("MedicalRecord " + id + " was modified by another request", medicalRecord.getVersion());
+            }
             medicalRecord.setPatient(medicalRecordDetails.getPatient());
             medicalRecord.setDoctor(medicalRecordDetails.getDoctor());
             medicalRecord.setDiagnosis(medicalRecordDetails.getDiagnosis());
@@ -1,8 +1,12 @@
 package com.healthcare.service;
 
+import com.healthcare.dto.PersonSummary;
 import com.healthcare.model.Person;
 import com.healthcare.model.PasswordResetToken;
 import com.healthcare.model.Role;
+import com.healthcare.otp.OtpCheck;
+import com.healthcare.otp.OtpPurpose;
+import com.healthcare.otp.OtpService;
 import com.healthcare.repository.PersonRepository;
 import com.healthcare.repository.PasswordResetTokenRepository;
 import com.healthcare.repository.RoleRepository;
@@ -10,8 +14,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Calendar;
+import java.util.HexFormat;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -22,13 +31,16 @@ public class PersonService {
   private final PasswordResetTokenRepository tokenRepository;
   private final RoleRepository roleRepository;
   private final PasswordEncoder passwordEncoder;
+  private final OtpService otpService;
 
   public PersonService(PersonRepository repo, PasswordResetTokenRepository tokenRepository,
-                       RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+                       RoleRepository roleRepository, PasswordEncoder passwordEncoder,
+                       OtpService otpService) {
     this.repo = repo;
     this.tokenRepository = tokenRepository;
     this.roleRepository = roleRepository;
     this.passwordEncoder = passwordEncoder;
+    this.otpService = otpService;
   }
 
   public Person create(Person person) {
@@ -38,17 +50,21 @@ public class PersonService {
     person.setPassword(passwordEncoder.encode(person.getPassword()));
     Role patientRole = roleRepository.findByName("PATIENT");
     person.setRoles(Set.of(patientRole));
+    person.setSecurityVersion(0L);
     return repo.save(person);
   }
 
-  public Page<Person> list(Pageable pageable) {
-    return repo.findAll(pageable);
+  @Transactional(readOnly = true)
+  public Page<PersonSummary> list(Pageable pageable) {
+    return repo.findSummaries(pageable);
   }
 
-  public Page<Person> list(String roleName, Pageable pageable) {
-    return repo.findByRoles_Name(roleName, pageable);
+  @Transactional(readOnly = true)
+  public Page<PersonSummary> list(String roleName, Pageable pageable) {
+    return repo.findSummariesByRole(roleName, pageable);
   }
 
+  @Transactional(readOnly = true)
   public Person get(Long id) {
     return repo.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
   }
@@ -67,23 +83,29 @@ public class PersonService {
     existing.setVillage(updated.getVillage());
     if (updated.getPassword() != null && !updated.getPassword().isEmpty()) {
       existing.setPassword(passwordEncoder.encode(updated.getPassword()));
+      return saveWithNewSecurityVersion(existing);
     }
     return repo.save(existing);
   }
 
   public void delete(Long id) {
+    repo.findById(id).ifPresent(person -> {
+      tokenRepository.deleteByPerson(person);
+    });
     repo.deleteById(id);
   }
 
+  /** Replaces any pending reset link for the person; returns the raw token, which is only ever emailed. */
   public String createPasswordResetTokenForPerson(Person person) {
+    tokenRepository.deleteByPerson(person);
     String token = UUID.randomUUID().toString();
-    PasswordResetToken myToken = new PasswordResetToken(token, person);
+    PasswordResetToken myToken = new PasswordResetToken(hashToken(token), person);
     tokenRepository.save(myToken);
     return token;
   }
 
   public String validatePasswordResetToken(String token) {
-    final Optional<PasswordResetToken> passToken = tokenRepository.findByToken(token);
+    final Optional<PasswordResetToken> passToken = getPasswordResetToken(token);
 
     return !passToken.isPresent() ? "invalidToken"
             : isTokenExpired(passToken.get()) ? "expired"
@@ -91,7 +113,19 @@ public class PersonService {
   }
 
   public Optional<PasswordResetToken> getPasswordResetToken(String token) {
-    return tokenRepository.findByToken(token);
+    if (token == null || token.isBlank()) {
+      return Optional.empty();
+    }
+    return tokenRepository.findByTokenHash(hashToken(token.trim()));
+  }
+
+  private static String hashToken(String token) {
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
   }
 
   private boolean isTokenExpired(PasswordResetToken passToken) {
@@ -99,9 +133,18 @@ public class PersonService {
     return passToken.getExpiryDate().before(cal.getTime());
   }
   
+  // Any password change also voids pending reset links, which makes each link single-use
   public void changeUserPassword(Person person, String password) {
       person.setPassword(passwordEncoder.encode(password));
-      repo.save(person);
+      saveWithNewSecurityVersion(person);
+      tokenRepository.deleteByPerson(person);
+  }
+
+  // Call for any change to credentials or roles: invalidates every token issued before it once the
+  // commit reaches SecurityVersionService and AuthenticationCache
+  private Person saveWithNewSecurityVersion(Person person) {
+      person.setSecurityVersion(person.getSecurityVersion() + 1);
+      return repo.save(person);
   }
 
   public void enableMfa(String email) {
@@ -118,108 +161,31 @@ public class PersonService {
       });
   }
 
-  public String generateOtp(String email) {
+  /**
+   * Issues a one-time code for an existing account, or returns null if there is none. Only the OTP
+   * store is written; the persons row is just read.
+   */
+  public String generateOtp(String email, OtpPurpose purpose) {
       if (email == null) {
           return null;
       }
-      
-      // Normalize email to lowercase
       String normalizedEmail = email.trim().toLowerCase();
-      
-      Optional<Person> personOpt = repo.findByEmailIgnoreCase(normalizedEmail);
-      
-      return personOpt.map(person -> {
-          // Generate 6-digit OTP (ensures leading zeros are preserved)
-          String otp = String.format("%06d", new java.util.Random().nextInt(999999));
-          person.setMfaSecret(otp);
-          repo.save(person);
-          System.out.println("Generated OTP for " + normalizedEmail + ": " + otp);
-          return otp;
-      }).orElse(null);
+      if (repo.findSecurityVersionByEmail(normalizedEmail).isEmpty()) {
+          return null;
+      }
+      return otpService.issue(normalizedEmail, purpose);
+  }
+
+  /** Checks and, when correct, consumes the code; a code works once. */
+  public boolean validateOtp(String email, String otp, OtpPurpose purpose) {
+      return otpService.verify(email, purpose, otp) == OtpCheck.VALID;
   }
 
-  public boolean validateOtp(String email, String otp) {
-      if (email == null || otp == null) {
-          return false;
-      }
-      
-      // Normalize email to lowercase and trim
-      String normalizedEmail = email.trim().toLowerCase();
-      // Trim OTP and ensure it's a string
-      String normalizedOtp = otp.trim();
-      
-      Optional<Person> personOpt = repo.findByEmailIgnoreCase(normalizedEmail);
-      
-      return personOpt.map(person -> {
-          String storedOtp = person.getMfaSecret();
-          if (storedOtp == null) {
-              System.out.println("OTP Validation - No OTP stored for: " + normalizedEmail);
-              return false;
-          }
-          // Compare trimmed OTPs
-          boolean matches = normalizedOtp.equals(storedOtp.trim());
-          System.out.println("OTP Validation - Email: " + normalizedEmail);
-          System.out.println("OTP Validation - Input OTP: '" + normalizedOtp + "' (length: " + normalizedOtp.length() + ")");
-          System.out.println("OTP Validation - Stored OTP: '" + storedOtp + "' (length: " + storedOtp.length() + ")");
-          System.out.println("OTP Validation - Match: " + matches);
-          return matches;
-      }).orElse(false);
-  }
-
-  // Password reset OTP methods
   public String generatePasswordResetOtp(String email) {
-      if (email == null) {
-          return null;
-      }
-      
-      // Normalize email to lowercase
-      String normalizedEmail = email.trim().toLowerCase();
-      
-      Optional<Person> personOpt = repo.findByEmailIgnoreCase(normalizedEmail);
-      
-      return personOpt.map(person -> {
-          // Generate 6-digit OTP (ensures leading zeros are preserved)
-          String otp = String.format("%06d", new java.util.Random().nextInt(999999));
-          // Store in mfaSecret temporarily (or we could add a separate field)
-          person.setMfaSecret(otp);
-          repo.save(person);
-          System.out.println("Generated Password Reset OTP for " + normalizedEmail + ": " + otp);
-          return otp;
-      }).orElse(null);
+      return generateOtp(email, OtpPurpose.PASSWORD_RESET);
   }
 
   public boolean validatePasswordResetOtp(String email, String otp) {
-      if (email == null || otp == null) {
-          return false;
-      }
-      
-      // Normalize email to lowercase and trim
-      String normalizedEmail = email.trim().toLowerCase();
-      // Trim OTP and ensure it's a string
-      String normalizedOtp = otp.trim();
-      
-      Optional<Person> personOpt = repo.findByEmailIgnoreCase(normalizedEmail);
-      
-      return personOpt.map(person -> {
-          String storedOtp = person.getMfaSecret();
-          if (storedOtp == null) {
-              System.out.println("Password Reset OTP Validation - No OTP stored for: " + normalizedEmail);
-              return false;
-          }
-          // Compare trimmed OTPs
-          boolean matches = normalizedOtp.equals(storedOtp.trim());
-          System.out.println("Password Reset OTP Validation - Email: " + normalizedEmail);
-          System.out.println("Password Reset OTP Validation - Input OTP: '" + normalizedOtp + "'");
-          System.out.println("Password Reset OTP Validation - Stored OTP: '" + storedOtp + "'");
-          System.out.println("Password Reset OTP Validation - Match: " + matches);
-          return matches;
-      }).orElse(false);
-  }
-
-  public void clearOtp(String email) {
-      repo.findByEmail(email).ifPresent(person -> {
-          person.setMfaSecret(null);
-          repo.save(person);
-      });
+      return validateOtp(email, otp, OtpPurpose.PASSWORD_RESET);
   }
 }
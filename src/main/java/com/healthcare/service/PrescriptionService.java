@@ -1,43 +1,76 @@
 package com.healthcare.service;
 
+import com.healthcare.dto.CursorPage;
+import com.healthcare.dto.PrescriptionSummary;
 import com.healthcare.model.Prescription;
 import com.healthcare.repository.PrescriptionRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class PrescriptionService {
 
+    private static final KeysetPager.Keyset<PrescriptionSummary> HISTORY = new KeysetPager.Keyset<>(
+            PrescriptionSummary.class, PrescriptionRepository.SUMMARY_SELECT, "Prescription", "p", "dateIssued",
+            PrescriptionSummary::dateIssued, PrescriptionSummary::id);
+
     private final PrescriptionRepository prescriptionRepository;
+    private final KeysetPager keysetPager;
 
-    public PrescriptionService(PrescriptionRepository prescriptionRepository) {
+    public PrescriptionService(PrescriptionRepository prescriptionRepository, KeysetPager keysetPager) {
         this.prescriptionRepository = prescriptionRepository;
+        this.keysetPager = keysetPager;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<PrescriptionSummary> getAllPrescriptions(Pageable pageable) {
+        return prescriptionRepository.findSummaries(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<PrescriptionSummary> getPrescriptionsByPatientId(Long patientId, Pageable pageable) {
+        return prescriptionRepository.findSummariesByPatientId(patientId, pageable);
     }
 
-    public Page<Prescription> getAllPrescriptions(Pageable pageable) {
-        return prescriptionRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Page<PrescriptionSummary> getPrescriptionsByDoctorId(Long doctorId, Pageable pageable) {
+        return prescriptionRepository.findSummariesByDoctorId(doctorId, pageable);
     }
 
-    public Page<Prescription> getPrescriptionsByPatientId(Long patientId, Pageable pageable) {
-        return prescriptionRepository.findByPatientId(patientId, pageable);
+    /** A patient's prescriptions, newest first, by keyset cursor. */
+    @Transactional(readOnly = true)
+    public CursorPage<PrescriptionSummary> getPrescriptionHistoryByPatientId(Long patientId, String cursor, int limit, boolean includeTotal) {
+        return keysetPager.page(HISTORY, "patient", patientId, cursor, limit, includeTotal);
     }
 
-    public Page<Prescription> getPrescriptionsByDoctorId(Long doctorId, Pageable pageable) {
-        return prescriptionRepository.findByDoctorId(doctorId, pageable);
+    /** A doctor's prescriptions, newest first, by keyset cursor. */
+    @Transactional(readOnly = true)
+    public CursorPage<PrescriptionSummary> getPrescriptionHistoryByDoctorId(Long doctorId, String cursor, int limit, boolean includeTotal) {
+        return keysetPager.page(HISTORY, "doctor", doctorId, cursor, limit, includeTotal);
     }
 
+    @Transactional(readOnly = true)
     public Prescription getPrescriptionById(Long id) {
         return prescriptionRepository.findById(id).orElse(null);
     }
 
     public Prescription createPrescription(Prescription prescription) {
+        prescription.setVersion(null);
         return prescriptionRepository.save(prescription);
     }
 
-    public Prescription updatePrescription(Long id, Prescription prescriptionDetails) {
+    /**
+     * @param expectedVersion version named by the client's If-Match header, or null for an unconditional update
+     * @throws StaleVersionException if {@code expectedVersion} is not the current version
+     */
+    public Prescription updatePrescription(Long id, Prescription prescriptionDetails, Long expectedVersion) {
         Prescription prescription = prescriptionRepository.findById(id).orElse(null);
         if (prescription != null) {
+            if (expectedVersion != null && !expectedVersion.equals(prescription.getVersion())) {
+                throw new StaleVersionException("Prescription " + id + " was modified by another request", prescription.getVersion());
+            }
             prescription.setPatient(prescriptionDetails.getPatient());
             prescription.setDoctor(prescriptionDetails.getDoctor());
             prescription.setMedication(prescriptionDetails.getMedication());
@@ -1,40 +1,195 @@
 package com.healthcare.service;
 
+import com.healthcare.dto.AppointmentSummary;
+import com.healthcare.dto.MedicalRecordSummary;
+import com.healthcare.dto.PersonSummary;
+import com.healthcare.dto.PrescriptionSummary;
 import com.healthcare.model.Appointment;
 import com.healthcare.model.Person;
 import com.healthcare.repository.AppointmentRepository;
+import com.healthcare.repository.MedicalRecordRepository;
 import com.healthcare.repository.PersonRepository;
+import com.healthcare.repository.PrescriptionRepository;
+import com.healthcare.routing.ReplicaRoute;
+import com.healthcare.search.SearchIndex;
+import com.healthcare.search.SearchIndexService;
 import com.healthcare.specification.AppointmentSpecification;
 import com.healthcare.specification.PersonSpecification;
+import com.healthcare.util.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 
 @Service
 public class SearchService {
 
     private final PersonRepository personRepository;
     private final AppointmentRepository appointmentRepository;
+    private final MedicalRecordRepository medicalRecordRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final SearchIndexService searchIndexService;
+    // Proxy of this bean: async sections call searchSection through it so @Transactional applies
+    private final SearchService self;
+    private final ExecutorService searchExecutor;
+    private final int maxLimit;
+    private final int maxCandidates;
 
-    public SearchService(PersonRepository personRepository, AppointmentRepository appointmentRepository) {
+    /** One entity type's slice of a search: a bounded page plus the cursor to continue from. */
+    public record SearchSection(String type, List<?> items, String nextCursor, long total, boolean totalExact,
+                                String error) {
+    }
+
+    public SearchService(PersonRepository personRepository, AppointmentRepository appointmentRepository,
+                         MedicalRecordRepository medicalRecordRepository, PrescriptionRepository prescriptionRepository,
+                         SearchIndexService searchIndexService, @Lazy SearchService self,
+                         @Value("${search.workers:4}") int workers,
+                         @Value("${search.max-limit:100}") int maxLimit,
+                         @Value("${search.max-candidates:50000}") int maxCandidates,
+                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         this.personRepository = personRepository;
         this.appointmentRepository = appointmentRepository;
+        this.medicalRecordRepository = medicalRecordRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        this.searchIndexService = searchIndexService;
+        this.self = self;
+        this.searchExecutor = Executors.newFixedThreadPool(workers, ThreadFactories.named("search-worker-", virtualThreads));
+        this.maxLimit = maxLimit;
+        this.maxCandidates = maxCandidates;
     }
 
-    public Map<String, Object> search(String searchTerm) {
+    @PreDestroy
+    public void shutdown() {
+        searchExecutor.shutdownNow();
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> search(String searchTerm, Pageable pageable) {
         Map<String, Object> results = new HashMap<>();
 
-        Specification<Person> personSpec = new PersonSpecification(searchTerm);
-        List<Person> persons = personRepository.findAll(personSpec);
-        results.put("persons", persons);
+        if (!searchIndexService.isReady()) {
+            // Index still building after startup: fall back to the database scan, but paginated
+            Specification<Person> personSpec = new PersonSpecification(searchTerm);
+            results.put("persons", personRepository.findAll(personSpec, pageable).map(PersonSummary::from));
 
-        Specification<Appointment> appointmentSpec = new AppointmentSpecification(searchTerm);
-        List<Appointment> appointments = appointmentRepository.findAll(appointmentSpec);
-        results.put("appointments", appointments);
+            Specification<Appointment> appointmentSpec = new AppointmentSpecification(searchTerm);
+            results.put("appointments", appointmentRepository.findAll(appointmentSpec, pageable).map(AppointmentSummary::from));
+            return results;
+        }
 
+        results.put("persons", rankedPage(SearchIndexService.Type.PERSONS, searchTerm, pageable,
+                personRepository::findSummariesByIdIn, PersonSummary::id));
+        results.put("appointments", rankedPage(SearchIndexService.Type.APPOINTMENTS, searchTerm, pageable,
+                appointmentRepository::findSummariesByIdIn, AppointmentSummary::id));
+        results.put("medicalRecords", rankedPage(SearchIndexService.Type.MEDICAL_RECORDS, searchTerm, pageable,
+                medicalRecordRepository::findSummariesByIdIn, MedicalRecordSummary::id));
+        results.put("prescriptions", rankedPage(SearchIndexService.Type.PRESCRIPTIONS, searchTerm, pageable,
+                prescriptionRepository::findSummariesByIdIn, PrescriptionSummary::id));
         return results;
     }
+
+    /**
+     * Searches every requested type concurrently; each future completes independently so callers can
+     * stream sections as they arrive.
+     */
+    public List<CompletableFuture<SearchSection>> searchAsync(String searchTerm, List<SearchIndexService.Type> types, int limit) {
+        List<CompletableFuture<SearchSection>> futures = new ArrayList<>(types.size());
+        for (SearchIndexService.Type type : types) {
+            futures.add(CompletableFuture
+                    .supplyAsync(ReplicaRoute.propagate(() -> self.searchSection(type, searchTerm, null, limit)), searchExecutor)
+                    .exceptionally(e -> new SearchSection(type.getKey(), List.of(), null, 0, false, "Search failed")));
+        }
+        return futures;
+    }
+
+    @Transactional(readOnly = true)
+    public SearchSection searchSection(SearchIndexService.Type type, String searchTerm, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxLimit));
+
+        if (!searchIndexService.isReady()) {
+            Pageable firstPage = PageRequest.of(0, pageSize);
+            Page<?> page = switch (type) {
+                case PERSONS -> personRepository.findAll(new PersonSpecification(searchTerm), firstPage)
+                        .map(PersonSummary::from);
+                case APPOINTMENTS -> appointmentRepository.findAll(new AppointmentSpecification(searchTerm), firstPage)
+                        .map(AppointmentSummary::from);
+                default -> Page.empty(firstPage);
+            };
+            return new SearchSection(type.getKey(), page.getContent(), null, page.getTotalElements(), false, null);
+        }
+
+        SearchIndex.CursorHits hits = searchIndexService.query(type, searchTerm, decodeCursor(cursor), pageSize, maxCandidates);
+        List<?> items = switch (type) {
+            case PERSONS -> loadInOrder(hits.ids(), personRepository::findSummariesByIdIn, PersonSummary::id);
+            case APPOINTMENTS -> loadInOrder(hits.ids(), appointmentRepository::findSummariesByIdIn, AppointmentSummary::id);
+            case MEDICAL_RECORDS -> loadInOrder(hits.ids(), medicalRecordRepository::findSummariesByIdIn, MedicalRecordSummary::id);
+            case PRESCRIPTIONS -> loadInOrder(hits.ids(), prescriptionRepository::findSummariesByIdIn, PrescriptionSummary::id);
+        };
+        return new SearchSection(type.getKey(), items, encodeCursor(hits.next()), hits.total(), hits.totalExact(), null);
+    }
+
+    private static String encodeCursor(SearchIndex.Cursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        String raw = cursor.score() + ":" + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SearchIndex.Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return new SearchIndex.Cursor(Integer.parseInt(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid search cursor", e);
+        }
+    }
+
+    // Only the ids of the requested page come from the index; their summaries are loaded in one query
+    private <T> Page<T> rankedPage(SearchIndexService.Type type, String term, Pageable pageable,
+                                   Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        SearchIndex.Hits hits = searchIndexService.query(type, term, (int) pageable.getOffset(), pageable.getPageSize(),
+                maxCandidates);
+        List<T> ordered = loadInOrder(hits.ids(), loader, idOf);
+        return new PageImpl<>(ordered, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()), hits.total());
+    }
+
+    private static <T> List<T> loadInOrder(List<Long> ids, Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, T> byId = new HashMap<>();
+        for (T row : loader.apply(ids)) {
+            byId.put(idOf.apply(row), row);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T row = byId.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
 }
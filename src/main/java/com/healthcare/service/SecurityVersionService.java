@@ -0,0 +1,118 @@
+package com.healthcare.service;
+
+import com.healthcare.event.EntityChangeListener;
+import com.healthcare.event.EntityUpdate;
+import com.healthcare.model.Person;
+import com.healthcare.repository.PersonRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BinaryOperator;
+
+/**
+ * Keeps the current security version of each user in memory so principal-in-token requests can be
+ * authorized without touching the persons table on every call. Committed person writes on this node
+ * replace the in-memory value directly; entries are re-read from the database once they are older
+ * than the configured TTL, which bounds how long a change made on another node goes unnoticed.
+ * Unknown (e.g. deleted) users resolve to {@link #UNKNOWN_USER}, which no token can satisfy.
+ */
+@Service
+public class SecurityVersionService implements EntityChangeListener {
+
+    public static final long UNKNOWN_USER = Long.MAX_VALUE;
+
+    private final PersonRepository personRepository;
+    private final Map<String, Entry> versions = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    public SecurityVersionService(PersonRepository personRepository,
+                                  @Value("${security.jwt.version-cache.max-entries:10000}") int maxEntries,
+                                  @Value("${security.jwt.version-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.personRepository = personRepository;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public long currentVersion(String email) {
+        String key = normalize(email);
+        long now = System.currentTimeMillis();
+        Entry entry = versions.get(key);
+        if (entry != null && entry.loadedAt + ttlMillis > now) {
+            return entry.version;
+        }
+        long version = personRepository.findSecurityVersionByEmail(key).orElse(UNKNOWN_USER);
+        // A commit may have landed while we were reading; never replace a fresh, newer stamp with an older one
+        Entry loaded = new Entry(version, now);
+        remember(key, loaded, (current, fresh) ->
+                current.version > fresh.version && current.loadedAt + ttlMillis > now ? current : fresh);
+        return version;
+    }
+
+    public void updated(String email, long version) {
+        if (email != null) {
+            remember(normalize(email), new Entry(version, System.currentTimeMillis()), (current, fresh) -> fresh);
+        }
+    }
+
+    public void forget(String email) {
+        updated(email, UNKNOWN_USER);
+    }
+
+    @Override
+    public void onInsert(Object entity) {
+        if (entity instanceof Person person) {
+            updated(person.getEmail(), person.getSecurityVersion());
+        }
+    }
+
+    @Override
+    public void onUpdate(Object entity, EntityUpdate update) {
+        if (entity instanceof Person person) {
+            updated(person.getEmail(), person.getSecurityVersion());
+        }
+    }
+
+    @Override
+    public void onDelete(Object entity) {
+        if (entity instanceof Person person) {
+            forget(person.getEmail());
+        }
+    }
+
+    int size() {
+        return versions.size();
+    }
+
+    private void remember(String key, Entry entry, BinaryOperator<Entry> merge) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        if (versions.size() >= maxEntries && !versions.containsKey(key)) {
+            makeRoom();
+        }
+        versions.merge(key, entry, merge);
+    }
+
+    private void makeRoom() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        versions.values().removeIf(entry -> entry.loadedAt <= cutoff);
+        // Still full: drop roughly a tenth of the entries rather than one per insert
+        Iterator<Entry> it = versions.values().iterator();
+        int toDrop = versions.size() - maxEntries + Math.max(1, maxEntries / 10);
+        while (toDrop-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase();
+    }
+
+    private record Entry(long version, long loadedAt) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.healthcare.service;
+
+/** Thrown when a conditional update names a version that is no longer current. */
+public class StaleVersionException extends RuntimeException {
+
+    private final Long currentVersion;
+
+    public StaleVersionException(String message, Long currentVersion) {
+        super(message);
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -6,15 +6,17 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final PersonRepository personRepository;
 
@@ -33,4 +35,15 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return new User(person.getEmail(), person.getPassword(), authorities);
     }
+
+    /**
+     * Stores a rehash of the password the user just logged in with. The password itself is unchanged,
+     * so the security version is left alone and issued tokens stay valid.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        personRepository.updatePasswordHash(user.getUsername(), newPassword);
+        return User.withUserDetails(user).password(newPassword).build();
+    }
 }
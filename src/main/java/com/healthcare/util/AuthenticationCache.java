@@ -0,0 +1,140 @@
+package com.healthcare.util;
+
+import com.healthcare.event.EntityChangeListener;
+import com.healthcare.event.EntityUpdate;
+import com.healthcare.model.Person;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, TTL-aware cache of verified JWTs. Entries are keyed by the SHA-256 digest of the
+ * token (the raw token is never stored) and live until the earlier of the token expiry and the
+ * configured TTL, or until the user is evicted after a password/role change or deletion.
+ * Evictions run from the post-commit entity listener, so a request can never re-cache the old
+ * user state between the eviction and the commit; a lookup that started before an eviction is
+ * not cached either (see {@link #generation()}).
+ */
+@Component
+public class AuthenticationCache implements EntityChangeListener {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public AuthenticationCache(@Value("${security.jwt.auth-cache.max-entries:10000}") int maxEntries,
+                               @Value("${security.jwt.auth-cache.ttl-seconds:300}") long ttlSeconds,
+                               MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.hits = meterRegistry.counter("auth.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("auth.cache.requests", "result", "miss");
+        this.evictions = meterRegistry.counter("auth.cache.evictions");
+        Gauge.builder("auth.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    public UserDetails get(String tokenDigest) {
+        Entry entry = entries.get(tokenDigest);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(tokenDigest, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.userDetails;
+    }
+
+    /**
+     * Read before loading a user; pass it back to {@link #put} so a load that raced with an eviction is dropped.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(String tokenDigest, UserDetails userDetails, long tokenExpiresAt, long loadedAtGeneration) {
+        if (maxEntries <= 0 || loadedAtGeneration != generation.get()) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        long expiresAt = Math.min(tokenExpiresAt, System.currentTimeMillis() + ttlMillis);
+        entries.put(tokenDigest, new Entry(userDetails, expiresAt));
+    }
+
+    /**
+     * Drops every cached token for the given user so the next request re-reads them from the database.
+     */
+    public void evictUser(String username) {
+        if (username == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        entries.values().removeIf(entry -> entry.userDetails.getUsername().equalsIgnoreCase(username));
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    @Override
+    public void onUpdate(Object entity, EntityUpdate update) {
+        if (entity instanceof Person person) {
+            evictUser(person.getEmail());
+        }
+    }
+
+    @Override
+    public void onDelete(Object entity) {
+        if (entity instanceof Person person) {
+            evictUser(person.getEmail());
+        }
+    }
+
+    public String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        // Still full: drop roughly a tenth of the entries rather than one per insert
+        Iterator<Entry> it = entries.values().iterator();
+        int toDrop = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        while (toDrop-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry(UserDetails userDetails, long expiresAt) {
+    }
+}
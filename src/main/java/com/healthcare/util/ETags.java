@@ -0,0 +1,38 @@
+package com.healthcare.util;
+
+/**
+ * Entity-version ETags for conditional updates. The ETag of a versioned entity is its
+ * {@code @Version} value in quotes, e.g. {@code "3"}.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + (version != null ? version : 0L) + "\"";
+    }
+
+    /**
+     * Returns the version an If-Match header requires, or null when the header is absent or {@code *}.
+     *
+     * @throws IllegalArgumentException if the header is not a single version ETag
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must be an ETag returned by this API");
+        }
+    }
+}
@@ -1,17 +1,25 @@
 package com.healthcare.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
@@ -19,9 +27,28 @@ public class JwtUtil {
     // JWT secret key must be at least 256 bits (32 bytes) for HMAC-SHA algorithms
     // This is a 32-character string = 256 bits
     private String SECRET_KEY = "MySecretKeyForJWTTokenGeneration2024HealthcareSystem";
-    
+
+    // Key and parser are immutable and thread-safe, so build them once instead of per request
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+
+    // Opt-in: roles, person id and security version travel as signed claims (see principalFromClaims)
+    private final boolean principalInToken;
+
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_PERSON_ID = "pid";
+    public static final String CLAIM_SECURITY_VERSION = "sv";
+
+    public JwtUtil(@Value("${security.jwt.principal-in-token:false}") boolean principalInToken) {
+        this.principalInToken = principalInToken;
+        this.signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
     }
 
     public String extractUsername(String token) {
@@ -36,17 +63,27 @@ public class JwtUtil {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
-    
+
+    /**
+     * Verifies the signature and expiry of the token and returns its claims in a single parse.
+     * Throws a {@link io.jsonwebtoken.JwtException} when the token is invalid or expired.
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
+    }
+
+    public boolean isPrincipalInToken() {
+        return principalInToken;
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -54,6 +91,39 @@ public class JwtUtil {
         return createToken(claims, userDetails.getUsername());
     }
 
+    public String generateToken(UserDetails userDetails, Long personId, long securityVersion) {
+        if (!principalInToken) {
+            return generateToken(userDetails);
+        }
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_ROLES, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList()));
+        claims.put(CLAIM_PERSON_ID, personId);
+        claims.put(CLAIM_SECURITY_VERSION, securityVersion);
+        return createToken(claims, userDetails.getUsername());
+    }
+
+    public boolean hasPrincipalClaims(Claims claims) {
+        return principalInToken && claims.containsKey(CLAIM_ROLES) && claims.containsKey(CLAIM_SECURITY_VERSION);
+    }
+
+    public long extractSecurityVersion(Claims claims) {
+        Number version = claims.get(CLAIM_SECURITY_VERSION, Number.class);
+        return version != null ? version.longValue() : 0L;
+    }
+
+    /**
+     * Rebuilds the authenticated principal from signed claims only. The password is never part of the token.
+     */
+    public UserDetails principalFromClaims(Claims claims) {
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        Collection<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .collect(Collectors.toSet());
+        return new User(claims.getSubject(), "", authorities);
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
@@ -65,7 +135,11 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return validateClaims(claims, userDetails);
+    }
+
+    public Boolean validateClaims(Claims claims, UserDetails userDetails) {
+        return (claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims));
     }
 }
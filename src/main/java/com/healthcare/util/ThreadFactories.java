@@ -0,0 +1,41 @@
+package com.healthcare.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Creates named thread factories for the application's own worker pools. When virtual threads are
+ * requested and the runtime supports them (Java 21+), the factory produces virtual threads; on older
+ * runtimes it falls back to daemon platform threads. Reflection keeps the build on Java 17.
+ */
+public final class ThreadFactories {
+
+    private static final Logger logger = Logger.getLogger(ThreadFactories.class.getName());
+
+    private ThreadFactories() {
+    }
+
+    public static boolean virtualThreadsSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    public static ThreadFactory named(String prefix, boolean virtualRequested) {
+        if (virtualRequested && virtualThreadsSupported()) {
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+                builder = ofVirtual.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+                return (ThreadFactory) ofVirtual.getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                logger.warning("Virtual threads unavailable, using platform threads for " + prefix + ": " + e.getMessage());
+            }
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
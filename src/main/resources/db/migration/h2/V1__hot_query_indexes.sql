@@ -0,0 +1,23 @@
+-- Indexes backing the repository query methods. Tables are still created by Hibernate
+-- (ddl-auto=update); these migrations run right after it, so every statement is idempotent.
+-- H2 has no functional or INCLUDE indexes: LOWER(email) lookups rely on the unique email index
+-- being small in development, and the bookings load uses a plain composite index instead.
+
+-- persons: hospital rosters, location joins
+CREATE INDEX IF NOT EXISTS idx_persons_hospital_id ON persons (hospital_id);
+CREATE INDEX IF NOT EXISTS idx_persons_village_id ON persons (village_id);
+
+-- person_roles: role filters (countByRoles_Name, findByRoles_Name) start from role_id
+CREATE INDEX IF NOT EXISTS idx_person_roles_role ON person_roles (role_id, person_id);
+
+-- appointments: per-patient/per-doctor pages and histories, status counts, upcoming-bookings load
+CREATE INDEX IF NOT EXISTS idx_appointments_patient_date ON appointments (patient_id, date, id);
+CREATE INDEX IF NOT EXISTS idx_appointments_doctor_date ON appointments (doctor_id, date, id);
+CREATE INDEX IF NOT EXISTS idx_appointments_status ON appointments (status);
+CREATE INDEX IF NOT EXISTS idx_appointments_date_booking ON appointments (date, doctor_id, time, status);
+
+-- medical_records and prescriptions: per-patient/per-doctor pages and histories
+CREATE INDEX IF NOT EXISTS idx_medical_records_patient_date ON medical_records (patient_id, date, id);
+CREATE INDEX IF NOT EXISTS idx_medical_records_doctor_date ON medical_records (doctor_id, date, id);
+CREATE INDEX IF NOT EXISTS idx_prescriptions_patient_date_issued ON prescriptions (patient_id, date_issued, id);
+CREATE INDEX IF NOT EXISTS idx_prescriptions_doctor_date_issued ON prescriptions (doctor_id, date_issued, id);
@@ -0,0 +1,4 @@
+-- Rows written before optimistic locking have no version; Hibernate cannot increment a NULL version.
+UPDATE appointments SET version = 0 WHERE version IS NULL;
+UPDATE medical_records SET version = 0 WHERE version IS NULL;
+UPDATE prescriptions SET version = 0 WHERE version IS NULL;
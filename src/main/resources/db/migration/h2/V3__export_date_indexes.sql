@@ -0,0 +1,3 @@
+-- Date-range exports (/api/exports) across all patients and doctors
+CREATE INDEX IF NOT EXISTS idx_medical_records_date ON medical_records (date, id);
+CREATE INDEX IF NOT EXISTS idx_prescriptions_date_issued ON prescriptions (date_issued, id);
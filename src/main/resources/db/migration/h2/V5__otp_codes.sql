@@ -0,0 +1,12 @@
+-- One-time codes moved out of persons into their own table. Empty databases get it from V0; schemas
+-- that were still built by Hibernate before Flyway took over the DDL may not have it yet.
+CREATE TABLE IF NOT EXISTS otp_codes (
+    attempts integer NOT NULL,
+    expires_at timestamp(6) NOT NULL,
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    code_hash varchar(64) NOT NULL,
+    otp_key varchar(330) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_otp_codes_key UNIQUE (otp_key)
+);
+CREATE INDEX IF NOT EXISTS idx_otp_codes_expires ON otp_codes (expires_at);
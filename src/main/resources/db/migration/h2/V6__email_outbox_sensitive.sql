@@ -0,0 +1,3 @@
+-- Marks outbox messages that carry one-time codes or reset links; their body is cleared once the
+-- message is sent or given up on.
+ALTER TABLE email_outbox ADD COLUMN IF NOT EXISTS sensitive boolean DEFAULT FALSE NOT NULL;
@@ -0,0 +1,202 @@
+-- Baseline schema, matching the JPA entities (Hibernate only validates it, ddl-auto=validate).
+-- Runs on empty databases only: schemas that existed before Flyway are baselined at version 0, which
+-- marks this script as already applied. Later scripts must still tolerate both paths, hence IF [NOT] EXISTS.
+
+CREATE SEQUENCE password_reset_token_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE persons_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE appointments (
+    date date,
+    time time(6),
+    doctor_id bigint,
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    patient_id bigint,
+    version bigint,
+    hospital_id varchar(255),
+    hospital_name varchar(255),
+    insurance varchar(255),
+    service_id varchar(255),
+    service_name varchar(255),
+    status varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE cells (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    sector_id bigint,
+    name varchar(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE districts (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    province_id bigint,
+    name varchar(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE email_outbox (
+    attempts integer NOT NULL,
+    created_at timestamp(6),
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    next_attempt_at timestamp(6),
+    sent_at timestamp(6),
+    last_error varchar(1000),
+    body varchar(4000),
+    recipient varchar(255) NOT NULL,
+    status varchar(255),
+    subject varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE hospitals (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    category varchar(255),
+    district varchar(255),
+    name varchar(255),
+    province varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE idempotency_keys (
+    created_at timestamp(6),
+    expires_at timestamp(6),
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    resource_id bigint,
+    fingerprint varchar(64),
+    scope varchar(64) NOT NULL,
+    idempotency_key varchar(128) NOT NULL,
+    owner varchar(255) NOT NULL,
+    status varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_idempotency_owner_scope_key UNIQUE (owner, scope, idempotency_key)
+);
+
+CREATE TABLE medical_records (
+    date date,
+    reviewed boolean NOT NULL,
+    doctor_id bigint,
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    patient_id bigint,
+    version bigint,
+    diagnosis varchar(255),
+    notes varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE otp_codes (
+    attempts integer NOT NULL,
+    expires_at timestamp(6) NOT NULL,
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    code_hash varchar(64) NOT NULL,
+    otp_key varchar(330) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_otp_codes_key UNIQUE (otp_key)
+);
+
+CREATE TABLE password_reset_token (
+    expiry_date timestamp(6),
+    id bigint NOT NULL,
+    person_id bigint NOT NULL,
+    token_hash varchar(64),
+    PRIMARY KEY (id),
+    CONSTRAINT idx_password_reset_token_hash UNIQUE (token_hash)
+);
+
+CREATE TABLE person_roles (
+    person_id bigint NOT NULL,
+    role_id bigint NOT NULL,
+    PRIMARY KEY (person_id, role_id)
+);
+
+CREATE TABLE persons (
+    age integer,
+    mfa_enabled boolean NOT NULL,
+    id bigint NOT NULL,
+    security_version bigint,
+    village_id bigint,
+    email varchar(255) NOT NULL UNIQUE,
+    full_name varchar(255) NOT NULL,
+    gender varchar(255),
+    hospital_id varchar(255),
+    insurance varchar(255),
+    password varchar(255) NOT NULL,
+    phone varchar(255),
+    specialty varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE prescriptions (
+    date_issued date,
+    duration_days integer,
+    doctor_id bigint,
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    patient_id bigint,
+    version bigint,
+    dosage varchar(255),
+    frequency varchar(255),
+    instructions varchar(255),
+    medication varchar(255),
+    status varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE provinces (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    name varchar(255) NOT NULL UNIQUE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE roles (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    name varchar(255) NOT NULL UNIQUE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE sectors (
+    district_id bigint,
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    name varchar(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE services (
+    price_rwf float(53),
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    category varchar(255),
+    name varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE villages (
+    cell_id bigint,
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    name varchar(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_appointments_patient_date ON appointments (patient_id, date, id);
+CREATE INDEX idx_appointments_doctor_date ON appointments (doctor_id, date, id);
+CREATE INDEX idx_email_outbox_status_next ON email_outbox (status, next_attempt_at);
+CREATE INDEX idx_idempotency_expires ON idempotency_keys (expires_at);
+CREATE INDEX idx_medical_records_patient_date ON medical_records (patient_id, date, id);
+CREATE INDEX idx_medical_records_doctor_date ON medical_records (doctor_id, date, id);
+CREATE INDEX idx_otp_codes_expires ON otp_codes (expires_at);
+CREATE INDEX idx_password_reset_token_expiry ON password_reset_token (expiry_date);
+CREATE INDEX idx_prescriptions_patient_date_issued ON prescriptions (patient_id, date_issued, id);
+CREATE INDEX idx_prescriptions_doctor_date_issued ON prescriptions (doctor_id, date_issued, id);
+
+ALTER TABLE appointments ADD CONSTRAINT fk_appointments_doctor FOREIGN KEY (doctor_id) REFERENCES persons (id);
+ALTER TABLE appointments ADD CONSTRAINT fk_appointments_patient FOREIGN KEY (patient_id) REFERENCES persons (id);
+ALTER TABLE cells ADD CONSTRAINT fk_cells_sector FOREIGN KEY (sector_id) REFERENCES sectors (id);
+ALTER TABLE districts ADD CONSTRAINT fk_districts_province FOREIGN KEY (province_id) REFERENCES provinces (id);
+ALTER TABLE medical_records ADD CONSTRAINT fk_medical_records_doctor FOREIGN KEY (doctor_id) REFERENCES persons (id);
+ALTER TABLE medical_records ADD CONSTRAINT fk_medical_records_patient FOREIGN KEY (patient_id) REFERENCES persons (id);
+ALTER TABLE password_reset_token ADD CONSTRAINT fk_password_reset_token_person FOREIGN KEY (person_id) REFERENCES persons (id);
+ALTER TABLE person_roles ADD CONSTRAINT fk_person_roles_role FOREIGN KEY (role_id) REFERENCES roles (id);
+ALTER TABLE person_roles ADD CONSTRAINT fk_person_roles_person FOREIGN KEY (person_id) REFERENCES persons (id);
+ALTER TABLE persons ADD CONSTRAINT fk_persons_village FOREIGN KEY (village_id) REFERENCES villages (id);
+ALTER TABLE prescriptions ADD CONSTRAINT fk_prescriptions_doctor FOREIGN KEY (doctor_id) REFERENCES persons (id);
+ALTER TABLE prescriptions ADD CONSTRAINT fk_prescriptions_patient FOREIGN KEY (patient_id) REFERENCES persons (id);
+ALTER TABLE sectors ADD CONSTRAINT fk_sectors_district FOREIGN KEY (district_id) REFERENCES districts (id);
+ALTER TABLE villages ADD CONSTRAINT fk_villages_cell FOREIGN KEY (cell_id) REFERENCES cells (id);
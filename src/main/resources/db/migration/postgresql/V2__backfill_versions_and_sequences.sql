@@ -0,0 +1,8 @@
+-- Rows written before optimistic locking have no version; Hibernate cannot increment a NULL version.
+UPDATE appointments SET version = 0 WHERE version IS NULL;
+UPDATE medical_records SET version = 0 WHERE version IS NULL;
+UPDATE prescriptions SET version = 0 WHERE version IS NULL;
+
+-- persons moved from IDENTITY to a pooled sequence; start it past the existing ids (never move it back)
+SELECT setval('persons_seq', GREATEST((SELECT last_value FROM persons_seq),
+                                      (SELECT COALESCE(MAX(id), 0) FROM persons) + 50));
@@ -0,0 +1,11 @@
+-- Reset tokens are now stored only as SHA-256 hashes (token_hash). Links issued before this carry
+-- no hash and can never match again, so they are dropped together with the plaintext column.
+ALTER TABLE password_reset_token ADD COLUMN IF NOT EXISTS token_hash VARCHAR(64);
+DELETE FROM password_reset_token WHERE token_hash IS NULL;
+ALTER TABLE password_reset_token DROP COLUMN IF EXISTS token;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_password_reset_token_hash ON password_reset_token (token_hash);
+CREATE INDEX IF NOT EXISTS idx_password_reset_token_expiry ON password_reset_token (expiry_date);
+CREATE INDEX IF NOT EXISTS idx_password_reset_token_person ON password_reset_token (person_id);
+
+-- Housekeeping: finished outbox messages past retention
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_created ON email_outbox (status, created_at);
@@ -0,0 +1,30 @@
+package com.healthcare;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements prepared on the current thread. Hibernate's global statistics also see the
+ * schedulers' queries, which makes exact counts flaky; tests that assert statement counts register this
+ * inspector with {@code @SpringBootTest(properties = StatementCounter.PROPERTY)} and share one context.
+ */
+public class StatementCounter implements StatementInspector {
+
+    public static final String PROPERTY =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.healthcare.StatementCounter";
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static long count() {
+        return COUNT.get()[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+}
@@ -0,0 +1,152 @@
+package com.healthcare.analytics;
+
+import com.healthcare.event.EntityUpdate;
+import com.healthcare.model.Appointment;
+import com.healthcare.model.Cell;
+import com.healthcare.model.District;
+import com.healthcare.model.Person;
+import com.healthcare.model.Sector;
+import com.healthcare.model.Village;
+import com.healthcare.repository.AppointmentRepository;
+import com.healthcare.repository.PrescriptionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AnalyticsEngineTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+    private static final String[] PROPERTIES = {"date", "hospitalId", "serviceId", "status", "patient"};
+
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final PrescriptionRepository prescriptionRepository = mock(PrescriptionRepository.class);
+    private AnalyticsEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        when(prescriptionRepository.findAll(any(Pageable.class))).thenAnswer(call -> Page.empty(call.getArgument(0)));
+        engine = new AnalyticsEngine(appointmentRepository, prescriptionRepository,
+                mock(EntityManager.class), mock(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void changesCommittedDuringARebuildSurviveTheSwap() {
+        // Snapshot: #1 pending (v0), #2 already confirmed (v1, its update committed before the snapshot)
+        Appointment first = appointment(1L, 0L, "pending");
+        Appointment secondInSnapshot = appointment(2L, 1L, "confirmed");
+        when(appointmentRepository.findAll(any(Pageable.class))).thenAnswer(call -> {
+            // While the scan runs: #1 is confirmed and #3 is booked after the snapshot, and the
+            // listener for #2's earlier commit only arrives now
+            engine.onUpdate(appointment(1L, 1L, "confirmed"), previous("pending"));
+            engine.onInsert(appointment(3L, 0L, "pending"));
+            engine.onUpdate(appointment(2L, 1L, "confirmed"), previous("pending"));
+            return new PageImpl<>(List.of(first, secondInSnapshot), call.getArgument(0), 2);
+        });
+        when(appointmentRepository.findVersionsByIdIn(anyList()))
+                .thenReturn(List.of(new RowVersion(1L, 0L), new RowVersion(2L, 1L)));
+
+        assertThat(engine.rebuild()).isTrue();
+
+        assertThat(statusCounts()).isEqualTo(Map.of("confirmed", 2L, "pending", 1L));
+        assertThat(engine.getLastRebuiltAt()).isNotNull();
+    }
+
+    @Test
+    void deletesAfterTheSnapshotAreReplayedOnce() {
+        when(appointmentRepository.findAll(any(Pageable.class))).thenAnswer(call -> {
+            engine.onDelete(appointment(1L, 0L, "pending"));
+            return new PageImpl<>(List.of(appointment(1L, 0L, "pending"), appointment(2L, 0L, "pending")),
+                    call.getArgument(0), 2);
+        });
+        when(appointmentRepository.findVersionsByIdIn(anyList())).thenReturn(List.of(new RowVersion(1L, 0L)));
+
+        engine.rebuild();
+
+        assertThat(statusCounts()).isEqualTo(Map.of("pending", 1L));
+    }
+
+    @Test
+    void onlyOneRebuildRunsAtATime() throws Exception {
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(appointmentRepository.findAll(any(Pageable.class))).thenAnswer(call -> {
+            scanning.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Page.empty(call.getArgument(0));
+        });
+
+        assertThat(engine.rebuildAsync()).isTrue();
+        assertThat(scanning.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(engine.rebuildAsync()).isFalse();
+        assertThat(engine.rebuild()).isFalse();
+        release.countDown();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (engine.isRebuilding() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(engine.isRebuilding()).isFalse();
+        assertThat(engine.getLastRebuiltAt()).isNotNull();
+    }
+
+    @Test
+    void updatesRetractFromTheDistrictTheAppointmentWasCountedIn() {
+        Person patient = Person.builder().id(7L).village(village("Gasabo")).build();
+        Appointment appointment = appointment(1L, 0L, "pending");
+        appointment.setPatient(patient);
+        engine.onInsert(appointment);
+
+        // The patient moves, then the appointment is confirmed
+        patient.setVillage(village("Huye"));
+        appointment.setStatus("confirmed");
+        appointment.setVersion(1L);
+        engine.onUpdate(appointment, new EntityUpdate(PROPERTIES, new Object[]{DAY, "h1", "s1", "pending", patient}));
+
+        assertThat(engine.query(AnalyticsEngine.APPOINTMENTS, Granularity.DAY, "district", DAY, DAY).get(DAY))
+                .isEqualTo(Map.of("Huye", 1L));
+
+        engine.onDelete(appointment);
+        assertThat(engine.query(AnalyticsEngine.APPOINTMENTS, Granularity.DAY, "district", DAY, DAY)).isEmpty();
+    }
+
+    private Map<String, Long> statusCounts() {
+        return engine.query(AnalyticsEngine.APPOINTMENTS, Granularity.DAY, "status", DAY, DAY)
+                .getOrDefault(DAY, Map.of());
+    }
+
+    private static Appointment appointment(Long id, Long version, String status) {
+        return Appointment.builder().id(id).version(version).date(DAY).hospitalId("h1").serviceId("s1")
+                .status(status).build();
+    }
+
+    private static Village village(String district) {
+        return Village.builder().cell(Cell.builder().sector(Sector.builder()
+                .district(District.builder().name(district).build()).build()).build()).build();
+    }
+
+    private static EntityUpdate previous(String status) {
+        return new EntityUpdate(PROPERTIES, new Object[]{DAY, "h1", "s1", status, null});
+    }
+}
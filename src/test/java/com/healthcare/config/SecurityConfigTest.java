@@ -0,0 +1,77 @@
+package com.healthcare.config;
+
+import com.healthcare.service.UserDetailsServiceImpl;
+import com.healthcare.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Observability is needed for the Prometheus endpoint to exist; tests switch it off by default
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class SecurityConfigTest {
+
+    private static final String ADMIN = "badagaclass@gmail.com";
+    private static final String DOCTOR = "doctor@health.rw";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Test
+    void healthIsOpen() throws Exception {
+        // No SMTP server here, so the mail indicator may report DOWN (503); only access is checked
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(result -> assertThat(result.getResponse().getStatus()).isIn(200, 503));
+    }
+
+    @Test
+    void prometheusNeedsAuthenticationOnTheApplicationPort() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", bearer(ADMIN)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void exportsAreForAdministratorsOnly() throws Exception {
+        mockMvc.perform(get("/api/exports/prescriptions").header("Authorization", bearer(DOCTOR)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/exports/prescriptions").header("Authorization", bearer(ADMIN)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void patientImportIsForAdministratorsOnly() throws Exception {
+        mockMvc.perform(post("/api/persons/import").header("Authorization", bearer(DOCTOR))
+                        .contentType("text/csv").content("fullName,email\n"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void analyticsRebuildIsForAdministratorsOnly() throws Exception {
+        mockMvc.perform(post("/api/analytics/rebuild").header("Authorization", bearer(DOCTOR)))
+                .andExpect(status().isForbidden());
+        // Accepted, or 409 while the startup rebuild is still running
+        mockMvc.perform(post("/api/analytics/rebuild").header("Authorization", bearer(ADMIN)))
+                .andExpect(result -> assertThat(result.getResponse().getStatus()).isIn(202, 409));
+    }
+
+    private String bearer(String email) {
+        return "Bearer " + jwtUtil.generateToken(userDetailsService.loadUserByUsername(email));
+    }
+}
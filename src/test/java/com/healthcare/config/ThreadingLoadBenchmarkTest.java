@@ -0,0 +1,158 @@
+package com.healthcare.config;
+
+import com.healthcare.HealthcareApplication;
+import com.healthcare.util.ThreadFactories;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Platform threads against virtual threads under the same client load: the application is started
+ * twice on a random port, once per threading mode, each with its own in-memory database, and hit by
+ * concurrent HTTP clients: {@value #CLIENTS} with authenticated GET /api/appointments (JDBC-bound) and
+ * {@value #LOGIN_CLIENTS} with POST /api/auth/login (BCrypt-bound, on the password hashing pool). Throughput and p99 latency are
+ * logged per endpoint and mode; every response must be a 200.
+ * <p>
+ * The virtual run uses the pairing application.properties recommends (max-in-flight at the JDBC pool
+ * size). On a runtime without virtual threads Spring Boot keeps Tomcat on platform threads, so both
+ * runs then measure the same thing and the log line says so; run with -Pjava21 on Java 21 for a real
+ * comparison. Login uses a fixed BCrypt strength so calibration cannot differ between the two runs.
+ */
+class ThreadingLoadBenchmarkTest {
+
+    private static final Logger logger = Logger.getLogger(ThreadingLoadBenchmarkTest.class.getName());
+    private static final int CLIENTS = 64;
+    // Login holds a JDBC connection while it waits for the hashing pool, so more login clients than
+    // pool connections measures connection timeouts rather than the threading mode
+    private static final int LOGIN_CLIENTS = 16;
+    private static final int WARMUP = 100;
+    private static final int LIST_REQUESTS = 2_000;
+    private static final int LOGIN_REQUESTS = 100;
+    private static final String LOGIN_BODY = "{\"email\":\"doctor@health.rw\",\"password\":\"Doctor123!\"}";
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static final String LIST = "GET /api/appointments";
+    private static final String LOGIN = "POST /api/auth/login";
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @Test
+    void platformAndVirtualThreadsServeTheSameLoad() throws Exception {
+        Map<String, Result> platform = run(false);
+        Map<String, Result> virtual = run(true);
+
+        for (String endpoint : List.of(LIST, LOGIN)) {
+            assertThat(platform.get(endpoint).failures()).isZero();
+            assertThat(virtual.get(endpoint).failures()).isZero();
+        }
+    }
+
+    private Map<String, Result> run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(HealthcareApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:threading_load_" + mode + ";DB_CLOSE_DELAY=-1",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.concurrency.max-in-flight=" + (virtualThreads ? 20 : 0),
+                        "--ratelimit.enabled=false",
+                        "--password.hash.strength=10",
+                        "--spring.jmx.enabled=false")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port;
+            HttpRequest login = HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+                    .build();
+            Matcher token = TOKEN.matcher(client.send(login, HttpResponse.BodyHandlers.ofString()).body());
+            assertThat(token.find()).isTrue();
+            HttpRequest list = HttpRequest.newBuilder(URI.create(base + "/api/appointments?page=0&size=20"))
+                    .header("Authorization", "Bearer " + token.group(1))
+                    .GET()
+                    .build();
+
+            load(list, CLIENTS, WARMUP);
+            load(login, LOGIN_CLIENTS, WARMUP / 10);
+            Map<String, Result> results = Map.of(LIST, load(list, CLIENTS, LIST_REQUESTS),
+                    LOGIN, load(login, LOGIN_CLIENTS, LOGIN_REQUESTS));
+            // Logged while the context is up: closing it detaches the logging bridge
+            String threads = !virtualThreads ? "platform threads" : ThreadFactories.virtualThreadsSupported()
+                    ? "virtual threads" : "virtual threads requested, unavailable on Java " + Runtime.version().feature();
+            results.forEach((endpoint, result) -> logger.info(String.format(
+                    "%s, %s with %d clients: %.0f req/s, p99 %.1f ms, %d failed",
+                    threads, endpoint, result.clients(), result.throughput(), result.p99Millis(), result.failures())));
+            return results;
+        }
+    }
+
+    private Result load(HttpRequest request, int clientCount, int requests) throws Exception {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(clientCount);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int c = 0; c < clientCount; c++) {
+                workers.add(clients.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        long sent = System.nanoTime();
+                        int status = send(request);
+                        latencies[i] = System.nanoTime() - sent;
+                        if (status != 200) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Result(clientCount, requests, elapsed, latencies[(int) Math.ceil(requests * 0.99) - 1], failures.get());
+    }
+
+    private int send(HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private record Result(int clients, int requests, long elapsedNanos, long p99Nanos, int failures) {
+
+        double throughput() {
+            return requests / (elapsedNanos / 1e9);
+        }
+
+        double p99Millis() {
+            return p99Nanos / 1e6;
+        }
+    }
+}
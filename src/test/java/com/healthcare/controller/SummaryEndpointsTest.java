@@ -0,0 +1,84 @@
+package com.healthcare.controller;
+
+import com.healthcare.model.Appointment;
+import com.healthcare.model.Person;
+import com.healthcare.repository.AppointmentRepository;
+import com.healthcare.repository.PersonRepository;
+import com.healthcare.service.UserDetailsServiceImpl;
+import com.healthcare.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** List endpoints answer with summary rows: flat participant names, no credentials or nested entities. */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class SummaryEndpointsTest {
+
+    private static final String ADMIN = "badagaclass@gmail.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Test
+    void personListsCarryNoCredentials() throws Exception {
+        mockMvc.perform(get("/api/persons").param("size", "100").header("Authorization", bearer(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].email", hasItem("doctor@health.rw")))
+                .andExpect(jsonPath("$.content[0].fullName").exists())
+                .andExpect(jsonPath("$.content[0].password").doesNotExist())
+                .andExpect(jsonPath("$.content[0].roles").doesNotExist());
+
+        mockMvc.perform(get("/api/persons/role/DOCTOR").param("size", "100").header("Authorization", bearer(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].email", hasItem("doctor@health.rw")))
+                .andExpect(jsonPath("$.content[*].email", everyItem(not("patient@health.rw"))));
+    }
+
+    @Test
+    void appointmentListsNameTheParticipants() throws Exception {
+        Person patient = personRepository.save(Person.builder().fullName("Summary Patient")
+                .email("summary-patient@endpoints.test").password("unused").build());
+        Person doctor = personRepository.findByEmail("doctor@health.rw").orElseThrow();
+        appointmentRepository.save(Appointment.builder().patient(patient).doctor(doctor)
+                .date(LocalDate.now().plusDays(7)).time(LocalTime.of(11, 0)).status("pending").build());
+
+        mockMvc.perform(get("/api/appointments/patient/" + patient.getId()).header("Authorization", bearer(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].patientId").value(patient.getId()))
+                .andExpect(jsonPath("$.content[0].patientName").value(patient.getFullName()))
+                .andExpect(jsonPath("$.content[0].doctorName").value(doctor.getFullName()))
+                .andExpect(jsonPath("$.content[0].patient").doesNotExist())
+                .andExpect(jsonPath("$.content[0].doctor").doesNotExist());
+    }
+
+    private String bearer(String email) {
+        return "Bearer " + jwtUtil.generateToken(userDetailsService.loadUserByUsername(email));
+    }
+}
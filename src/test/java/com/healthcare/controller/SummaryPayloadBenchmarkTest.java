@@ -0,0 +1,106 @@
+package com.healthcare.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.model.Appointment;
+import com.healthcare.model.Person;
+import com.healthcare.repository.AppointmentRepository;
+import com.healthcare.repository.PersonRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Payload size and serialization time of a list page returned as entities (what the list endpoints
+ * answered with before) and as summary rows (what they answer with now). Both pages hold the same
+ * {@value #ROWS} appointments and persons, read in one transaction and written with the application's
+ * ObjectMapper. Sizes are asserted; timings are logged for comparison.
+ */
+@SpringBootTest
+@Transactional
+class SummaryPayloadBenchmarkTest {
+
+    private static final Logger logger = Logger.getLogger(SummaryPayloadBenchmarkTest.class.getName());
+    private static final int ROWS = 100;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2_000;
+    private static final Pageable PAGE = PageRequest.of(0, ROWS, Sort.by(Sort.Direction.DESC, "id"));
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void summaryPagesAreSmallerThanEntityPages() throws Exception {
+        for (int i = 0; i < ROWS; i++) {
+            Person patient = person("payload-patient-" + i);
+            Person doctor = person("payload-doctor-" + i);
+            appointmentRepository.save(Appointment.builder().patient(patient).doctor(doctor)
+                    .date(LocalDate.now().plusDays(i % 30)).time(LocalTime.of(9, 0)).status("pending")
+                    .hospitalId("h-1").hospitalName("Kigali University Teaching Hospital")
+                    .serviceId("s-1").serviceName("General consultation").build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Payload appointments = compare(appointmentRepository.findAll(PAGE).getContent(),
+                appointmentRepository.findSummaries(PAGE).getContent());
+        Payload persons = compare(personRepository.findAll(PAGE).getContent(),
+                personRepository.findSummaries(PAGE).getContent());
+
+        logger.info(String.format("Appointments page of %d: entities %d bytes, %.1f us; summaries %d bytes, %.1f us",
+                ROWS, appointments.entityBytes, appointments.entityMicros, appointments.summaryBytes,
+                appointments.summaryMicros));
+        logger.info(String.format("Persons page of %d: entities %d bytes, %.1f us; summaries %d bytes, %.1f us",
+                ROWS, persons.entityBytes, persons.entityMicros, persons.summaryBytes, persons.summaryMicros));
+
+        assertThat(appointments.summaryBytes).isLessThan(appointments.entityBytes);
+        assertThat(persons.summaryBytes).isLessThan(persons.entityBytes);
+    }
+
+    private Payload compare(List<?> entities, List<?> summaries) throws Exception {
+        assertThat(summaries).hasSameSizeAs(entities);
+        // Entities are serialized first so lazy associations are loaded before either run is timed
+        int entityBytes = objectMapper.writeValueAsBytes(entities).length;
+        int summaryBytes = objectMapper.writeValueAsBytes(summaries).length;
+        return new Payload(entityBytes, time(entities), summaryBytes, time(summaries));
+    }
+
+    private double time(List<?> rows) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            objectMapper.writeValueAsBytes(rows);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            objectMapper.writeValueAsBytes(rows);
+        }
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+
+    private Person person(String name) {
+        return personRepository.save(Person.builder().fullName(name).email(name + "@payload.test")
+                .phone("0788000000").password("unused").build());
+    }
+
+    private record Payload(int entityBytes, double entityMicros, int summaryBytes, double summaryMicros) {
+    }
+}
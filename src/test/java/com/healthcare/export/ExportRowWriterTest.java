@@ -0,0 +1,48 @@
+package com.healthcare.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportRowWriterTest {
+
+    private static final List<String> COLUMNS = List.of("id", "diagnosis", "notes", "date");
+
+    @Test
+    void csvQuotesSeparatorsAndNeutralisesFormulas() throws IOException {
+        String csv = write(ExportFormat.CSV,
+                new Object[]{1L, "=HYPERLINK(\"http://x\",\"click\")", "Fever, cough", LocalDate.of(2026, 3, 2)},
+                new Object[]{2L, "+254", "@SUM(A1)", null},
+                new Object[]{-3L, "-1+1", "\tTabbed", null});
+
+        assertThat(csv.split("\r\n")).containsExactly(
+                "id,diagnosis,notes,date",
+                "1,\"'=HYPERLINK(\"\"http://x\"\",\"\"click\"\")\",\"Fever, cough\",2026-03-02",
+                "2,'+254,'@SUM(A1),",
+                "-3,'-1+1,'\tTabbed,");
+    }
+
+    @Test
+    void ndjsonKeepsValuesAsIs() throws IOException {
+        String ndjson = write(ExportFormat.NDJSON, new Object[]{1L, "=1+1", null, LocalDate.of(2026, 3, 2)});
+
+        assertThat(ndjson).isEqualTo("{\"id\":1,\"diagnosis\":\"=1+1\",\"notes\":null,\"date\":\"2026-03-02\"}\n");
+    }
+
+    private static String write(ExportFormat format, Object[]... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportRowWriter writer = ExportRowWriter.of(format, out, COLUMNS, new ObjectMapper())) {
+            for (Object[] row : rows) {
+                writer.write(row);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,105 @@
+package com.healthcare.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void requestsOverTheLimitAreTurnedAwayWithRetryAfter() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 50, meterRegistry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> slow = CompletableFuture.supplyAsync(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/appointments"), response, (req, res) -> {
+                    entered.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return response;
+        });
+        assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("http.server.requests.in_flight").gauge().value()).isEqualTo(1.0);
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/appointments"), rejected,
+                (req, res) -> { throw new AssertionError("must not reach the chain"); });
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(meterRegistry.get("http.server.requests.rejected").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(slow.get(10, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        // The permit came back, so the next request goes through
+        MockHttpServletResponse next = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/appointments"), next, (req, res) -> { });
+        assertThat(next.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("http.server.requests.in_flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void asyncRequestsHoldTheirPermitUntilTheyComplete() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 50, meterRegistry);
+        MockHttpServletRequest streaming = new MockHttpServletRequest("GET", "/api/exports/patients");
+        streaming.setAsyncSupported(true);
+        filter.doFilter(streaming, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        // The first dispatch has returned, but the body is still being written
+        assertThat(meterRegistry.get("http.server.requests.in_flight").gauge().value()).isEqualTo(1.0);
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/appointments"), rejected, (req, res) -> { });
+        assertThat(rejected.getStatus()).isEqualTo(503);
+
+        streaming.getAsyncContext().complete();
+
+        assertThat(meterRegistry.get("http.server.requests.in_flight").gauge().value()).isZero();
+        MockHttpServletResponse next = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/appointments"), next, (req, res) -> { });
+        assertThat(next.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void zeroDisablesTheLimit() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(0, 50, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> held = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse(), (req, res) -> {
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/"), response, (req, res) -> { });
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        release.countDown();
+        held.get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,109 @@
+package com.healthcare.filter;
+
+import com.healthcare.StatementCounter;
+import com.healthcare.model.Person;
+import com.healthcare.repository.PersonRepository;
+import com.healthcare.service.SecurityVersionService;
+import com.healthcare.service.UserDetailsServiceImpl;
+import com.healthcare.util.AuthenticationCache;
+import com.healthcare.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Before/after measurement for principal-in-token mode: the same authenticated request goes through
+ * {@link JwtRequestFilter} with a subject-only token (database lookup of person and roles) and with a
+ * principal token (claims only). The authentication cache is cleared before every request so both
+ * runs take the uncached path, which is what every new token on every node pays. Statement counts
+ * are asserted; timings are logged for comparison.
+ */
+@SpringBootTest(properties = StatementCounter.PROPERTY)
+class PrincipalInTokenBenchmarkTest {
+
+    private static final Logger logger = Logger.getLogger(PrincipalInTokenBenchmarkTest.class.getName());
+    private static final String EMAIL = "doctor@health.rw";
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2_000;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private AuthenticationCache authenticationCache;
+
+    @Autowired
+    private SecurityVersionService securityVersionService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+        authenticationCache.clear();
+    }
+
+    @Test
+    void principalTokensAuthenticateWithoutQueries() throws Exception {
+        UserDetails user = userDetailsService.loadUserByUsername(EMAIL);
+        Person person = personRepository.findByEmail(EMAIL).orElseThrow();
+
+        JwtUtil subjectOnly = new JwtUtil(false);
+        JwtUtil principalInToken = new JwtUtil(true);
+        Run before = measure(new JwtRequestFilter(userDetailsService, subjectOnly, authenticationCache, securityVersionService),
+                subjectOnly.generateToken(user));
+        Run after = measure(new JwtRequestFilter(userDetailsService, principalInToken, authenticationCache, securityVersionService),
+                principalInToken.generateToken(user, person.getId(), person.getSecurityVersion()));
+
+        logger.info(String.format("JwtRequestFilter, uncached: subject-only %.1f us/op, %.2f statements/op; "
+                        + "principal-in-token %.1f us/op, %.2f statements/op",
+                before.micros(), before.statementsPerOp(), after.micros(), after.statementsPerOp()));
+
+        assertThat(before.statementsPerOp()).isGreaterThanOrEqualTo(1.0);
+        assertThat(after.statements).isZero();
+    }
+
+    private Run measure(JwtRequestFilter filter, String token) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            authenticate(filter, token);
+        }
+        StatementCounter.reset();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            authenticate(filter, token);
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Run(elapsed, StatementCounter.count());
+    }
+
+    private void authenticate(JwtRequestFilter filter, String token) throws Exception {
+        authenticationCache.clear();
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/appointments");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+    }
+
+    private record Run(long elapsedNanos, long statements) {
+
+        double micros() {
+            return elapsedNanos / 1_000.0 / ITERATIONS;
+        }
+
+        double statementsPerOp() {
+            return (double) statements / ITERATIONS;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.healthcare.housekeeping;
+
+import com.healthcare.otp.OtpService;
+import com.healthcare.repository.EmailOutboxRepository;
+import com.healthcare.repository.IdempotencyRecordRepository;
+import com.healthcare.repository.OtpCodeRepository;
+import com.healthcare.repository.PasswordResetTokenRepository;
+import com.healthcare.service.IdempotencyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HousekeepingServiceTest {
+
+    private final PasswordResetTokenRepository tokenRepository = mock(PasswordResetTokenRepository.class);
+    private final EmailOutboxRepository outboxRepository = mock(EmailOutboxRepository.class);
+    private final OtpCodeRepository otpCodeRepository = mock(OtpCodeRepository.class);
+    private final IdempotencyRecordRepository idempotencyRepository = mock(IdempotencyRecordRepository.class);
+    private final OtpService otpService = mock(OtpService.class);
+    private final IdempotencyService idempotencyService = mock(IdempotencyService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Batches of 2, at most 3 per table and run
+    private final HousekeepingService housekeeping = new HousekeepingService(tokenRepository, outboxRepository,
+            otpCodeRepository, idempotencyRepository, otpService, idempotencyService,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry, 2, 3, 7, 30);
+
+    @Test
+    void deletesInBatchesUntilAShortOne() {
+        when(tokenRepository.findExpiredIds(any(Date.class), any()))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+
+        housekeeping.run();
+
+        verify(tokenRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(tokenRepository).deleteAllByIdInBatch(List.of(3L, 4L));
+        verify(tokenRepository).deleteAllByIdInBatch(List.of(5L));
+        assertThat(purged("password_reset_token")).isEqualTo(5);
+        assertThat(meterRegistry.get("housekeeping.last.run").gauge().value()).isPositive();
+    }
+
+    @Test
+    void stopsAfterMaxBatchesPerRun() {
+        when(tokenRepository.findExpiredIds(any(Date.class), any())).thenReturn(List.of(1L, 2L));
+
+        housekeeping.run();
+
+        verify(tokenRepository, times(3)).deleteAllByIdInBatch(List.of(1L, 2L));
+        assertThat(purged("password_reset_token")).isEqualTo(6);
+    }
+
+    @Test
+    void otpCodesAndIdempotencyKeysArePurgedInBatches() {
+        when(otpService.purgeExpired()).thenReturn(1);
+        when(otpCodeRepository.findExpiredIds(any(LocalDateTime.class), any())).thenReturn(List.of(7L, 8L), List.of());
+        when(idempotencyRepository.findExpiredIds(any(LocalDateTime.class), any())).thenReturn(List.of(9L));
+
+        housekeeping.run();
+
+        verify(otpCodeRepository).deleteAllByIdInBatch(List.of(7L, 8L));
+        verify(idempotencyRepository).deleteAllByIdInBatch(List.of(9L));
+        verify(idempotencyService).evictExpired(any(LocalDateTime.class));
+        assertThat(purged("otp_codes")).isEqualTo(3);
+        assertThat(purged("idempotency_keys")).isEqualTo(1);
+    }
+
+    @Test
+    void aFailingTableDoesNotStopTheOthers() {
+        when(tokenRepository.findExpiredIds(any(Date.class), any())).thenThrow(new IllegalStateException("down"));
+        when(idempotencyRepository.findExpiredIds(any(LocalDateTime.class), any())).thenReturn(List.of(9L));
+
+        housekeeping.run();
+
+        verify(tokenRepository, never()).deleteAllByIdInBatch(any());
+        verify(idempotencyRepository).deleteAllByIdInBatch(List.of(9L));
+        assertThat(meterRegistry.get("housekeeping.failures").tag("table", "password_reset_token").counter().count())
+                .isEqualTo(1);
+    }
+
+    private double purged(String table) {
+        return meterRegistry.get("housekeeping.purged").tag("table", table).counter().count();
+    }
+}
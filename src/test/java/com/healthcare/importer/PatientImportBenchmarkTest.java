@@ -0,0 +1,78 @@
+package com.healthcare.importer;
+
+import com.healthcare.repository.PersonRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Imports a generated CSV through the real pipeline (spool, validate, hash, batched insert) and logs the
+ * throughput; rows come without passwords so the run measures the import itself rather than bcrypt.
+ */
+@SpringBootTest
+class PatientImportBenchmarkTest {
+
+    private static final Logger logger = Logger.getLogger(PatientImportBenchmarkTest.class.getName());
+    private static final int ROWS = 10_000;
+
+    @Autowired
+    private PatientImportService importService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Test
+    void importsTenThousandRows() throws Exception {
+        long before = personRepository.count();
+        StringBuilder csv = new StringBuilder("fullName,email,phone,age,gender\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append("Bench Patient ").append(i).append(",bench-").append(i).append("@import.test,07880")
+                    .append(String.format("%05d", i)).append(',').append(20 + i % 60).append(',')
+                    .append(i % 2 == 0 ? "Female" : "Male").append('\n');
+        }
+
+        long start = System.nanoTime();
+        ImportJob job = importService.submit(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV);
+        long deadline = System.currentTimeMillis() + 120_000;
+        while (!job.isDone() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        logger.info(() -> String.format("Imported %d rows in %d ms (%d rows/s)",
+                job.getImported(), millis, job.getImported() * 1000 / millis));
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.COMPLETED);
+        assertThat(job.getImported()).isEqualTo(ROWS);
+        assertThat(job.getFailed()).isZero();
+        assertThat(personRepository.count()).isEqualTo(before + ROWS);
+    }
+
+    @Test
+    void refusesUploadsOverTheLimit() {
+        InputStream endless = new InputStream() {
+            @Override
+            public int read() {
+                return 'x';
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                Arrays.fill(b, off, off + len, (byte) 'x');
+                return len;
+            }
+        };
+
+        assertThatThrownBy(() -> importService.submit(endless, ImportFormat.CSV))
+                .isInstanceOf(ImportTooLargeException.class);
+    }
+}
@@ -0,0 +1,33 @@
+package com.healthcare.migration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application on an empty database: every migration from V0 has to apply, and Hibernate's
+ * {@code ddl-auto=validate} has to accept the result, or the context fails to load.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:schema_migrations_test;DB_CLOSE_DELAY=-1")
+class SchemaMigrationsTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void emptySchemaMigratesFromBaselineToLatest() {
+        MigrationInfo[] applied = flyway.info().applied();
+
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(applied[0].getVersion().getVersion()).isEqualTo("0");
+        assertThat(Arrays.stream(applied).map(info -> info.getState().isFailed())).containsOnly(false);
+        assertThat(flyway.info().current().getVersion())
+                .isEqualTo(flyway.info().all()[flyway.info().all().length - 1].getVersion());
+    }
+}
@@ -0,0 +1,57 @@
+package com.healthcare.otp;
+
+import com.healthcare.repository.OtpCodeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "otp.store=database")
+class DatabaseOtpStoreTest extends OtpStoreContractTest {
+
+    @Autowired
+    private OtpCodeRepository repository;
+
+    @Autowired
+    private OtpStore store;
+
+    @Override
+    protected OtpStore store() {
+        return store;
+    }
+
+    @Test
+    void theDatabaseStoreIsSelected() {
+        assertThat(store).isInstanceOf(DatabaseOtpStore.class);
+    }
+
+    @Test
+    void concurrentFirstCodesForAKeyAllSucceed() throws Exception {
+        int requests = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> puts = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            String hash = "hash-" + i;
+            puts.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                store.put(key, hash, Instant.now().plusSeconds(600));
+            }));
+        }
+        start.countDown();
+        CompletableFuture.allOf(puts.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        assertThat(repository.findAll().stream().filter(code -> code.getOtpKey().equals(key))).hasSize(1);
+    }
+}
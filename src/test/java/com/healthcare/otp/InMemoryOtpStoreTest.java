@@ -0,0 +1,25 @@
+package com.healthcare.otp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryOtpStoreTest extends OtpStoreContractTest {
+
+    private final InMemoryOtpStore store = new InMemoryOtpStore();
+
+    @Override
+    protected OtpStore store() {
+        return store;
+    }
+
+    @Test
+    void purgeDropsOnlyExpiredCodes() {
+        store.put(key, "hash-1", now.minusSeconds(1));
+        store.put("live|LOGIN", "hash-2", now.plusSeconds(600));
+
+        assertThat(store.purgeExpired(now)).isEqualTo(1);
+        assertThat(store.check(key, "hash-1", now, 3)).isEqualTo(OtpCheck.MISSING);
+        assertThat(store.check("live|LOGIN", "hash-2", now, 3)).isEqualTo(OtpCheck.VALID);
+    }
+}
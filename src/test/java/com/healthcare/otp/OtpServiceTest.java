@@ -0,0 +1,69 @@
+package com.healthcare.otp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OtpServiceTest {
+
+    private static final String EMAIL = "patient@health.rw";
+
+    private final RecordingStore store = new RecordingStore();
+    private final OtpService service = new OtpService(store, 10, 3);
+
+    @Test
+    void issuedCodesVerifyOnceAndOnlyForTheirPurpose() {
+        String code = service.issue(" Patient@Health.rw ", OtpPurpose.LOGIN);
+
+        assertThat(code).matches("\\d{6}");
+        assertThat(service.verify(EMAIL, OtpPurpose.PASSWORD_RESET, code)).isEqualTo(OtpCheck.MISSING);
+        assertThat(service.verify(EMAIL, OtpPurpose.LOGIN, " " + code + " ")).isEqualTo(OtpCheck.VALID);
+        assertThat(service.verify(EMAIL, OtpPurpose.LOGIN, code)).isEqualTo(OtpCheck.MISSING);
+    }
+
+    @Test
+    void codesExpireAfterTheTtl() {
+        OtpService immediate = new OtpService(store, 0, 3);
+        String code = immediate.issue(EMAIL, OtpPurpose.TWO_FACTOR);
+
+        assertThat(immediate.verify(EMAIL, OtpPurpose.TWO_FACTOR, code)).isEqualTo(OtpCheck.EXPIRED);
+    }
+
+    @Test
+    void tooManyWrongCodesDiscardTheCode() {
+        String code = service.issue(EMAIL, OtpPurpose.LOGIN);
+        String wrong = code.equals("000000") ? "000001" : "000000";
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(service.verify(EMAIL, OtpPurpose.LOGIN, wrong)).isEqualTo(OtpCheck.INVALID);
+        }
+        assertThat(service.verify(EMAIL, OtpPurpose.LOGIN, code)).isEqualTo(OtpCheck.MISSING);
+    }
+
+    @Test
+    void hashesAreSaltedWithTheKey() {
+        String code = service.issue(EMAIL, OtpPurpose.LOGIN);
+        String hash = store.hashes.get(EMAIL + "|LOGIN");
+        assertThat(hash).doesNotContain(code).hasSize(64);
+
+        // The same code stored under another email's key does not verify there
+        store.put("doctor@health.rw|LOGIN", hash, Instant.now().plusSeconds(600));
+        assertThat(service.verify("doctor@health.rw", OtpPurpose.LOGIN, code)).isEqualTo(OtpCheck.INVALID);
+        assertThat(service.verify(EMAIL, OtpPurpose.LOGIN, code)).isEqualTo(OtpCheck.VALID);
+    }
+
+    private static class RecordingStore extends InMemoryOtpStore {
+
+        private final Map<String, String> hashes = new HashMap<>();
+
+        @Override
+        public void put(String key, String codeHash, Instant expiresAt) {
+            hashes.put(key, codeHash);
+            super.put(key, codeHash, expiresAt);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.healthcare.otp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Behaviour every {@link OtpStore} shares; subclasses supply the store under test. */
+abstract class OtpStoreContractTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    protected abstract OtpStore store();
+
+    protected final String key = UUID.randomUUID() + "@otp.test|LOGIN";
+    protected final Instant now = Instant.now();
+    private final Instant expiresAt = now.plus(Duration.ofMinutes(10));
+
+    @Test
+    void aMatchingCodeIsConsumedOnce() {
+        store().put(key, "hash-1", expiresAt);
+
+        assertThat(store().check(key, "hash-1", now, MAX_ATTEMPTS)).isEqualTo(OtpCheck.VALID);
+        assertThat(store().check(key, "hash-1", now, MAX_ATTEMPTS)).isEqualTo(OtpCheck.MISSING);
+    }
+
+    @Test
+    void wrongCodesUseUpTheAttempts() {
+        store().put(key, "hash-1", expiresAt);
+
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            assertThat(store().check(key, "wrong", now, MAX_ATTEMPTS)).isEqualTo(OtpCheck.INVALID);
+        }
+        assertThat(store().check(key, "hash-1", now, MAX_ATTEMPTS)).isEqualTo(OtpCheck.MISSING);
+    }
+
+    @Test
+    void expiredCodesAreRefused() {
+        store().put(key, "hash-1", now.minusSeconds(1));
+
+        assertThat(store().check(key, "hash-1", now, MAX_ATTEMPTS)).isEqualTo(OtpCheck.EXPIRED);
+        assertThat(store().check(key, "hash-1", now, MAX_ATTEMPTS)).isEqualTo(OtpCheck.MISSING);
+    }
+
+    @Test
+    void aNewCodeReplacesTheOldOneAndItsAttempts() {
+        store().put(key, "hash-1", expiresAt);
+        store().check(key, "wrong", now, MAX_ATTEMPTS);
+        store().check(key, "wrong", now, MAX_ATTEMPTS);
+
+        store().put(key, "hash-2", expiresAt);
+
+        assertThat(store().check(key, "hash-1", now, MAX_ATTEMPTS)).isEqualTo(OtpCheck.INVALID);
+        assertThat(store().check(key, "wrong", now, MAX_ATTEMPTS)).isEqualTo(OtpCheck.INVALID);
+        assertThat(store().check(key, "hash-2", now, MAX_ATTEMPTS)).isEqualTo(OtpCheck.VALID);
+    }
+}
@@ -0,0 +1,22 @@
+package com.healthcare.password;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BcryptCalibrationTest {
+
+    @Test
+    void strengthStaysWithinBounds() {
+        assertThat(BcryptCalibration.strengthFor(0, 4, 10)).isEqualTo(4);
+        assertThat(BcryptCalibration.strengthFor(Long.MAX_VALUE / 4, 4, 6)).isEqualTo(6);
+    }
+
+    @Test
+    void aLongerTargetNeverLowersTheStrength() {
+        int quick = BcryptCalibration.strengthFor(5, 4, 12);
+        int slow = BcryptCalibration.strengthFor(400, 4, 12);
+
+        assertThat(slow).isGreaterThanOrEqualTo(quick).isGreaterThan(4);
+    }
+}
@@ -0,0 +1,102 @@
+package com.healthcare.password;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hashing throughput of {@link PooledPasswordEncoder} against calling BCrypt directly on the request
+ * threads, at the strength the application calibrates to by default (100 ms target, 10..14). The same
+ * {@value #CALLERS} concurrent callers verify {@value #HASHES} passwords in both runs; the pool has one
+ * worker per core, as with password.hash.workers=0. Throughput, mean and p99 per call are logged; every
+ * verification must succeed, and none may be turned away by the pool's queue or wait bounds.
+ */
+class PasswordHashingBenchmarkTest {
+
+    private static final Logger logger = Logger.getLogger(PasswordHashingBenchmarkTest.class.getName());
+    private static final int CALLERS = 16;
+    private static final int HASHES = 64;
+    private static final String PASSWORD = "Doctor123!";
+
+    @Test
+    void pooledAndDirectHashingUnderTheSameLoad() throws Exception {
+        int strength = BcryptCalibration.strengthFor(100, 10, 14);
+        int cores = Runtime.getRuntime().availableProcessors();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (PooledPasswordEncoder pooled = new PooledPasswordEncoder(strength, cores, 64, 30_000, meterRegistry)) {
+            String hash = new BCryptPasswordEncoder(strength).encode(PASSWORD);
+            Run direct = measure(new BCryptPasswordEncoder(strength), hash);
+            Run pool = measure(pooled, hash);
+
+            logger.info(String.format("BCrypt strength %d, %d callers, %d cores: direct %.1f hashes/s, "
+                            + "mean %.0f ms, p99 %.0f ms; pooled %.1f hashes/s, mean %.0f ms, p99 %.0f ms",
+                    strength, CALLERS, cores, direct.throughput(), direct.meanMillis(), direct.p99Millis(),
+                    pool.throughput(), pool.meanMillis(), pool.p99Millis()));
+
+            assertThat(direct.matched()).isEqualTo(HASHES);
+            assertThat(pool.matched()).isEqualTo(HASHES);
+            assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isZero();
+            assertThat(meterRegistry.get("password.hash.duration").tag("op", "match").timer().count())
+                    .isEqualTo(HASHES);
+        }
+    }
+
+    private Run measure(PasswordEncoder encoder, String hash) throws Exception {
+        long[] latencies = new long[HASHES];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger matched = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int c = 0; c < CALLERS; c++) {
+                workers.add(callers.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < HASHES; i = next.getAndIncrement()) {
+                        long called = System.nanoTime();
+                        if (encoder.matches(PASSWORD, hash)) {
+                            matched.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - called;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Run(elapsed, latencies, matched.get());
+    }
+
+    private record Run(long elapsedNanos, long[] sortedLatencies, int matched) {
+
+        double throughput() {
+            return HASHES / (elapsedNanos / 1e9);
+        }
+
+        double meanMillis() {
+            return Arrays.stream(sortedLatencies).average().orElse(0) / 1e6;
+        }
+
+        double p99Millis() {
+            return sortedLatencies[(int) Math.ceil(HASHES * 0.99) - 1] / 1e6;
+        }
+    }
+}
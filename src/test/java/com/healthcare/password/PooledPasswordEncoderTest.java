@@ -0,0 +1,73 @@
+package com.healthcare.password;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PooledPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void encodesAndMatchesOnThePool() {
+        try (PooledPasswordEncoder encoder = new PooledPasswordEncoder(4, 2, 10, 5_000, meterRegistry)) {
+            String hash = encoder.encode("Doctor123!");
+
+            assertThat(hash).startsWith("$2a$04$");
+            assertThat(encoder.matches("Doctor123!", hash)).isTrue();
+            assertThat(encoder.matches("wrong", hash)).isFalse();
+            assertThat(meterRegistry.get("password.hash.duration").tag("op", "match").timer().count()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void weakerHashesAskForAnUpgrade() {
+        try (PooledPasswordEncoder encoder = new PooledPasswordEncoder(5, 1, 10, 5_000, meterRegistry)) {
+            assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("x"))).isTrue();
+            assertThat(encoder.upgradeEncoding(encoder.encode("x"))).isFalse();
+        }
+    }
+
+    @Test
+    void callersGiveUpAfterTheWaitTimeout() {
+        // Strength 14 takes far longer than 20 ms on any machine
+        try (PooledPasswordEncoder encoder = new PooledPasswordEncoder(14, 1, 10, 20, meterRegistry)) {
+            assertThatThrownBy(() -> encoder.encode("Patient123!"))
+                    .isInstanceOf(PasswordHashingBusyException.class)
+                    .hasMessageContaining("Timed out");
+            assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isEqualTo(1.0);
+        }
+    }
+
+    @Test
+    void aFullQueueFailsFast() throws Exception {
+        // One worker and one queue slot: of three slow hashes at once, at least one cannot be taken
+        try (PooledPasswordEncoder encoder = new PooledPasswordEncoder(13, 1, 1, 30_000, meterRegistry)) {
+            List<CompletableFuture<String>> calls = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                calls.add(CompletableFuture.supplyAsync(() -> encoder.encode("Admin123!")));
+            }
+            int busy = 0;
+            for (CompletableFuture<String> call : calls) {
+                try {
+                    assertThat(call.get(60, TimeUnit.SECONDS)).startsWith("$2a$13$");
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(PasswordHashingBusyException.class)
+                            .hasMessageContaining("queue is full");
+                    busy++;
+                }
+            }
+            assertThat(busy).isBetween(1, 2);
+            assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isEqualTo(busy);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.healthcare.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AuthRateLimiter limiter = new AuthRateLimiter(new InMemoryRateLimitStore(1024), meterRegistry,
+            true, "20:10", "5:5", "10:5", "3:1", "100:100", "100:100", 3, 15);
+
+    @Test
+    void perEmailBucketRejectsWithRetryAfter() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.check(AuthRateLimiter.Action.LOGIN, "10.0.0." + i, "Doctor@Health.rw")).isNull();
+        }
+        AuthRateLimiter.Rejection rejection = limiter.check(AuthRateLimiter.Action.LOGIN, "10.0.0.9", "doctor@health.rw");
+
+        assertThat(rejection).isNotNull();
+        assertThat(rejection.retryAfterSeconds()).isBetween(1L, 13L);
+        assertThat(meterRegistry.counter("auth.ratelimit.rejected", "action", "login", "reason", "email").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void wrongCodesLockTheEmailOutUntilACorrectCode() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.check(AuthRateLimiter.Action.OTP_VERIFY, "10.0.0.1", "patient@health.rw")).isNull();
+            limiter.recordOtpFailure("patient@health.rw");
+        }
+
+        AuthRateLimiter.Rejection lockout = limiter.check(AuthRateLimiter.Action.OTP_VERIFY, "10.0.0.2", "patient@health.rw");
+        assertThat(lockout).isNotNull();
+        assertThat(lockout.retryAfterSeconds()).isEqualTo(15 * 60);
+        assertThat(limiter.check(AuthRateLimiter.Action.OTP_VERIFY, "10.0.0.2", "doctor@health.rw")).isNull();
+
+        limiter.recordOtpSuccess("patient@health.rw");
+        assertThat(limiter.check(AuthRateLimiter.Action.OTP_VERIFY, "10.0.0.2", "patient@health.rw")).isNull();
+    }
+}
@@ -0,0 +1,72 @@
+package com.healthcare.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimitStoreTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(15);
+
+    @Test
+    void bucketAllowsABurstThenOneTokenPerInterval() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(1024);
+        Duration interval = Duration.ofSeconds(12);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(store.tryAcquire("login-ip", "10.0.0.1", 5, interval)).isZero();
+        }
+        long wait = store.tryAcquire("login-ip", "10.0.0.1", 5, interval);
+
+        assertThat(wait).isPositive().isLessThanOrEqualTo(interval.toNanos());
+        // A refused request does not consume a token, so the wait does not grow
+        assertThat(store.tryAcquire("login-ip", "10.0.0.1", 5, interval)).isLessThanOrEqualTo(wait);
+    }
+
+    @Test
+    void bucketRefillsAfterTheInterval() throws InterruptedException {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(1024);
+        Duration interval = Duration.ofMillis(50);
+
+        assertThat(store.tryAcquire("login-ip", "10.0.0.1", 1, interval)).isZero();
+        assertThat(store.tryAcquire("login-ip", "10.0.0.1", 1, interval)).isPositive();
+        Thread.sleep(60);
+        assertThat(store.tryAcquire("login-ip", "10.0.0.1", 1, interval)).isZero();
+    }
+
+    @Test
+    void failuresAccumulateAndResetClearsThem() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(1024);
+
+        for (int i = 0; i < 3; i++) {
+            store.recordFailure("otp-failures", "alice@health.rw", WINDOW);
+        }
+        assertThat(store.failures("otp-failures", "alice@health.rw", WINDOW)).isGreaterThanOrEqualTo(3.0);
+
+        store.resetFailures("otp-failures", "alice@health.rw");
+        assertThat(store.failures("otp-failures", "alice@health.rw", WINDOW)).isZero();
+    }
+
+    @Test
+    void resetDoesNotClearAnotherKeyInTheSameStripe() {
+        // Two stripes: some other email is bound to land in alice's slot
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(2);
+        store.recordFailure("otp-failures", "alice@health.rw", WINDOW);
+        String neighbour = null;
+        for (int i = 0; neighbour == null; i++) {
+            String candidate = "user" + i + "@health.rw";
+            if (store.failures("otp-failures", candidate, WINDOW) > 0) {
+                neighbour = candidate;
+            }
+        }
+        for (int i = 0; i < 4; i++) {
+            store.recordFailure("otp-failures", neighbour, WINDOW);
+        }
+
+        store.resetFailures("otp-failures", "alice@health.rw");
+
+        assertThat(store.failures("otp-failures", neighbour, WINDOW)).isGreaterThanOrEqualTo(4.0);
+    }
+}
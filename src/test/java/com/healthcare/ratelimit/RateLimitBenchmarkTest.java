@@ -0,0 +1,98 @@
+package com.healthcare.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of {@link AuthRateLimiter#check} on the in-memory store with {@value #THREADS} threads:
+ * once spread over {@value #KEYS} distinct IPs and emails under limits that never reject (the accept
+ * path, two CAS updates per check), and once with every thread on the same email under the default
+ * login limits (the reject path on a single contended slot). Checks per second are logged; the number
+ * of checks let through is asserted.
+ */
+class RateLimitBenchmarkTest {
+
+    private static final Logger logger = Logger.getLogger(RateLimitBenchmarkTest.class.getName());
+    private static final int THREADS = 8;
+    private static final int KEYS = 100_000;
+    private static final int CHECKS = 2_000_000;
+    private static final String[] IPS = new String[KEYS];
+    private static final String[] EMAILS = new String[KEYS];
+
+    static {
+        for (int i = 0; i < KEYS; i++) {
+            IPS[i] = "10." + (i >> 16) + "." + ((i >> 8) & 0xFF) + "." + (i & 0xFF);
+            EMAILS[i] = "user" + i + "@bench.test";
+        }
+    }
+
+    @Test
+    void checkThroughputOnSpreadAndHotKeys() throws Exception {
+        AuthRateLimiter open = limiter("1000000:1000000", "1000000:1000000");
+        measure(open, i -> EMAILS[i % KEYS]); // warm-up
+        Run spread = measure(open, i -> EMAILS[i % KEYS]);
+
+        AuthRateLimiter defaults = limiter("1000000:1000000", "5:5");
+        Run hot = measure(defaults, i -> "doctor@health.rw");
+
+        logger.info(String.format("AuthRateLimiter.check, %d threads: %d distinct keys %.1f M checks/s (%d allowed); "
+                        + "one hot email %.1f M checks/s (%d allowed)",
+                THREADS, KEYS, spread.millionsPerSecond(), spread.allowed(), hot.millionsPerSecond(), hot.allowed()));
+
+        assertThat(spread.allowed()).isEqualTo(CHECKS);
+        // The burst of 5, plus at most one token refilled (5 per minute) while the run lasts
+        assertThat(hot.allowed()).isBetween(5L, 6L);
+    }
+
+    private Run measure(AuthRateLimiter limiter, IntFunction<String> email) throws Exception {
+        AtomicLong allowed = new AtomicLong();
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int first = t;
+                workers.add(threads.submit(() -> {
+                    long mine = 0;
+                    for (int i = first; i < CHECKS; i += THREADS) {
+                        if (limiter.check(AuthRateLimiter.Action.LOGIN, IPS[i % KEYS], email.apply(i)) == null) {
+                            mine++;
+                        }
+                    }
+                    allowed.addAndGet(mine);
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        return new Run(System.nanoTime() - start, allowed.get());
+    }
+
+    private static AuthRateLimiter limiter(String perIp, String perEmail) {
+        return new AuthRateLimiter(new InMemoryRateLimitStore(65536), new SimpleMeterRegistry(), true,
+                perIp, perEmail, "10:5", "3:1", "20:10", "10:5", 5, 15);
+    }
+
+    private record Run(long elapsedNanos, long allowed) {
+
+        double millionsPerSecond() {
+            return CHECKS / (elapsedNanos / 1e9) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.healthcare.routing;
+
+import com.healthcare.repository.PersonRepository;
+import com.healthcare.service.UserDetailsServiceImpl;
+import com.healthcare.util.JwtUtil;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Routing against two distinct databases: Flyway and the seed data run on the primary, which is then
+ * copied to a second in-memory H2 database acting as the replica. The replica's copy of the patient
+ * carries a marker name, so every read shows which database answered it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "datasource.replica.urls=" + ReplicaRoutingTest.REPLICA_URL,
+        "datasource.replica.read-your-writes-ms=60000"})
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1";
+
+    private static final String PATIENT = "patient@health.rw";
+    private static final String PRIMARY_NAME = "Uwase Marie";
+    private static final String REPLICA_NAME = "Replica Marker";
+    // The reader never writes; the writer's reads fall inside its read-your-writes window
+    private static final String READER = "badagaclass@gmail.com";
+    private static final String WRITER = "doctor@health.rw";
+    private static final String PATIENT_NAME = "$.content[?(@.email == '" + PATIENT + "')].fullName";
+
+    private static boolean replicaCopied;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primary;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new SingleConnectionDataSource(REPLICA_URL, "sa", "", true));
+
+    @BeforeEach
+    void copyPrimaryToReplica() throws Exception {
+        if (replicaCopied) {
+            return;
+        }
+        Path script = Files.createTempFile("replica", ".sql");
+        try {
+            new JdbcTemplate(primary).execute("SCRIPT TO '" + script + "'");
+            replica.execute("RUNSCRIPT FROM '" + script + "'");
+        } finally {
+            Files.delete(script);
+        }
+        replica.update("UPDATE persons SET full_name = ? WHERE email = ?", REPLICA_NAME, PATIENT);
+        replicaCopied = true;
+    }
+
+    @Test
+    void readOnlyGetsGoToTheReplica() throws Exception {
+        mockMvc.perform(get("/api/persons").param("size", "100").header("Authorization", bearer(READER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(PATIENT_NAME, contains(REPLICA_NAME)));
+    }
+
+    @Test
+    void writesGoToThePrimary() throws Exception {
+        String email = write();
+
+        assertThat(count(new JdbcTemplate(primary), email)).isEqualTo(1);
+        assertThat(count(replica, email)).isZero();
+    }
+
+    @Test
+    void readsRightAfterAClientsWriteStayOnThePrimary() throws Exception {
+        write();
+
+        mockMvc.perform(get("/api/persons").param("size", "100").header("Authorization", bearer(WRITER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(PATIENT_NAME, contains(PRIMARY_NAME)));
+        // The window is per client: everyone else keeps reading the replica
+        mockMvc.perform(get("/api/persons").param("size", "100").header("Authorization", bearer(READER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(PATIENT_NAME, contains(REPLICA_NAME)));
+    }
+
+    @Test
+    void backgroundJobsReadThePrimary() throws Exception {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        String name = CompletableFuture.supplyAsync(() -> readOnly.execute(
+                        tx -> personRepository.findByEmail(PATIENT).orElseThrow().getFullName()))
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(name).isEqualTo(PRIMARY_NAME);
+    }
+
+    private String write() throws Exception {
+        String email = "routing-" + UUID.randomUUID() + "@health.rw";
+        mockMvc.perform(post("/api/persons").header("Authorization", bearer(WRITER))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fullName\":\"Routing Test\",\"email\":\"" + email + "\",\"password\":\"Secret123!\"}"))
+                .andExpect(status().isOk());
+        return email;
+    }
+
+    private static int count(JdbcTemplate database, String email) {
+        return database.queryForObject("SELECT COUNT(*) FROM persons WHERE email = ?", Integer.class, email);
+    }
+
+    private String bearer(String email) {
+        return "Bearer " + jwtUtil.generateToken(userDetailsService.loadUserByUsername(email));
+    }
+}
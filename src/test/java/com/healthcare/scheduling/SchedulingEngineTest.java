@@ -0,0 +1,110 @@
+package com.healthcare.scheduling;
+
+import com.healthcare.repository.AppointmentRepository;
+import com.healthcare.repository.PersonRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class SchedulingEngineTest {
+
+    private static final int THREADS = 16;
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    private final SchedulingEngine engine = new SchedulingEngine(mock(AppointmentRepository.class),
+            mock(PersonRepository.class), 15, "08:00", "17:00", 60);
+
+    @Test
+    void concurrentBookingsOfOneSlotHaveExactlyOneWinner() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            Booking booking = new Booking(1L, DAY, LocalTime.of(8, 0).plusMinutes(15L * (round % 36)));
+            engine.release(booking);
+
+            AtomicInteger winners = new AtomicInteger();
+            AtomicInteger conflicts = new AtomicInteger();
+            race(() -> {
+                try {
+                    engine.reserve(booking);
+                    winners.incrementAndGet();
+                } catch (SlotConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+            });
+
+            assertThat(winners).hasValue(1);
+            assertThat(conflicts).hasValue(THREADS - 1);
+        }
+    }
+
+    @Test
+    void concurrentBookingsOfDifferentSlotsAllSucceed() throws Exception {
+        // 96 quarter-hour slots span two words of one day bitmap; no reservation may clear a neighbour's bit
+        SlotGrid grid = engine.getGrid();
+        int slots = grid.getSlotsPerDay();
+        AtomicInteger next = new AtomicInteger();
+        List<Booking> booked = new ArrayList<>();
+        for (int i = 0; i < slots; i++) {
+            booked.add(new Booking(2L, DAY, grid.startOf(i)));
+        }
+        race(() -> {
+            int i;
+            while ((i = next.getAndIncrement()) < slots) {
+                engine.reserve(booked.get(i));
+            }
+        });
+
+        for (Booking booking : booked) {
+            assertThat(engine.isFree(2L, DAY, booking.time())).isFalse();
+            assertThatThrownBy(() -> engine.reserve(booking)).isInstanceOf(SlotConflictException.class);
+        }
+        assertThat(engine.isFree(3L, DAY, LocalTime.of(8, 0))).isTrue();
+    }
+
+    @Test
+    void releasedSlotsCanBeBookedAgain() {
+        Booking booking = new Booking(4L, DAY, LocalTime.of(9, 15));
+        engine.reserve(booking);
+        // Any time inside the same slot is the same booking
+        assertThatThrownBy(() -> engine.reserve(new Booking(4L, DAY, LocalTime.of(9, 20))))
+                .isInstanceOf(SlotConflictException.class);
+
+        engine.release(booking);
+
+        assertThat(engine.isFree(4L, DAY, LocalTime.of(9, 20))).isTrue();
+        engine.reserve(new Booking(4L, DAY, LocalTime.of(9, 20)));
+    }
+
+    private static void race(Runnable task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.healthcare.search;
+
+import com.healthcare.dto.AppointmentSummary;
+import com.healthcare.dto.PrescriptionSummary;
+import com.healthcare.event.EntityUpdate;
+import com.healthcare.model.Appointment;
+import com.healthcare.model.Person;
+import com.healthcare.repository.AppointmentRepository;
+import com.healthcare.repository.MedicalRecordRepository;
+import com.healthcare.repository.PersonRepository;
+import com.healthcare.repository.PrescriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchIndexServiceTest {
+
+    private final PersonRepository personRepository = mock(PersonRepository.class);
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final MedicalRecordRepository medicalRecordRepository = mock(MedicalRecordRepository.class);
+    private final PrescriptionRepository prescriptionRepository = mock(PrescriptionRepository.class);
+    private final SearchIndexService service = new SearchIndexService(personRepository, appointmentRepository,
+            medicalRecordRepository, prescriptionRepository);
+
+    @BeforeEach
+    void setUp() {
+        when(personRepository.findAll(any(Pageable.class))).thenAnswer(call -> Page.empty(call.getArgument(0)));
+        when(appointmentRepository.findAll(any(Pageable.class))).thenAnswer(call -> Page.empty(call.getArgument(0)));
+        when(medicalRecordRepository.findAll(any(Pageable.class))).thenAnswer(call -> Page.empty(call.getArgument(0)));
+        when(prescriptionRepository.findAll(any(Pageable.class))).thenAnswer(call -> Page.empty(call.getArgument(0)));
+        when(appointmentRepository.findSummariesByPatientId(any(), any(Pageable.class)))
+                .thenAnswer(call -> Page.empty(call.getArgument(1)));
+        when(appointmentRepository.findSummariesByDoctorId(any(), any(Pageable.class)))
+                .thenAnswer(call -> Page.empty(call.getArgument(1)));
+        when(medicalRecordRepository.findSummariesByPatientId(any(), any(Pageable.class)))
+                .thenAnswer(call -> Page.empty(call.getArgument(1)));
+        when(medicalRecordRepository.findSummariesByDoctorId(any(), any(Pageable.class)))
+                .thenAnswer(call -> Page.empty(call.getArgument(1)));
+        when(prescriptionRepository.findSummariesByPatientId(any(), any(Pageable.class)))
+                .thenAnswer(call -> Page.empty(call.getArgument(1)));
+        when(prescriptionRepository.findSummariesByDoctorId(any(), any(Pageable.class)))
+                .thenAnswer(call -> Page.empty(call.getArgument(1)));
+    }
+
+    @Test
+    void changesCommittedDuringARebuildWinOverTheirStalePage() {
+        when(personRepository.findAll(any(Pageable.class))).thenAnswer(call -> {
+            // The page was read before these commits, but their listeners run before it is indexed
+            service.onUpdate(person(1L, "Alice Uwase"), rename("Alice Mukamana"));
+            service.onDelete(person(2L, "Bosco Habimana"));
+            return new PageImpl<>(List.of(person(1L, "Alice Mukamana"), person(2L, "Bosco Habimana")),
+                    call.getArgument(0), 2);
+        });
+
+        service.rebuild();
+
+        assertThat(service.isReady()).isTrue();
+        assertThat(ids(SearchIndexService.Type.PERSONS, "uwase")).containsExactly(1L);
+        assertThat(ids(SearchIndexService.Type.PERSONS, "mukamana")).isEmpty();
+        assertThat(ids(SearchIndexService.Type.PERSONS, "bosco")).isEmpty();
+    }
+
+    @Test
+    void renamingAPersonReindexesTheDocumentsThatNameThem() {
+        Person patient = person(1L, "Alice Mukamana");
+        service.onInsert(patient);
+        service.onInsert(Appointment.builder().id(10L).status("pending").patient(patient).build());
+        when(appointmentRepository.findSummariesByPatientId(eq(1L), any(Pageable.class)))
+                .thenAnswer(call -> new PageImpl<>(List.of(new AppointmentSummary(10L, LocalDate.now(), null,
+                        "pending", null, null, null, null, null, 1L, "Alice Uwase", null, null, 0L)),
+                        call.getArgument(1), 1));
+        when(prescriptionRepository.findSummariesByDoctorId(eq(1L), any(Pageable.class)))
+                .thenAnswer(call -> new PageImpl<>(List.of(new PrescriptionSummary(20L, "ibuprofen", null, null,
+                        null, LocalDate.now(), "active", 2L, "Bosco Habimana", 1L, "Alice Uwase", 0L)),
+                        call.getArgument(1), 1));
+
+        service.onUpdate(person(1L, "Alice Uwase"), rename("Alice Mukamana"));
+
+        assertThat(ids(SearchIndexService.Type.APPOINTMENTS, "uwase")).containsExactly(10L);
+        assertThat(ids(SearchIndexService.Type.APPOINTMENTS, "mukamana")).isEmpty();
+        assertThat(ids(SearchIndexService.Type.PRESCRIPTIONS, "uwase")).containsExactly(20L);
+    }
+
+    private List<Long> ids(SearchIndexService.Type type, String term) {
+        return service.query(type, term, 0, 10, 100).ids();
+    }
+
+    private static Person person(Long id, String fullName) {
+        return Person.builder().id(id).fullName(fullName).email(id + "@search.test").build();
+    }
+
+    private static EntityUpdate rename(String previousName) {
+        return new EntityUpdate(new String[]{"fullName"}, new Object[]{previousName});
+    }
+}
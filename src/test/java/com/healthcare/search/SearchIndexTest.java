@@ -0,0 +1,48 @@
+package com.healthcare.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexTest {
+
+    @Test
+    void ranksExactAbovePrefixAboveInfix() {
+        SearchIndex index = new SearchIndex();
+        index.index(1L, "Annemarie Uwase");
+        index.index(2L, "Anne Mukamana");
+        index.index(3L, "Joanne Ishimwe");
+
+        assertThat(index.query("anne", 0, 10, 100).ids()).containsExactly(2L, 1L, 3L);
+    }
+
+    @Test
+    void offsetQueriesScoreAtMostMaxCandidates() {
+        SearchIndex index = new SearchIndex();
+        for (long id = 1; id <= 1_000; id++) {
+            index.index(id, "Patient " + id);
+        }
+
+        SearchIndex.Hits hits = index.query("patient", 0, 20, 100);
+
+        assertThat(hits.ids()).hasSize(20);
+        assertThat(hits.total()).isEqualTo(100);
+    }
+
+    @Test
+    void cursorPagesWalkTheWholeRankingOnce() {
+        SearchIndex index = new SearchIndex();
+        for (long id = 1; id <= 25; id++) {
+            index.index(id, "Kigali hospital " + id);
+        }
+
+        SearchIndex.CursorHits first = index.query("kigali", null, 10, 1_000);
+        SearchIndex.CursorHits second = index.query("kigali", first.next(), 10, 1_000);
+        SearchIndex.CursorHits third = index.query("kigali", second.next(), 10, 1_000);
+
+        assertThat(first.ids()).hasSize(10).doesNotContainAnyElementsOf(second.ids());
+        assertThat(third.ids()).hasSize(5);
+        assertThat(third.next()).isNull();
+        assertThat(third.totalExact()).isTrue();
+    }
+}
@@ -0,0 +1,98 @@
+package com.healthcare.service;
+
+import com.healthcare.event.EntityUpdate;
+import com.healthcare.model.Appointment;
+import com.healthcare.model.Person;
+import com.healthcare.model.Role;
+import com.healthcare.repository.AppointmentRepository;
+import com.healthcare.repository.PersonRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardCounterStoreTest {
+
+    private final PersonRepository personRepository = mock(PersonRepository.class);
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final DashboardCounterStore store = new DashboardCounterStore(personRepository, appointmentRepository);
+
+    @Test
+    void insertsUpdatesAndDeletesAdjustTheCounters() {
+        Person patient = person("PATIENT");
+        store.onInsert(patient);
+        store.onInsert(person("DOCTOR"));
+        Appointment appointment = appointment("pending");
+        store.onInsert(appointment);
+        store.onInsert(appointment("pending"));
+
+        appointment.setStatus("confirmed");
+        store.onUpdate(appointment, new EntityUpdate(new String[]{"status"}, new Object[]{"pending"}));
+        store.onDelete(patient);
+        store.onDelete(appointment);
+
+        assertThat(store.getTotalPatients()).isZero();
+        assertThat(store.getTotalDoctors()).isEqualTo(1);
+        assertThat(store.getTotalAppointments()).isEqualTo(1);
+        assertThat(store.getAppointmentsWithStatus("pending")).isEqualTo(1);
+        assertThat(store.getAppointmentsWithStatus("confirmed")).isZero();
+    }
+
+    @Test
+    void reconcileCorrectsDrift() {
+        store.onInsert(person("PATIENT"));
+        store.onInsert(appointment("cancelled"));
+        counts(40, 3, 12, 7);
+
+        store.reconcile();
+
+        assertThat(store.isInitialized()).isTrue();
+        assertThat(store.getTotalPatients()).isEqualTo(40);
+        assertThat(store.getTotalDoctors()).isEqualTo(3);
+        assertThat(store.getTotalAppointments()).isEqualTo(12);
+        assertThat(store.getAppointmentsWithStatus("pending")).isEqualTo(7);
+        assertThat(store.getAppointmentsWithStatus("cancelled")).isZero();
+    }
+
+    @Test
+    void writesCommittedWhileCountingAreNotLost() {
+        counts(40, 3, 12, 7);
+        when(appointmentRepository.count()).thenAnswer(call -> {
+            // Committed after the patient count and while appointments are counted, neither query saw it
+            store.onInsert(person("PATIENT"));
+            return 12L;
+        });
+        when(appointmentRepository.countByStatus("pending")).thenAnswer(call -> {
+            store.onInsert(appointment("pending"));
+            return 7L;
+        });
+
+        store.reconcile();
+
+        assertThat(store.getTotalPatients()).isEqualTo(41);
+        assertThat(store.getTotalAppointments()).isEqualTo(13);
+        assertThat(store.getAppointmentsWithStatus("pending")).isEqualTo(8);
+
+        // Once the reconcile is over, changes apply once
+        store.onInsert(appointment("pending"));
+        assertThat(store.getTotalAppointments()).isEqualTo(14);
+    }
+
+    private void counts(long patients, long doctors, long appointments, long pending) {
+        when(personRepository.countByRoles_Name("PATIENT")).thenReturn(patients);
+        when(personRepository.countByRoles_Name("DOCTOR")).thenReturn(doctors);
+        when(appointmentRepository.count()).thenReturn(appointments);
+        when(appointmentRepository.countByStatus("pending")).thenReturn(pending);
+    }
+
+    private static Person person(String role) {
+        return Person.builder().roles(Set.of(Role.builder().name(role).build())).build();
+    }
+
+    private static Appointment appointment(String status) {
+        return Appointment.builder().status(status).build();
+    }
+}
@@ -0,0 +1,204 @@
+package com.healthcare.service;
+
+import com.healthcare.model.EmailOutbox;
+import com.healthcare.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the outbox pipeline against {@link SmtpStandIn} through a real {@link JavaMailSenderImpl}, with
+ * an in-memory outbox table and no backoff so retries are driven by {@link EmailDeliveryService#pollOutbox()}.
+ */
+class EmailDeliveryServiceTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final Map<Long, EmailOutbox> outbox = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SmtpStandIn smtp;
+    private JavaMailSenderImpl mailSender;
+    private EmailOutboxRepository repository;
+    private EmailDeliveryService deliveryService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        smtp = new SmtpStandIn();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.port());
+        mailSender.getJavaMailProperties().put("mail.smtp.from", "noreply@health.rw");
+
+        repository = mock(EmailOutboxRepository.class);
+        when(repository.save(any(EmailOutbox.class))).thenAnswer(call -> store(call.getArgument(0)));
+        when(repository.saveAll(anyIterable())).thenAnswer(call -> {
+            ((Iterable<EmailOutbox>) call.getArgument(0)).forEach(this::store);
+            return List.of();
+        });
+        when(repository.findAllById(anyIterable())).thenAnswer(call -> {
+            List<EmailOutbox> rows = new ArrayList<>();
+            ((Iterable<Long>) call.getArgument(0)).forEach(id -> rows.add(outbox.get(id)));
+            return rows;
+        });
+        when(repository.findTop100ByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(anyCollection(), any(LocalDateTime.class)))
+                .thenAnswer(call -> outbox.values().stream()
+                        .filter(row -> ((Collection<String>) call.getArgument(0)).contains(row.getStatus()))
+                        .filter(row -> !row.getNextAttemptAt().isAfter(call.getArgument(1)))
+                        .sorted(Comparator.comparing(EmailOutbox::getId))
+                        .toList());
+        // The conditional UPDATE: only one caller moves a due row to sending
+        when(repository.claim(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class))).thenAnswer(call -> {
+            EmailOutbox row = outbox.get(call.<Long>getArgument(0));
+            synchronized (row) {
+                if (!List.of(EmailDeliveryService.PENDING, EmailDeliveryService.SENDING).contains(row.getStatus())
+                        || row.getNextAttemptAt().isAfter(call.getArgument(1))) {
+                    return 0;
+                }
+                row.setStatus(EmailDeliveryService.SENDING);
+                row.setNextAttemptAt(call.getArgument(2));
+                return 1;
+            }
+        });
+
+        deliveryService = service();
+    }
+
+    private EmailDeliveryService service() {
+        EmailDeliveryService service = new EmailDeliveryService(mailSender, repository, meterRegistry,
+                100, 1, 20, MAX_ATTEMPTS, 0, 0, 60_000, false);
+        service.start();
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        deliveryService.stop();
+        smtp.close();
+    }
+
+    @Test
+    void transientFailureIsRetriedFromTheOutbox() throws Exception {
+        smtp.rejectNext(1);
+
+        EmailOutbox row = deliveryService.enqueue("patient@health.rw", "Your Login OTP Code", "Your code is 123456", true);
+
+        awaitUntil(() -> row.getAttempts() == 1);
+        assertThat(row.getStatus()).isEqualTo(EmailDeliveryService.PENDING);
+        assertThat(row.getLastError()).isNotNull();
+        assertThat(smtp.messages()).isEmpty();
+
+        awaitUntil(() -> polled(() -> EmailDeliveryService.SENT.equals(row.getStatus())));
+        assertThat(row.getAttempts()).isEqualTo(2);
+        assertThat(smtp.messages()).singleElement().asString().contains("Your code is 123456");
+        assertThat(meterRegistry.counter("email.messages", "result", "retry").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("email.messages", "result", "sent").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void sensitiveBodiesAreClearedAfterSendingAndOthersAreKept() throws Exception {
+        EmailOutbox otp = deliveryService.enqueue("patient@health.rw", "Your Login OTP Code", "Your code is 654321", true);
+        EmailOutbox notice = deliveryService.enqueue("patient@health.rw", "Appointment confirmed", "See you on Monday", false);
+
+        awaitUntil(() -> EmailDeliveryService.SENT.equals(otp.getStatus())
+                && EmailDeliveryService.SENT.equals(notice.getStatus()));
+
+        assertThat(otp.getBody()).isNull();
+        assertThat(notice.getBody()).isEqualTo("See you on Monday");
+    }
+
+    @Test
+    void givesUpAfterMaxAttemptsAndClearsTheSensitiveBody() throws Exception {
+        smtp.rejectNext(Integer.MAX_VALUE);
+
+        EmailOutbox row = deliveryService.enqueue("patient@health.rw", "Password Reset Request", "reset?token=abc", true);
+
+        awaitUntil(() -> polled(() -> EmailDeliveryService.FAILED.equals(row.getStatus())));
+        assertThat(row.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(row.getBody()).isNull();
+        assertThat(meterRegistry.counter("email.messages", "result", "failed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void messagesPolledByTwoNodesAreSentOnce() throws Exception {
+        EmailDeliveryService otherNode = service();
+        try {
+            List<EmailOutbox> rows = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                rows.add(store(EmailOutbox.builder().recipient("patient" + i + "@health.rw").subject("Reminder")
+                        .body("Appointment " + i).status(EmailDeliveryService.PENDING).attempts(0)
+                        .nextAttemptAt(LocalDateTime.now()).createdAt(LocalDateTime.now()).build()));
+            }
+
+            deliveryService.pollOutbox();
+            otherNode.pollOutbox();
+
+            awaitUntil(() -> rows.stream().allMatch(row -> EmailDeliveryService.SENT.equals(row.getStatus())));
+            assertThat(smtp.messages()).hasSize(40);
+            assertThat(rows).allMatch(row -> row.getAttempts() == 1);
+        } finally {
+            otherNode.stop();
+        }
+    }
+
+    @Test
+    void aLapsedClaimIsPickedUpAgain() throws Exception {
+        // Left sending by a node that died mid-batch, its lease already over
+        EmailOutbox row = store(EmailOutbox.builder().recipient("patient@health.rw").subject("Reminder")
+                .body("See you on Monday").status(EmailDeliveryService.SENDING).attempts(0)
+                .nextAttemptAt(LocalDateTime.now().minusSeconds(1)).createdAt(LocalDateTime.now()).build());
+
+        deliveryService.pollOutbox();
+
+        awaitUntil(() -> EmailDeliveryService.SENT.equals(row.getStatus()));
+        assertThat(smtp.messages()).hasSize(1);
+    }
+
+    private EmailOutbox store(EmailOutbox row) {
+        if (row.getId() == null) {
+            row.setId(ids.incrementAndGet());
+        }
+        outbox.put(row.getId(), row);
+        return row;
+    }
+
+    // Plays the scheduled poller: a row only re-enters the queue once its worker has finished with it
+    private boolean polled(BooleanSupplier condition) {
+        if (condition.getAsBoolean()) {
+            return true;
+        }
+        deliveryService.pollOutbox();
+        return false;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 10s");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
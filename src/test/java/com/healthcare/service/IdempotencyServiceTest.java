@@ -0,0 +1,107 @@
+package com.healthcare.service;
+
+import com.healthcare.model.IdempotencyRecord;
+import com.healthcare.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "test";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    private final AtomicLong ids = new AtomicLong(100);
+    private final AtomicLong creates = new AtomicLong();
+
+    @Test
+    void retriesReplayTheFirstResult() {
+        String key = UUID.randomUUID().toString();
+
+        IdempotencyService.Outcome<Long> first = execute(key, Map.of("medication", "ibuprofen"));
+        IdempotencyService.Outcome<Long> retry = execute(key, Map.of("medication", "ibuprofen"));
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.value()).isEqualTo(first.value());
+        assertThat(creates).hasValue(1);
+    }
+
+    @Test
+    void reusingAKeyWithADifferentBodyIsRejected() {
+        String key = UUID.randomUUID().toString();
+        execute(key, Map.of("medication", "ibuprofen"));
+
+        assertThatThrownBy(() -> execute(key, Map.of("medication", "paracetamol")))
+                .isInstanceOfSatisfying(IdempotencyService.KeyConflictException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(422));
+        assertThat(creates).hasValue(1);
+    }
+
+    @Test
+    void keysInProgressAreRefusedUntilTheirLeaseLapses() {
+        String key = UUID.randomUUID().toString();
+        IdempotencyRecord stuck = repository.save(record(key, IdempotencyService.IN_PROGRESS,
+                LocalDateTime.now().plusMinutes(1)));
+
+        assertThatThrownBy(() -> execute(key, "body"))
+                .isInstanceOfSatisfying(IdempotencyService.KeyConflictException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(409));
+
+        // The node holding the key died; once the lease is over a retry takes the key over
+        stuck.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        repository.save(stuck);
+        IdempotencyService.Outcome<Long> outcome = execute(key, "body");
+
+        assertThat(outcome.replayed()).isFalse();
+        assertThat(creates).hasValue(1);
+        IdempotencyRecord reclaimed = repository.findById(stuck.getId()).orElseThrow();
+        assertThat(reclaimed.getStatus()).isEqualTo(IdempotencyService.COMPLETED);
+        assertThat(reclaimed.getResourceId()).isEqualTo(outcome.value());
+        assertThat(reclaimed.getExpiresAt()).isAfter(LocalDateTime.now().plusHours(1));
+    }
+
+    @Test
+    void expiredKeysAreNotReplayed() {
+        String key = UUID.randomUUID().toString();
+        repository.save(record(key, IdempotencyService.COMPLETED, LocalDateTime.now().minusMinutes(1)));
+
+        IdempotencyService.Outcome<Long> outcome = execute(key, "body");
+
+        assertThat(outcome.replayed()).isFalse();
+        assertThat(creates).hasValue(1);
+    }
+
+    private IdempotencyService.Outcome<Long> execute(String key, Object body) {
+        return idempotencyService.execute(key, SCOPE, body, () -> {
+            creates.incrementAndGet();
+            return ids.incrementAndGet();
+        }, id -> id, id -> id);
+    }
+
+    private static IdempotencyRecord record(String key, String status, LocalDateTime expiresAt) {
+        return IdempotencyRecord.builder()
+                .owner("anonymous")
+                .scope(SCOPE)
+                .idempotencyKey(key)
+                .status(status)
+                .resourceId(status.equals(IdempotencyService.COMPLETED) ? 1L : null)
+                .createdAt(LocalDateTime.now().minusHours(1))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
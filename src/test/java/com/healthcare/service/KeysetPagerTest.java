@@ -0,0 +1,143 @@
+package com.healthcare.service;
+
+import com.healthcare.dto.CursorPage;
+import com.healthcare.dto.MedicalRecordSummary;
+import com.healthcare.dto.PrescriptionSummary;
+import com.healthcare.model.MedicalRecord;
+import com.healthcare.model.Person;
+import com.healthcare.model.Prescription;
+import com.healthcare.repository.MedicalRecordRepository;
+import com.healthcare.repository.PersonRepository;
+import com.healthcare.repository.PrescriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class KeysetPagerTest {
+
+    @Autowired
+    private PrescriptionService prescriptionService;
+
+    @Autowired
+    private MedicalRecordService medicalRecordService;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    private Person patient;
+    private Person doctor;
+    private final List<Prescription> prescriptions = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        patient = personRepository.save(Person.builder().fullName("Keyset Patient")
+                .email("keyset-patient@pager.test").password("unused").build());
+        doctor = personRepository.save(Person.builder().fullName("Keyset Doctor")
+                .email("keyset-doctor@pager.test").password("unused").build());
+        LocalDate today = LocalDate.now();
+        // Undated rows, a run of rows sharing one date (ties broken by id), and distinct dates
+        LocalDate[] dates = {null, today, today.minusDays(3), null, today, today, today.minusDays(1), null,
+                today.minusDays(3), today, today.minusDays(10)};
+        for (LocalDate date : dates) {
+            prescriptions.add(prescriptionRepository.save(Prescription.builder().patient(patient).doctor(doctor)
+                    .medication("amoxicillin").dateIssued(date).build()));
+        }
+    }
+
+    @Test
+    void cursorsWalkEveryRowOnceInOrder() {
+        for (int limit = 1; limit <= prescriptions.size() + 1; limit++) {
+            List<Long> walked = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                CursorPage<PrescriptionSummary> page = prescriptionService.getPrescriptionHistoryByPatientId(
+                        patient.getId(), cursor, limit, false);
+                page.items().forEach(item -> walked.add(item.id()));
+                assertThat(page.total()).isNull();
+                cursor = page.nextCursor();
+                pages++;
+            } while (cursor != null);
+
+            assertThat(walked).as("limit %d", limit).containsExactlyElementsOf(expectedOrder());
+            assertThat(pages).isEqualTo(Math.max(1, (prescriptions.size() + limit - 1) / limit));
+        }
+    }
+
+    @Test
+    void undatedRowsComeFirstAndCanEndAPage() {
+        // Three undated rows: a limit of 2 puts the cursor on an undated row
+        CursorPage<PrescriptionSummary> first = prescriptionService.getPrescriptionHistoryByPatientId(
+                patient.getId(), null, 2, true);
+        assertThat(first.items()).extracting(PrescriptionSummary::dateIssued).containsOnlyNulls();
+        assertThat(first.total()).isEqualTo(prescriptions.size());
+
+        CursorPage<PrescriptionSummary> second = prescriptionService.getPrescriptionHistoryByPatientId(
+                patient.getId(), first.nextCursor(), 2, false);
+        assertThat(second.items().get(0).dateIssued()).isNull();
+        assertThat(second.items().get(1).dateIssued()).isEqualTo(LocalDate.now());
+    }
+
+    @Test
+    void medicalRecordHistoryPagesTheSameWay() {
+        LocalDate today = LocalDate.now();
+        List<Long> expected = new ArrayList<>();
+        for (LocalDate date : new LocalDate[] {today.minusDays(1), null, today, today.minusDays(1)}) {
+            medicalRecordRepository.save(MedicalRecord.builder().patient(patient).doctor(doctor)
+                    .diagnosis("flu").date(date).build());
+        }
+        medicalRecordRepository.findAll().stream()
+                .filter(m -> m.getDoctor() != null && m.getDoctor().getId().equals(doctor.getId()))
+                .sorted(historyOrder(MedicalRecord::getDate, MedicalRecord::getId))
+                .forEach(m -> expected.add(m.getId()));
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<MedicalRecordSummary> page = medicalRecordService.getMedicalRecordHistoryByDoctorId(
+                    doctor.getId(), cursor, 1, false);
+            page.items().forEach(item -> walked.add(item.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(walked).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThatThrownBy(() -> prescriptionService.getPrescriptionHistoryByPatientId(patient.getId(), "not-a-cursor", 10, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<Long> expectedOrder() {
+        return prescriptions.stream()
+                .sorted(historyOrder(Prescription::getDateIssued, Prescription::getId))
+                .map(Prescription::getId)
+                .toList();
+    }
+
+    // date DESC NULLS FIRST, id DESC
+    private static <T> Comparator<T> historyOrder(Function<T, LocalDate> date, Function<T, Long> id) {
+        return Comparator.comparing(date, Comparator.nullsFirst(Comparator.<LocalDate>reverseOrder()))
+                .thenComparing(id, Comparator.reverseOrder());
+    }
+}
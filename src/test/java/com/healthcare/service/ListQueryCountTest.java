@@ -0,0 +1,133 @@
+package com.healthcare.service;
+
+import com.healthcare.StatementCounter;
+import com.healthcare.model.Appointment;
+import com.healthcare.model.MedicalRecord;
+import com.healthcare.model.Person;
+import com.healthcare.model.Prescription;
+import com.healthcare.repository.AppointmentRepository;
+import com.healthcare.repository.MedicalRecordRepository;
+import com.healthcare.repository.PersonRepository;
+import com.healthcare.repository.PrescriptionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement counts for the paged list reads. Every row gets its own patient and doctor, so a page that
+ * loaded participants one by one would show up as extra statements rather than a fixed cost.
+ */
+@SpringBootTest(properties = StatementCounter.PROPERTY)
+@Transactional
+class ListQueryCountTest {
+
+    private static final int ROWS = 15;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private MedicalRecordService medicalRecordService;
+
+    @Autowired
+    private PrescriptionService prescriptionService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Person patient;
+    private Person doctor;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < ROWS; i++) {
+            patient = person("list-patient-" + i);
+            doctor = person("list-doctor-" + i);
+            appointmentRepository.save(Appointment.builder().patient(patient).doctor(doctor)
+                    .date(LocalDate.now().plusDays(i)).time(LocalTime.of(9, 0)).status("pending").build());
+            medicalRecordRepository.save(MedicalRecord.builder().patient(patient).doctor(doctor)
+                    .date(LocalDate.now().minusDays(i)).diagnosis("checkup").build());
+            prescriptionRepository.save(Prescription.builder().patient(patient).doctor(doctor)
+                    .dateIssued(LocalDate.now().minusDays(i)).medication("paracetamol").status("active").build());
+        }
+        // The last patient and doctor get a full page of their own for the filtered lists
+        for (int i = 0; i < ROWS; i++) {
+            appointmentRepository.save(Appointment.builder().patient(patient).doctor(doctor)
+                    .date(LocalDate.now().plusDays(i)).time(LocalTime.of(10, 0)).status("pending").build());
+            medicalRecordRepository.save(MedicalRecord.builder().patient(patient).doctor(doctor)
+                    .date(LocalDate.now().minusDays(i)).diagnosis("follow-up").build());
+            prescriptionRepository.save(Prescription.builder().patient(patient).doctor(doctor)
+                    .dateIssued(LocalDate.now().minusDays(i)).medication("ibuprofen").status("active").build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void summaryPagesCostOneSelectAndOneCount() {
+        assertStatements(2, () -> appointmentService.getAllAppointments(FIRST_PAGE));
+        assertStatements(2, () -> appointmentService.getAppointmentsByPatientId(patient.getId(), FIRST_PAGE));
+        assertStatements(2, () -> appointmentService.getAppointmentsByDoctorId(doctor.getId(), FIRST_PAGE));
+
+        assertStatements(2, () -> medicalRecordService.getAllMedicalRecords(FIRST_PAGE));
+        assertStatements(2, () -> medicalRecordService.getMedicalRecordsByPatientId(patient.getId(), FIRST_PAGE));
+        assertStatements(2, () -> medicalRecordService.getMedicalRecordsByDoctorId(doctor.getId(), FIRST_PAGE));
+
+        assertStatements(2, () -> prescriptionService.getAllPrescriptions(FIRST_PAGE));
+        assertStatements(2, () -> prescriptionService.getPrescriptionsByPatientId(patient.getId(), FIRST_PAGE));
+        assertStatements(2, () -> prescriptionService.getPrescriptionsByDoctorId(doctor.getId(), FIRST_PAGE));
+    }
+
+    @Test
+    void entityPagesFetchParticipantsInTheSameSelect() {
+        // Select and count, plus one batch for the eagerly loaded roles of everyone on the page
+        assertStatements(3, () -> {
+            Page<Appointment> page = appointmentRepository.findAll(FIRST_PAGE);
+            page.forEach(a -> assertThat(a.getPatient().getFullName()).isNotNull());
+            return page;
+        });
+        assertStatements(3, () -> {
+            Page<Prescription> page = prescriptionRepository.findAll(FIRST_PAGE);
+            page.forEach(p -> assertThat(p.getDoctor().getFullName()).isNotNull());
+            return page;
+        });
+    }
+
+    private void assertStatements(long expected, Supplier<Page<?>> read) {
+        entityManager.clear();
+        StatementCounter.reset();
+        Page<?> page = read.get();
+        assertThat(StatementCounter.count()).isEqualTo(expected);
+        assertThat(page.getNumberOfElements()).isEqualTo(FIRST_PAGE.getPageSize());
+    }
+
+    private Person person(String name) {
+        return personRepository.save(Person.builder().fullName(name).email(name + "@list.test")
+                .password("unused").build());
+    }
+}
@@ -0,0 +1,33 @@
+package com.healthcare.service;
+
+import com.healthcare.search.SearchIndexService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SearchServiceTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Test
+    void asyncSectionsRunOnWorkersAndReturnEveryType() throws Exception {
+        List<SearchIndexService.Type> types = List.of(SearchIndexService.Type.values());
+
+        List<CompletableFuture<SearchService.SearchSection>> futures = searchService.searchAsync("doctor", types, 5);
+
+        for (CompletableFuture<SearchService.SearchSection> future : futures) {
+            SearchService.SearchSection section = future.get(10, TimeUnit.SECONDS);
+            assertThat(section.error()).isNull();
+            assertThat(section.items().size()).isLessThanOrEqualTo(5);
+        }
+        assertThat(futures).hasSize(types.size());
+    }
+}
@@ -0,0 +1,80 @@
+package com.healthcare.service;
+
+import com.healthcare.model.Person;
+import com.healthcare.repository.PersonRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SecurityVersionServiceTest {
+
+    private final PersonRepository personRepository = mock(PersonRepository.class);
+
+    @Test
+    void freshEntriesAreServedFromMemory() {
+        when(personRepository.findSecurityVersionByEmail("doctor@health.rw")).thenReturn(Optional.of(3L));
+        SecurityVersionService service = new SecurityVersionService(personRepository, 100, 60);
+
+        assertThat(service.currentVersion(" Doctor@Health.rw ")).isEqualTo(3L);
+        assertThat(service.currentVersion("doctor@health.rw")).isEqualTo(3L);
+
+        verify(personRepository, times(1)).findSecurityVersionByEmail("doctor@health.rw");
+    }
+
+    @Test
+    void expiredEntriesAreReadAgainSoOtherNodesChangesArePickedUp() {
+        when(personRepository.findSecurityVersionByEmail("doctor@health.rw"))
+                .thenReturn(Optional.of(3L), Optional.of(4L));
+        SecurityVersionService service = new SecurityVersionService(personRepository, 100, 0);
+
+        assertThat(service.currentVersion("doctor@health.rw")).isEqualTo(3L);
+        assertThat(service.currentVersion("doctor@health.rw")).isEqualTo(4L);
+    }
+
+    @Test
+    void committedWritesReplaceTheCachedStamp() {
+        when(personRepository.findSecurityVersionByEmail("doctor@health.rw")).thenReturn(Optional.of(3L));
+        SecurityVersionService service = new SecurityVersionService(personRepository, 100, 60);
+        service.currentVersion("doctor@health.rw");
+
+        Person person = Person.builder().email("doctor@health.rw").securityVersion(4L).build();
+        service.onUpdate(person, null);
+        assertThat(service.currentVersion("doctor@health.rw")).isEqualTo(4L);
+
+        service.onDelete(person);
+        assertThat(service.currentVersion("doctor@health.rw")).isEqualTo(SecurityVersionService.UNKNOWN_USER);
+        verify(personRepository, times(1)).findSecurityVersionByEmail(anyString());
+    }
+
+    @Test
+    void unknownUsersNeverMatchAToken() {
+        when(personRepository.findSecurityVersionByEmail(anyString())).thenReturn(Optional.empty());
+        SecurityVersionService service = new SecurityVersionService(personRepository, 100, 60);
+
+        assertThat(service.currentVersion("ghost@health.rw")).isEqualTo(SecurityVersionService.UNKNOWN_USER);
+    }
+
+    @Test
+    void sizeStaysWithinTheBound() {
+        when(personRepository.findSecurityVersionByEmail(anyString())).thenReturn(Optional.of(0L));
+        SecurityVersionService service = new SecurityVersionService(personRepository, 50, 60);
+
+        for (int i = 0; i < 1_000; i++) {
+            service.currentVersion("user" + i + "@health.rw");
+        }
+
+        assertThat(service.size()).isLessThanOrEqualTo(50);
+    }
+
+    @Test
+    void builderKeepsTheDefaultStamp() {
+        assertThat(Person.builder().email("new@health.rw").build().getSecurityVersion()).isZero();
+    }
+}
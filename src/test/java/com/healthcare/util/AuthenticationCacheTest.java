@@ -0,0 +1,66 @@
+package com.healthcare.util;
+
+import com.healthcare.model.Person;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthenticationCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AuthenticationCache cache = new AuthenticationCache(100, 300, meterRegistry);
+
+    @Test
+    void cachedTokensAreServedUntilExpiry() {
+        cache.put("a", user("doctor@health.rw"), System.currentTimeMillis() + 60_000, cache.generation());
+        cache.put("b", user("patient@health.rw"), System.currentTimeMillis() - 1, cache.generation());
+
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("b")).isNull();
+        assertThat(meterRegistry.counter("auth.cache.requests", "result", "hit").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("auth.cache.requests", "result", "miss").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void committedPersonChangesEvictOnlyThatUser() {
+        cache.put("a", user("doctor@health.rw"), System.currentTimeMillis() + 60_000, cache.generation());
+        cache.put("b", user("patient@health.rw"), System.currentTimeMillis() + 60_000, cache.generation());
+
+        cache.onUpdate(Person.builder().email("Doctor@health.rw").build(), null);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isNotNull();
+
+        cache.onDelete(Person.builder().email("patient@health.rw").build());
+        assertThat(cache.get("b")).isNull();
+    }
+
+    @Test
+    void lookupsThatStartedBeforeAnEvictionAreNotCached() {
+        long generation = cache.generation();
+        // The user is loaded here, then their password change commits before the result is cached
+        cache.onUpdate(Person.builder().email("doctor@health.rw").build(), null);
+        cache.put("a", user("doctor@health.rw"), System.currentTimeMillis() + 60_000, generation);
+
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void sizeStaysWithinTheBound() {
+        AuthenticationCache small = new AuthenticationCache(20, 300, meterRegistry);
+        for (int i = 0; i < 500; i++) {
+            small.put("t" + i, user("user" + i + "@health.rw"), System.currentTimeMillis() + 60_000, small.generation());
+        }
+
+        assertThat(meterRegistry.get("auth.cache.size").gauge().value()).isLessThanOrEqualTo(20);
+    }
+
+    private static UserDetails user(String email) {
+        return new User(email, "", List.of());
+    }
+}
@@ -0,0 +1,35 @@
+package com.healthcare.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThreadFactoriesTest {
+
+    @Test
+    void platformThreadsAreNamedDaemons() {
+        ThreadFactory factory = ThreadFactories.named("worker-", false);
+
+        Thread first = factory.newThread(() -> { });
+        Thread second = factory.newThread(() -> { });
+
+        assertThat(first.getName()).isEqualTo("worker-1");
+        assertThat(second.getName()).isEqualTo("worker-2");
+        assertThat(first.isDaemon()).isTrue();
+    }
+
+    @Test
+    void virtualRequestsGetVirtualThreadsOnlyWhereSupported() throws Exception {
+        ThreadFactory factory = ThreadFactories.named("mail-", true);
+        Thread thread = factory.newThread(() -> { });
+
+        // Virtual threads are always daemons; the platform fallback is made one explicitly
+        assertThat(thread.isDaemon()).isTrue();
+        assertThat(thread.getName()).startsWith("mail-");
+        boolean virtual = ThreadFactories.virtualThreadsSupported()
+                && (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        assertThat(virtual).isEqualTo(ThreadFactories.virtualThreadsSupported());
+    }
+}